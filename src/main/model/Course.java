@@ -1,19 +1,38 @@
 package model;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
 /**
  * Represents a course containing multiple topics.
+ * Topics keep the order they were added in, and are also indexed by name ignoring case, so
+ * finding, checking for and removing a topic by name does not walk the list. Several topics may
+ * share a name: saved data and journals refer to topics by position, so duplicates are kept
+ * rather than merged. Lookups return the first topic with a name; removal removes all of them.
+ * The course keeps an immutable CourseVersion of itself up to date, making a new one after each
+ * change from the new versions of its changed topics, and hands it to its manager to publish.
  */
 public class Course implements Writable {
+    private static final double UNITS_PER_PERCENT = 1e9; // precision of the running totals of progress
+
     private String name;
     private List<Topic> topics;
+    private List<Topic> topicsView; // read-only view of topics, made once
+    private Map<String, List<Topic>> topicsByName; // by case-folded name, each list in topic order
+    private long totalConfidence; // running sum of the topics' confidence levels, in progress units
+    private CourseManager manager; // manager notified when progress changes, or null if detached
+    private PersistentVector<TopicVersion> topicVersions; // versions of topics, in order
+    private CourseVersion version; // this course as of its last change
    
     // Constructs a Course with the given name.
     // REQUIRES: name is a non-empty string.
@@ -21,7 +40,31 @@ public class Course implements Writable {
     public Course(String name) {
         this.name = name;
         this.topics = new ArrayList<>();
-      
+        this.topicsView = Collections.unmodifiableList(topics);
+        this.topicsByName = new HashMap<>();
+        this.topicVersions = PersistentVector.empty();
+        this.version = new CourseVersion(name, 0.0, topicVersions);
+    }
+
+    // Constructs a Course with the given name and topics.
+    // REQUIRES: name is a non-empty string, topics are not owned by another course.
+    // EFFECTS: Initializes the course with the provided topics in one pass, summing their
+    //          confidence levels once and logging no events. Used to rebuild saved courses in bulk.
+    public Course(String name, List<Topic> topics) {
+        this.name = name;
+        this.topics = new ArrayList<>(topics);
+        this.topicsView = Collections.unmodifiableList(this.topics);
+        this.topicsByName = new HashMap<>();
+        List<TopicVersion> versions = new ArrayList<>(topics.size());
+        for (int i = 0; i < this.topics.size(); i++) {
+            Topic topic = this.topics.get(i);
+            topic.setCourse(this, i);
+            index(topic);
+            totalConfidence += toUnits(topic.getConfidenceLevel());
+            versions.add(topic.getVersion());
+        }
+        this.topicVersions = PersistentVector.of(versions);
+        this.version = new CourseVersion(name, getOverallProgress(), topicVersions);
     }
 
     // Returns the name of the course.
@@ -32,36 +75,128 @@ public class Course implements Writable {
     // Adds a topic to the course.
     // REQUIRES: topicName is a non-empty string.
     // MODIFIES: this
-    // EFFECTS: Adds a new Topic with the given name to the topics list.
-    public void addTopic(String topicName) {
+    // EFFECTS: Adds a new Topic with the given name to the end of the topics list, even if a topic
+    //          with that name already exists, and returns it.
+    public Topic addTopic(String topicName) {
         Topic topic = new Topic(topicName);
-        topics.add(topic);
-        EventLog.getInstance().logEvent(new Event("Added topic '" + topicName + "' to course '" + name + "'."));
+        attachTopic(topic);
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+            log.logEvent(Event.topicAdded(name, topicName));
+        }
+        return topic;
     }
 
     // Removes a topic from the course.
-    // REQUIRES: topicName exists in the course.
     // MODIFIES: this
-    // EFFECTS: Removes the Topic with the specified name from the topics list.
+    // EFFECTS: Removes every Topic named topicName, ignoring case, from the topics list in one pass;
+    //          does nothing if there is none.
     public void removeTopic(String topicName) {
-        for (int i = 0; i < topics.size(); i++) {
-            if (topics.get(i).getName().equalsIgnoreCase(topicName)) {
-                topics.remove(i);
-                EventLog.getInstance().logEvent(
-                    new Event("Removed topic '" + topicName + "' from course '" + name + "'."));
-                i--; 
+        List<Topic> removed = topicsByName.remove(fold(topicName));
+        if (removed == null) {
+            return;
+        }
+        detachTopics(removed);
+        EventLog log = EventLog.getInstance();
+        for (int i = 0; i < removed.size(); i++) {
+            if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+                log.logEvent(Event.topicRemoved(name, topicName));
             }
         }
     }
 
+    // REQUIRES: 0 <= index <= getTopicCount(), topic does not belong to a course
+    // MODIFIES: this, topic
+    // EFFECTS: Puts topic into the topics list at index, moving the topics from index on one place later.
+    void insertTopic(int index, Topic topic) {
+        double oldProgress = getOverallProgress();
+        topics.add(index, topic);
+        renumberFrom(index);
+        index(topic);
+        totalConfidence += toUnits(topic.getConfidenceLevel());
+        progressChanged(oldProgress);
+        publish();
+        if (manager != null) {
+            manager.fireTopicInserted(this, index, topic);
+        }
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+            log.logEvent(Event.topicAdded(name, topic.getName()));
+        }
+    }
+
+    // REQUIRES: 0 <= index < getTopicCount()
+    // MODIFIES: this
+    // EFFECTS: Removes and returns the topic at index, leaving any others with the same name.
+    Topic removeTopicAt(int index) {
+        Topic topic = topics.get(index);
+        String key = fold(topic.getName());
+        List<Topic> named = topicsByName.get(key);
+        named.remove(topic);
+        if (named.isEmpty()) {
+            topicsByName.remove(key);
+        }
+        detachTopics(List.of(topic));
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+            log.logEvent(Event.topicRemoved(name, topic.getName()));
+        }
+        return topic;
+    }
+
+    // EFFECTS: Returns the first topic named topicName, ignoring case, or null if there is none.
+    public Topic getTopic(String topicName) {
+        List<Topic> named = topicsByName.get(fold(topicName));
+        return named == null ? null : named.get(0);
+    }
+
+    // EFFECTS: Returns true if the course has a topic named topicName, ignoring case.
+    public boolean hasTopic(String topicName) {
+        return topicsByName.containsKey(fold(topicName));
+    }
+
+
     /**
      * REQUIRES: topic is not null.
      * MODIFIES: this
      * EFFECTS: Adds the given Topic object to the list of topics in this course.
      */
     public void addTopicObject(Topic topic) {
-        topics.add(topic);
-        EventLog.getInstance().logEvent(new Event("Added topic '" + topic.getName() + "' to course '" + name + "'."));
+        attachTopic(topic);
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+            log.logEvent(Event.topicAdded(name, topic.getName()));
+        }
+    }
+
+    // REQUIRES: no topic in added belongs to a course
+    // MODIFIES: this, added
+    // EFFECTS: Appends the topics in added, in order, publishing one new version of the course for all
+    //          of them, then reports and logs each one as added.
+    void addTopicObjects(List<Topic> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        double oldProgress = getOverallProgress();
+        int first = topics.size();
+        for (Topic topic : added) {
+            topics.add(topic);
+            topic.setCourse(this, topics.size() - 1);
+            index(topic);
+            totalConfidence += toUnits(topic.getConfidenceLevel());
+        }
+        renumberFrom(first);
+        progressChanged(oldProgress);
+        publish();
+        EventLog log = EventLog.getInstance();
+        for (Topic topic : added) {
+            if (manager != null) {
+                manager.fireTopicAdded(this, topic);
+            }
+            if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+                log.logEvent(Event.topicAdded(name, topic.getName()));
+            }
+        }
     }
         
     // Returns the list of topics in the course.
@@ -69,21 +204,195 @@ public class Course implements Writable {
         return new ArrayList<>(topics); 
     }
 
+    // Returns a read-only view of the topics in the course, without copying them. The view follows
+    // later changes to the course, so it must not be iterated while topics are added or removed;
+    // use getTopics for a copy that can be.
+    public List<Topic> getTopicsView() {
+        return topicsView;
+    }
+
+    // Returns the number of topics in the course.
+    public int getTopicCount() {
+        return topics.size();
+    }
+
+    // Returns this course as of its last change.
+    public CourseVersion getVersion() {
+        return version;
+    }
+
     // Returns the overall progress for the course.
     public double getOverallProgress() {
         if (topics.isEmpty()) {
             return 0.0;
         }
-    
-        double totalConfidence = 0.0;
-        for (Topic topic : topics) {
-            totalConfidence += topic.getConfidenceLevel();  
-        }
-    
+
         // Return the average progress across all topics
-        return totalConfidence / topics.size();
+        return fromUnits(totalConfidence) / topics.size();
+    }
+
+    // MODIFIES: this, topic
+    // EFFECTS: Appends topic to the topics list, makes this course its owner and
+    //          adds its confidence level to the running total.
+    private void attachTopic(Topic topic) {
+        double oldProgress = getOverallProgress();
+        topics.add(topic);
+        topic.setCourse(this, topics.size() - 1);
+        index(topic);
+        topicVersions = topicVersions.plus(topic.getVersion());
+        totalConfidence += toUnits(topic.getConfidenceLevel());
+        progressChanged(oldProgress);
+        publish();
+        if (manager != null) {
+            manager.fireTopicAdded(this, topic);
+        }
+    }
+
+    // REQUIRES: removed is non-empty, in topic order; every topic in it is in topics and no longer indexed
+    // MODIFIES: this
+    // EFFECTS: Removes the topics in removed in a single pass over the list from the first of them,
+    //          keeping the order of the rest, and subtracts their confidence levels from the running total.
+    private void detachTopics(List<Topic> removed) {
+        double oldProgress = getOverallProgress();
+        int[] positions = new int[removed.size()]; // each counted after the removals before it
+        for (int k = 0; k < positions.length; k++) {
+            positions[k] = removed.get(k).getIndex() - k;
+        }
+        int kept = positions[0];
+        int next = 0; // the next of removed to skip
+        for (int i = kept; i < topics.size(); i++) {
+            if (next < removed.size() && removed.get(next).getIndex() == i) {
+                next++;
+            } else {
+                topics.set(kept++, topics.get(i));
+            }
+        }
+        topics.subList(kept, topics.size()).clear();
+        for (Topic topic : removed) {
+            topic.setCourse(null, 0);
+            totalConfidence -= toUnits(topic.getConfidenceLevel());
+        }
+        renumberFrom(positions[0]);
+        progressChanged(oldProgress);
+        publish();
+        if (manager != null) {
+            manager.fireTopicsRemoved(this, positions, removed);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Gives each topic from position first on its new position, and replaces the topic versions
+    //          from there on, sharing those before it with the previous versions.
+    private void renumberFrom(int first) {
+        List<TopicVersion> moved = new ArrayList<>(topics.size() - first);
+        for (int i = first; i < topics.size(); i++) {
+            Topic topic = topics.get(i);
+            topic.setCourse(this, i);
+            moved.add(topic.getVersion());
+        }
+        topicVersions = topicVersions.withTail(first, moved);
+    }
+
+    // REQUIRES: topic has its position in this course
+    // MODIFIES: this
+    // EFFECTS: Adds topic to the index of topics by name, among any others with the same name in topic order.
+    private void index(Topic topic) {
+        List<Topic> named = topicsByName.computeIfAbsent(fold(topic.getName()), k -> new ArrayList<>(1));
+        int at = named.size();
+        while (at > 0 && named.get(at - 1).getIndex() > topic.getIndex()) {
+            at--;
+        }
+        named.add(at, topic);
+    }
+
+    // EFFECTS: Returns topicName folded so that names equal ignoring case fold to the same string,
+    //          matching String.equalsIgnoreCase character by character.
+    static String fold(String topicName) {
+        StringBuilder sb = null;
+        for (int i = 0; i < topicName.length(); i++) {
+            char c = topicName.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c && sb == null) {
+                sb = new StringBuilder(topicName.length()).append(topicName, 0, i);
+            }
+            if (sb != null) {
+                sb.append(folded);
+            }
+        }
+        return sb == null ? topicName : sb.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Replaces oldLevel with newLevel in the running total of topic confidence levels.
+    //          Called by a Topic of this course whenever its confidence level changes.
+    void topicConfidenceChanged(double oldLevel, double newLevel) {
+        double oldProgress = getOverallProgress();
+        totalConfidence += toUnits(newLevel) - toUnits(oldLevel);
+        progressChanged(oldProgress);
+    }
+
+    // EFFECTS: Returns percent as a whole number of progress units. Running totals are kept in units
+    //          rather than as doubles so that taking out a value exactly undoes adding it: however many
+    //          changes are made, a total always equals the sum of the units of its current values.
+    static long toUnits(double percent) {
+        return Math.round(percent * UNITS_PER_PERCENT);
+    }
+
+    // EFFECTS: Returns the percentage a number of progress units stands for.
+    static double fromUnits(long units) {
+        return units / UNITS_PER_PERCENT;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Takes in topic's new version and publishes a new version of this course.
+    //          Called by a Topic of this course after each change to it.
+    void topicChanged(Topic topic) {
+        topicVersions = topicVersions.with(topic.getIndex(), topic.getVersion());
+        publish();
+    }
+
+    // EFFECTS: Tells the owning course manager (if any) that objective was added to topic.
+    void objectiveAdded(Topic topic, LessonObjective objective) {
+        if (manager != null) {
+            manager.fireObjectiveAdded(this, topic.getIndex(), objective);
+        }
+    }
+
+    // EFFECTS: Tells the owning course manager (if any) that the last objective of topic was removed.
+    void objectiveRemoved(Topic topic, LessonObjective objective) {
+        if (manager != null) {
+            manager.fireObjectiveRemoved(this, topic.getIndex(), objective);
+        }
+    }
+
+    // EFFECTS: Tells the owning course manager (if any) that the mastery of objective in topic flipped.
+    void objectiveMasteryChanged(Topic topic, LessonObjective objective) {
+        if (manager != null) {
+            manager.fireMasteryChanged(this, topic.getIndex(), objective.getIndex(), objective);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Sets the course manager that is notified whenever this course's progress changes.
+    void setManager(CourseManager manager) {
+        this.manager = manager;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Makes a new version of this course and hands it to the owning course manager (if any).
+    private void publish() {
+        version = new CourseVersion(name, getOverallProgress(), topicVersions);
+        if (manager != null) {
+            manager.coursePublished(this);
+        }
+    }
+
+    // EFFECTS: Tells the owning course manager (if any) that overall progress moved from oldProgress.
+    private void progressChanged(double oldProgress) {
+        if (manager != null) {
+            manager.courseProgressChanged(oldProgress, getOverallProgress());
+        }
     }
-    
 
     // Returns a string representation of the course, including overall progress.
     @Override
@@ -104,7 +413,17 @@ public class Course implements Writable {
         json.put("topics", jsonTopics);  
         return json;
     }
-    
 
-}
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
 
+        writer.name("topics").beginArray();
+        for (Topic topic : topics) {
+            topic.writeJson(writer);
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+}
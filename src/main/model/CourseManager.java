@@ -1,15 +1,92 @@
 package model;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+// Represents the set of courses being tracked. A manager made by concurrent() can be used from
+// several threads at once: courses are looked up without locking and added atomically, and every
+// change to a course is made through update (or read through read), which holds a lock chosen by
+// the course's name, so edits to different courses usually proceed in parallel. Courses, topics
+// and objectives must not be changed directly by several threads.
+// After every change the manager publishes an immutable ModelVersion of all its courses, which
+// any thread may read through getVersion without locking and without seeing later changes.
 public class CourseManager {
-    private Map<String, Course> courses;
+    private static final int STRIPES = 64;
 
-    // EFFECTS: Initializes a new CourseManager with no courses
+    private final Map<String, Entry> courses; // every course by name
+    private final StripedLocks locks; // guard each course's changes, or null if not concurrent
+    private final AtomicLong nextOrder = new AtomicLong(); // order of the next course added
+    private final LongAdder totalProgress = new LongAdder(); // running sum of the courses' progress, in units
+    private final List<ModelListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object publishLock = new Object(); // serializes publishing new versions
+    private volatile ModelVersion version = ModelVersion.EMPTY; // the latest published version
+
+    // EFFECTS: Initializes a new CourseManager with no courses, for use by one thread
     public CourseManager() {
-        courses = new HashMap<>();
+        this(false);
+    }
+
+    // EFFECTS: Initializes a new CourseManager holding the given courses without logging any events.
+    //          If several courses share a name, only the first one is kept, as with addCourse.
+    public CourseManager(List<Course> loadedCourses) {
+        this(false);
+        List<CourseVersion> versions = new ArrayList<>(loadedCourses.size());
+        for (Course course : loadedCourses) {
+            if (putIfAbsent(course.getName(), new Entry(nextOrder.getAndIncrement(), course, null))) {
+                course.setManager(this);
+                totalProgress.add(Course.toUnits(course.getOverallProgress()));
+                versions.add(course.getVersion());
+            }
+        }
+        version = ModelVersion.of(versions);
+    }
+
+    // EFFECTS: Initializes a new CourseManager with no courses, usable by several threads if concurrent
+    private CourseManager(boolean concurrent) {
+        courses = concurrent ? new ConcurrentHashMap<>() : new LinkedHashMap<>();
+        locks = concurrent ? new StripedLocks(STRIPES) : null;
+    }
+
+    // EFFECTS: Returns a new CourseManager with no courses that can be used from several threads at once.
+    public static CourseManager concurrent() {
+        return new CourseManager(true);
+    }
+
+    // EFFECTS: Returns a new CourseManager holding the indexed courses without building any of them or
+    //          logging any events. Each course is built the first time it is asked for; until then its
+    //          saved progress counts towards the overall progress. Duplicate names keep the first entry.
+    public static CourseManager fromIndex(List<LazyCourse> index) {
+        return fromIndex(index, false);
+    }
+
+    // EFFECTS: Returns a new CourseManager holding the indexed courses as fromIndex(index) does, which can
+    //          be used from several threads at once if concurrent.
+    public static CourseManager fromIndex(List<LazyCourse> index, boolean concurrent) {
+        CourseManager manager = new CourseManager(concurrent);
+        List<CourseVersion> versions = new ArrayList<>(index.size());
+        for (LazyCourse entry : index) {
+            if (manager.putIfAbsent(entry.getName(), new Entry(manager.nextOrder.getAndIncrement(), null, entry))) {
+                manager.totalProgress.add(Course.toUnits(entry.getOverallProgress()));
+                versions.add(CourseVersion.unloaded(entry));
+            }
+        }
+        manager.version = ModelVersion.of(versions);
+        return manager;
+    }
+
+    // EFFECTS: Returns true if this manager can be used from several threads at once.
+    public boolean isConcurrent() {
+        return locks != null;
     }
 
     // EFFECTS: Adds a new course with the given name and logs the event.
@@ -19,30 +96,284 @@ public class CourseManager {
             return false; // Course already exists
         }
         Course course = new Course(courseName);
-        courses.put(courseName, course);
-        EventLog.getInstance().logEvent(new Event("Added course '" + courseName + "' to the system."));
-        return true;
+        ReentrantLock lock = lock(courseName);
+        try {
+            if (!putIfAbsent(courseName, new Entry(nextOrder.getAndIncrement(), course, null))) {
+                return false;
+            }
+            course.setManager(this);
+            synchronized (publishLock) {
+                version = version.plusCourse(course.getVersion());
+            }
+            EventLog log = EventLog.getInstance();
+            if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+                log.logEvent(Event.courseAdded(courseName));
+            }
+            for (ModelListener listener : listeners) {
+                listener.courseAdded(course);
+            }
+            return true;
+        } finally {
+            unlock(lock);
+        }
     }
 
     // EFFECTS: Removes a course with the given name and logs the event.
     //          Returns true if the course was removed, false if it did not exist.
     public boolean removeCourse(String courseName) {
-        if (!courses.containsKey(courseName)) {
-            return false;
+        ReentrantLock lock = lock(courseName);
+        try {
+            Course course = getCourse(courseName);
+            if (course == null) {
+                return false;
+            }
+            courses.remove(courseName);
+            course.setManager(null);
+            removeProgress(course.getOverallProgress());
+            synchronized (publishLock) {
+                version = version.withoutCourse(courseName);
+            }
+            EventLog log = EventLog.getInstance();
+            if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+                log.logEvent(Event.courseRemoved(courseName));
+            }
+            for (ModelListener listener : listeners) {
+                listener.courseRemoved(course);
+            }
+            return true;
+        } finally {
+            unlock(lock);
         }
-        courses.remove(courseName);
-        EventLog.getInstance().logEvent(new Event("Removed course '" + courseName + "' from the system."));
-        return true;
     }
 
+    // MODIFIES: the named course
+    // EFFECTS: Runs edit on the course with the given name while holding that course's lock, and returns
+    //          true; returns false if there is no such course. Builds the course first if needed.
+    public boolean update(String courseName, Consumer<Course> edit) {
+        ReentrantLock lock = lock(courseName);
+        try {
+            Course course = getCourse(courseName);
+            if (course == null) {
+                return false;
+            }
+            edit.accept(course);
+            return true;
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    // EFFECTS: Returns what query computes from the course with the given name, reading it while holding
+    //          that course's lock, or null if there is no such course. Builds the course first if needed.
+    public <T> T read(String courseName, Function<Course, T> query) {
+        ReentrantLock lock = lock(courseName);
+        try {
+            Course course = getCourse(courseName);
+            return course == null ? null : query.apply(course);
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    // MODIFIES: this
     // EFFECTS: Gets the course with the given name, or null if it does not exist.
+    //          Builds the course first if it came from an index and has not been asked for yet.
     public Course getCourse(String courseName) {
-        return courses.get(courseName);
+        Entry entry = courses.get(courseName);
+        return entry == null ? null : entry.get(this);
+    }
+
+    // EFFECTS: Returns true if the course with the given name exists and has been built.
+    public boolean isLoaded(String courseName) {
+        Entry entry = courses.get(courseName);
+        return entry != null && entry.course != null;
     }
 
-    // EFFECTS: Returns a list of all course names.
+    // EFFECTS: Returns a list of all course names, in the order the courses were added.
     public List<String> getCourseNames() {
-        return List.copyOf(courses.keySet());
+        if (locks == null) {
+            return List.copyOf(courses.keySet());
+        }
+        List<String> names = new ArrayList<>(courses.size());
+        for (Entry entry : orderedEntries()) {
+            names.add(entry.name());
+        }
+        return names;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns a list of all courses, in the order they were added, building any that
+    //          have not been built yet.
+    public List<Course> getCourses() {
+        List<Course> result = new ArrayList<>(courses.size());
+        for (Entry entry : orderedEntries()) {
+            result.add(entry.get(this));
+        }
+        return result;
+    }
+
+    // EFFECTS: Returns the latest published version of every course. Courses that have not been built
+    //          yet appear unloaded, with their saved progress; getCourses builds them all.
+    public ModelVersion getVersion() {
+        return version;
+    }
+
+    // EFFECTS: Returns the average overall progress across all courses, or 0.0 if there are none.
+    public double getOverallProgress() {
+        int count = courses.size();
+        if (count == 0) {
+            return 0.0;
+        }
+        return Course.fromUnits(totalProgress.sum()) / count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Adds entry under name unless a course of that name exists; returns true if it was added
+    private boolean putIfAbsent(String name, Entry entry) {
+        return courses.putIfAbsent(name, entry) == null;
+    }
+
+    // EFFECTS: Returns the entries of every course, in the order they were added
+    private List<Entry> orderedEntries() {
+        List<Entry> entries = new ArrayList<>(courses.values());
+        if (locks != null) {
+            entries.sort(Comparator.comparingLong(entry -> entry.order));
+        }
+        return entries;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Takes out a removed course's progress from the running total
+    private void removeProgress(double progress) {
+        totalProgress.add(-Course.toUnits(progress));
+    }
+
+    // EFFECTS: Takes and returns the lock of the named course, or returns null if this manager is not concurrent
+    private ReentrantLock lock(String courseName) {
+        if (locks == null) {
+            return null;
+        }
+        ReentrantLock lock = locks.lockFor(courseName);
+        lock.lock();
+        return lock;
+    }
+
+    // EFFECTS: Releases lock, if there is one
+    private static void unlock(ReentrantLock lock) {
+        if (lock != null) {
+            lock.unlock();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Replaces oldProgress with newProgress in the running total of course progress.
+    //          Called by a Course of this manager whenever its overall progress changes.
+    void courseProgressChanged(double oldProgress, double newProgress) {
+        totalProgress.add(Course.toUnits(newProgress) - Course.toUnits(oldProgress));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Publishes a version in which course is as it is now. Called by a Course of this manager
+    //          after each change to it, and when the course is built.
+    void coursePublished(Course course) {
+        synchronized (publishLock) {
+            version = version.withCourse(course.getVersion());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Registers listener to be told about every change to this manager's courses.
+    public void addListener(ModelListener listener) {
+        listeners.add(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Stops telling listener about changes to this manager's courses.
+    public void removeListener(ModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    // EFFECTS: Tells every listener that topic was added to course.
+    void fireTopicAdded(Course course, Topic topic) {
+        for (ModelListener listener : listeners) {
+            listener.topicAdded(course, topic);
+        }
+    }
+
+    // EFFECTS: Tells every listener that topic was put into course at index.
+    void fireTopicInserted(Course course, int index, Topic topic) {
+        for (ModelListener listener : listeners) {
+            listener.topicInserted(course, index, topic);
+        }
+    }
+
+    // EFFECTS: Tells every listener that one call removed topics from course, topics.get(k) having been
+    //          at indexes[k] counted after the removals before it.
+    void fireTopicsRemoved(Course course, int[] indexes, List<Topic> topics) {
+        for (ModelListener listener : listeners) {
+            listener.topicsRemoved(course, indexes, topics);
+        }
+    }
+
+    // EFFECTS: Tells every listener that objective was added to the topic at topicIndex in course.
+    void fireObjectiveAdded(Course course, int topicIndex, LessonObjective objective) {
+        for (ModelListener listener : listeners) {
+            listener.objectiveAdded(course, topicIndex, objective);
+        }
+    }
+
+    // EFFECTS: Tells every listener that objective, the last of the topic at topicIndex in course, was removed.
+    void fireObjectiveRemoved(Course course, int topicIndex, LessonObjective objective) {
+        for (ModelListener listener : listeners) {
+            listener.objectiveRemoved(course, topicIndex, objective);
+        }
+    }
+
+    // EFFECTS: Tells every listener that the mastery of objective flipped.
+    void fireMasteryChanged(Course course, int topicIndex, int objectiveIndex, LessonObjective objective) {
+        for (ModelListener listener : listeners) {
+            listener.masteryChanged(course, topicIndex, objectiveIndex, objective);
+        }
+    }
+
+    // Represents a course of the manager: either built, or indexed and built the first time it is asked for
+    private static final class Entry {
+        private final long order; // position in the order the courses were added
+        private final LazyCourse index; // how to build the course, or null if it was added built
+        private volatile Course course; // null until built
+
+        Entry(long order, Course course, LazyCourse index) {
+            this.order = order;
+            this.course = course;
+            this.index = index;
+        }
+
+        // EFFECTS: returns the name of the course
+        String name() {
+            Course built = course;
+            return built != null ? built.getName() : index.getName();
+        }
+
+        // MODIFIES: this, manager
+        // EFFECTS: returns the course, building it first if needed: attaches it to manager and swaps
+        //          its saved progress in the running total for its actual progress. Builds it only once
+        //          even if several threads ask at the same time.
+        Course get(CourseManager manager) {
+            Course built = course;
+            if (built != null) {
+                return built;
+            }
+            synchronized (this) {
+                if (course == null) {
+                    Course loaded = index.load();
+                    loaded.setManager(manager);
+                    manager.totalProgress.add(Course.toUnits(loaded.getOverallProgress())
+                            - Course.toUnits(index.getOverallProgress()));
+                    manager.coursePublished(loaded);
+                    course = loaded;
+                }
+                return course;
+            }
+        }
     }
-    
 }
@@ -0,0 +1,106 @@
+package model;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import persistence.JsonStreamWriter;
+import persistence.Writable;
+
+/**
+ * Represents a course as it was at one version of the model. Immutable; a new version of a course
+ * shares the versions of its unchanged topics with the previous one. A course that a manager has
+ * indexed but not yet built has a version that is not loaded: it knows the course's name and
+ * saved progress, but not its topics.
+ */
+public final class CourseVersion implements Writable {
+    private final String name;
+    private final double overallProgress;
+    private final PersistentVector<TopicVersion> topics; // null if not loaded
+
+    /**
+     * EFFECTS: constructs the version of a course with the given name, progress and topics,
+     *          which is not loaded if topics is null
+     */
+    CourseVersion(String name, double overallProgress, PersistentVector<TopicVersion> topics) {
+        this.name = name;
+        this.overallProgress = overallProgress;
+        this.topics = topics;
+    }
+
+    /**
+     * EFFECTS: returns the version of a course that has been indexed but not built
+     */
+    static CourseVersion unloaded(LazyCourse index) {
+        return new CourseVersion(index.getName(), index.getOverallProgress(), null);
+    }
+
+    /**
+     * EFFECTS: returns the name of the course
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * EFFECTS: returns the overall progress of the course
+     */
+    public double getOverallProgress() {
+        return overallProgress;
+    }
+
+    /**
+     * EFFECTS: returns true if the course's topics are known
+     */
+    public boolean isLoaded() {
+        return topics != null;
+    }
+
+    /**
+     * REQUIRES: isLoaded()
+     * EFFECTS: returns the course's topics, in order, as an unmodifiable list
+     */
+    public List<TopicVersion> getTopics() {
+        if (topics == null) {
+            throw new IllegalStateException("Course '" + name + "' was not loaded in this version");
+        }
+        return topics;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + ((int) (overallProgress * 100)) / 100.0 + "% overall progress)";
+    }
+
+    /**
+     * REQUIRES: isLoaded()
+     */
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("name", name);
+        JSONArray jsonTopics = new JSONArray();
+        for (TopicVersion topic : getTopics()) {
+            jsonTopics.put(topic.toJson());
+        }
+        json.put("topics", jsonTopics);
+        return json;
+    }
+
+    /**
+     * REQUIRES: isLoaded()
+     */
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("topics").beginArray();
+        for (TopicVersion topic : getTopics()) {
+            topic.writeJson(writer);
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+}
@@ -1,16 +1,35 @@
 package model;
 
-import java.util.Calendar;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Date;
 
 /**
  * Represents an alarm system event.
+ * The time stamp is read from the system's wall clock, so it follows any adjustment of that clock;
+ * it is kept in nanoseconds, as precise as the clock allows.
+ * Changes to the model are recorded as typed events: a kind plus references to the names of the
+ * course, topic and objective involved and, for mastery, the old and new values. Other events
+ * carry a message template whose "{}" placeholders are filled in with its arguments. Either way
+ * the description is only rendered when it is first asked for.
  */
 
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
-    private String description;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private final long timestamp; // nanoseconds since the epoch
+    private final EventKind kind;
+    private final String course;    // course involved, or null
+    private final String topic;     // topic involved, or null
+    private final String objective; // objective involved, or null
+    private final boolean oldValue; // mastery before a MASTERY_CHANGED event
+    private final boolean newValue; // mastery after a MASTERY_CHANGED event
+    private final String template;  // message of a MESSAGE event, or null
+    private final Object[] args;    // arguments of the message template, or null
+    private String description;     // rendered on first use
 
     /**
      * Creates an event with the given description
@@ -18,24 +37,248 @@ public class Event {
      * @param description  a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(EventKind.MESSAGE, null, null, null, false, false, description, null);
         this.description = description;
     }
 
+    /**
+     * Creates an event whose description is template with its "{}" placeholders
+     * replaced by args in order, and the current date/time stamp.
+     * @param template  a description with one "{}" placeholder per argument
+     * @param args      the values for the placeholders
+     */
+    public Event(String template, Object... args) {
+        this(EventKind.MESSAGE, null, null, null, false, false, template, args);
+    }
+
+    private Event(EventKind kind, String course, String topic, String objective, boolean oldValue,
+                  boolean newValue, String template, Object[] args) {
+        this(now(), kind, course, topic, objective, oldValue, newValue,
+                template, args);
+    }
+
+    private Event(long timestamp, EventKind kind, String course, String topic, String objective,
+                  boolean oldValue, boolean newValue, String template, Object[] args) {
+        this.timestamp = timestamp;
+        this.kind = kind;
+        this.course = course;
+        this.topic = topic;
+        this.objective = objective;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.template = template;
+        this.args = args;
+    }
+
+    // EFFECTS: returns the wall-clock time in nanoseconds since the epoch
+    private static long now() {
+        Instant instant = CLOCK.instant();
+        return instant.getEpochSecond() * NANOS_PER_SECOND + instant.getNano();
+    }
+
+    /**
+     * Creates an event recording that a course was added.
+     * @param course  the name of the course
+     * @return  the event
+     */
+    public static Event courseAdded(String course) {
+        return new Event(EventKind.COURSE_ADDED, course, null, null, false, false, null, null);
+    }
+
+    /**
+     * Creates an event recording that a course was removed.
+     * @param course  the name of the course
+     * @return  the event
+     */
+    public static Event courseRemoved(String course) {
+        return new Event(EventKind.COURSE_REMOVED, course, null, null, false, false, null, null);
+    }
+
+    /**
+     * Creates an event recording that a topic was added to a course.
+     * @param course  the name of the course
+     * @param topic   the name of the topic
+     * @return  the event
+     */
+    public static Event topicAdded(String course, String topic) {
+        return new Event(EventKind.TOPIC_ADDED, course, topic, null, false, false, null, null);
+    }
+
+    /**
+     * Creates an event recording that a topic was removed from a course.
+     * @param course  the name of the course
+     * @param topic   the name of the topic
+     * @return  the event
+     */
+    public static Event topicRemoved(String course, String topic) {
+        return new Event(EventKind.TOPIC_REMOVED, course, topic, null, false, false, null, null);
+    }
+
+    /**
+     * Creates an event recording that a lesson objective was added to a topic.
+     * @param course     the name of the topic's course, or null if it has none
+     * @param topic      the name of the topic
+     * @param objective  the description of the objective
+     * @return  the event
+     */
+    public static Event objectiveAdded(String course, String topic, String objective) {
+        return new Event(EventKind.OBJECTIVE_ADDED, course, topic, objective, false, false, null, null);
+    }
+
+    /**
+     * Creates an event recording that the mastery of a lesson objective changed.
+     * @param course     the name of the course, or null if the topic has none
+     * @param topic      the name of the topic, or null if the objective has none
+     * @param objective  the description of the objective
+     * @param oldValue   whether the objective was mastered before
+     * @param newValue   whether the objective is mastered now
+     * @return  the event
+     */
+    public static Event masteryChanged(String course, String topic, String objective,
+                                       boolean oldValue, boolean newValue) {
+        return new Event(EventKind.MASTERY_CHANGED, course, topic, objective, oldValue, newValue, null, null);
+    }
+
+    /**
+     * Recreates an event that was recorded earlier, for example one read back from a file.
+     * @param timestamp    the nanoseconds since the epoch at which the event was created
+     * @param kind         the kind of the event
+     * @param course       the course involved, or null
+     * @param topic        the topic involved, or null
+     * @param objective    the objective involved, or null
+     * @param oldValue     the mastery before a MASTERY_CHANGED event
+     * @param newValue     the mastery after a MASTERY_CHANGED event
+     * @param description  the description of a MESSAGE event, or null for any other kind
+     * @return  the event
+     */
+    public static Event restore(long timestamp, EventKind kind, String course, String topic, String objective,
+                                boolean oldValue, boolean newValue, String description) {
+        Event event = new Event(timestamp, kind, course, topic, objective, oldValue, newValue, description,
+                new Object[0]);
+        event.description = description;
+        return event;
+    }
+
     /**
      * Gets the date of this event (includes time).
      * @return  the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(Math.floorDiv(timestamp, NANOS_PER_MILLI));
+    }
+
+    /**
+     * Gets the instant of this event, to the nanosecond.
+     * @return  the instant of the event
+     */
+    public Instant getInstant() {
+        return Instant.ofEpochSecond(0, timestamp);
+    }
+
+    /**
+     * Gets the time stamp of this event.
+     * @return  the nanoseconds since the epoch at which the event was created
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the kind of change this event records.
+     * @return  the kind of the event
+     */
+    public EventKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the name of the course involved.
+     * @return  the course name, or null if the event does not involve a known course
+     */
+    public String getCourse() {
+        return course;
+    }
+
+    /**
+     * Gets the name of the topic involved.
+     * @return  the topic name, or null if the event does not involve a known topic
+     */
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Gets the description of the lesson objective involved.
+     * @return  the objective description, or null if the event does not involve an objective
+     */
+    public String getObjective() {
+        return objective;
+    }
+
+    /**
+     * Gets the mastery of the objective before a MASTERY_CHANGED event.
+     * @return  true if the objective was mastered before the change
+     */
+    public boolean getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Gets the mastery of the objective after a MASTERY_CHANGED event.
+     * @return  true if the objective is mastered after the change
+     */
+    public boolean getNewValue() {
+        return newValue;
     }
 
     /**
-     * Gets the description of this event.
+     * Gets the description of this event, rendering it the first time.
      * @return  the description of the event
      */
     public String getDescription() {
-        return description;
+        String rendered = description;
+        if (rendered == null) {
+            rendered = render();
+            description = rendered;
+        }
+        return rendered;
+    }
+
+    // EFFECTS: returns the description of this event in words
+    private String render() {
+        switch (kind) {
+            case COURSE_ADDED:
+                return "Added course '" + course + "' to the system.";
+            case COURSE_REMOVED:
+                return "Removed course '" + course + "' from the system.";
+            case TOPIC_ADDED:
+                return "Added topic '" + topic + "' to course '" + course + "'.";
+            case TOPIC_REMOVED:
+                return "Removed topic '" + topic + "' from course '" + course + "'.";
+            case OBJECTIVE_ADDED:
+                return "Added lesson objective '" + objective + "' to topic '" + topic + "'.";
+            case MASTERY_CHANGED:
+                return (newValue ? "Marked" : "Unmarked") + " objective '" + objective + "' as mastered"
+                        + (topic == null ? "." : " in topic '" + topic + "'.");
+            default:
+                return renderTemplate();
+        }
+    }
+
+    // EFFECTS: returns the message template with each "{}" replaced by the next argument;
+    //          placeholders beyond the arguments are left as they are
+    private String renderTemplate() {
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int from = 0;
+        for (Object value : args) {
+            int at = template.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(template, from, at).append(value);
+            from = at + 2;
+        }
+        return sb.append(template, from, template.length()).toString();
     }
 
     @Override
@@ -47,20 +290,20 @@ public class Event {
         if (other.getClass() != this.getClass()) {
             return false;
         }
-        
+
         Event otherEvent = (Event) other;
-        
-        return (this.dateLogged.equals(otherEvent.dateLogged) 
-            && this.description.equals(otherEvent.description));
+
+        return (this.timestamp == otherEvent.timestamp
+            && this.getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(timestamp) + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
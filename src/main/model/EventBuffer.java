@@ -0,0 +1,153 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the storage behind one configuration of the EventLog: either every event in a
+ * lock-free queue, or the most recent events in an EventRing with an optional overflow sink.
+ * The log replaces its buffer whenever it is reconfigured or cleared. A new buffer starts closed
+ * so that appenders wait while the old buffer's events are moved in ahead of theirs, and every
+ * buffer counts the appenders still writing to it so that the move waits until they are done.
+ * A buffer is only indexed once the log is first queried: the log then swaps in an indexed copy,
+ * so logging costs nothing extra until someone asks. An indexed unbounded buffer keeps its events
+ * only in the index rather than in a queue as well.
+ */
+final class EventBuffer {
+    private final Queue<Event> events; // every event, or null if bounded or indexed
+    private final EventRing ring; // the most recent events, or null if unbounded
+    private final EventSink overflow; // receives events pushed out of the ring, or null to drop them
+    private final EventIndex index; // indexes the events, or null if not indexed
+    private final LongAdder writers = new LongAdder();
+    private volatile boolean open;
+
+    /**
+     * EFFECTS: constructs an empty unbounded buffer, open for appends if open
+     */
+    EventBuffer(boolean open) {
+        this(new ConcurrentLinkedQueue<>(), null, null, null);
+        this.open = open;
+    }
+
+    /**
+     * REQUIRES: capacity > 0
+     * EFFECTS: constructs an empty closed buffer holding the most recent capacity events and
+     *          handing older ones to overflow, or dropping them if overflow is null
+     */
+    EventBuffer(int capacity, EventSink overflow) {
+        this(null, new EventRing(capacity), overflow, null);
+    }
+
+    // EFFECTS: constructs an empty closed buffer from its parts
+    private EventBuffer(Queue<Event> events, EventRing ring, EventSink overflow, EventIndex index) {
+        this.events = events;
+        this.ring = ring;
+        this.overflow = overflow;
+        this.index = index;
+    }
+
+    /**
+     * EFFECTS: returns an empty closed buffer configured like this one, not indexed
+     */
+    EventBuffer emptyCopy() {
+        return ring == null ? new EventBuffer(false) : new EventBuffer(ring.getCapacity(), overflow);
+    }
+
+    /**
+     * EFFECTS: returns an empty closed buffer configured like this one that indexes its events
+     */
+    EventBuffer indexedCopy() {
+        if (ring == null) {
+            return new EventBuffer(null, null, null, new EventIndex(0));
+        }
+        return new EventBuffer(null, new EventRing(ring.getCapacity()), overflow, new EventIndex(ring.getCapacity()));
+    }
+
+    /**
+     * EFFECTS: returns the capacity of this buffer, or 0 if it is unbounded
+     */
+    int getCapacity() {
+        return ring == null ? 0 : ring.getCapacity();
+    }
+
+    /**
+     * EFFECTS: returns true if appenders may use this buffer
+     */
+    boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: lets appenders use this buffer
+     */
+    void open() {
+        open = true;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: records that an appender is about to write to this buffer
+     */
+    void enter() {
+        writers.increment();
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: records that an appender is done with this buffer
+     */
+    void exit() {
+        writers.decrement();
+    }
+
+    /**
+     * EFFECTS: waits until no appender is still writing to this buffer
+     */
+    void awaitWriters() {
+        while (writers.sum() != 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * EFFECTS: returns the index over the events in this buffer, or null if it is not indexed
+     */
+    EventIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: appends event, indexing it if this buffer is indexed; if that pushes an event out of
+     *          the ring, hands it to the overflow sink
+     */
+    void add(Event event) {
+        if (index != null) {
+            index.add(event);
+        }
+        if (ring == null) {
+            if (events != null) {
+                events.add(event);
+            }
+            return;
+        }
+        Event pushedOut = ring.add(event);
+        if (pushedOut != null && overflow != null) {
+            overflow.accept(pushedOut);
+        }
+    }
+
+    /**
+     * EFFECTS: returns the events in this buffer, oldest first, leaving out appends still in progress
+     */
+    List<Event> snapshot() {
+        if (ring != null) {
+            return ring.snapshot();
+        }
+        return events != null ? new ArrayList<>(events) : index.snapshot();
+    }
+}
@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * Represents the groups of events that EventLog can switch on, off or sample separately:
+ * STRUCTURE for courses, topics and objectives being added or removed, MASTERY for objectives
+ * being marked or unmarked, PERSISTENCE for data being loaded or saved, and GENERAL for the rest.
+ */
+public enum EventCategory {
+    STRUCTURE,
+    MASTERY,
+    PERSISTENCE,
+    GENERAL
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the settings that decide whether EventLog logs an event of one category: the least
+ * important level logged, and a sampling rate that keeps one in every so many events that pass
+ * the level. Checking allocates nothing, so callers check before building an event.
+ */
+final class EventGate {
+    private volatile EventLevel threshold = EventLevel.INFO;
+    private volatile int sampleEvery = 1;
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * EFFECTS: returns the least important level logged
+     */
+    EventLevel getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: logs only events at threshold or more important, or none if threshold is OFF
+     */
+    void setThreshold(EventLevel threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * EFFECTS: returns n where one in every n events that pass the level is logged
+     */
+    int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * REQUIRES: sampleEvery > 0
+     * MODIFIES: this
+     * EFFECTS: logs one in every sampleEvery events that pass the level, starting with the next one
+     */
+    void setSampleEvery(int sampleEvery) {
+        counter.set(0);
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns true if an event at level should be logged; when sampling, counts it
+     */
+    boolean admits(EventLevel level) {
+        if (level == EventLevel.OFF || level.compareTo(threshold) < 0) {
+            return false;
+        }
+        int every = sampleEvery;
+        return every == 1 || counter.getAndIncrement() % every == 0;
+    }
+}
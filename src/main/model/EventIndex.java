@@ -0,0 +1,157 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents the secondary indexes over the events in one EventBuffer: every event by time, and
+ * a posting list of the events involving each course and each topic of a course.
+ * Appenders never wait for the index. Each appended event is queued, and whichever appender
+ * finds the index free moves the queued events into it; a query takes the index, moves in
+ * whatever is still queued, and hands back lazy views of the series it needs. The index of a
+ * bounded buffer keeps as many events as the buffer, dropping the oldest indexed ones; the index of
+ * an unbounded buffer is the only place its events are kept.
+ */
+final class EventIndex {
+    private static final Iterable<Event> NONE = Collections.emptyList();
+
+    private final int capacity; // number of events kept, or 0 to keep every one
+    private final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final EventSeries all = new EventSeries();
+    private final Map<String, EventSeries> byCourse = new HashMap<>();
+    private final Map<String, Map<String, EventSeries>> byTopic = new HashMap<>(); // by course, then topic
+
+    /**
+     * EFFECTS: constructs an empty index keeping capacity events, or every event if capacity is 0
+     */
+    EventIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: queues event for indexing, and indexes the queued events if no one else is
+     */
+    void add(Event event) {
+        pending.add(event);
+        if (lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * EFFECTS: returns the events with from <= time stamp < to, in the order they were logged
+     */
+    Iterable<Event> between(long from, long to) {
+        lock.lock();
+        try {
+            drain();
+            return all.between(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns every indexed event, in the order they were logged
+     */
+    List<Event> snapshot() {
+        List<Event> events = new ArrayList<>();
+        lock.lock();
+        try {
+            drain();
+            all.between(Long.MIN_VALUE, Long.MAX_VALUE).forEach(events::add);
+        } finally {
+            lock.unlock();
+        }
+        return events;
+    }
+
+    /**
+     * EFFECTS: returns the events involving course with from <= time stamp < to, in the order they were logged
+     */
+    Iterable<Event> forCourse(String course, long from, long to) {
+        lock.lock();
+        try {
+            drain();
+            EventSeries series = byCourse.get(course);
+            return series == null ? NONE : series.between(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns the events involving topic of course (null for a topic without a course)
+     *          with from <= time stamp < to, in the order they were logged
+     */
+    Iterable<Event> forTopic(String course, String topic, long from, long to) {
+        lock.lock();
+        try {
+            drain();
+            EventSeries series = byTopic.getOrDefault(course, Collections.emptyMap()).get(topic);
+            return series == null ? NONE : series.between(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // REQUIRES: lock is held
+    // MODIFIES: this
+    // EFFECTS: indexes every queued event, then drops the oldest beyond capacity
+    private void drain() {
+        Event event;
+        while ((event = pending.poll()) != null) {
+            all.add(event);
+            if (event.getCourse() != null) {
+                byCourse.computeIfAbsent(event.getCourse(), c -> new EventSeries()).add(event);
+            }
+            if (event.getTopic() != null) {
+                byTopic.computeIfAbsent(event.getCourse(), c -> new HashMap<>())
+                        .computeIfAbsent(event.getTopic(), t -> new EventSeries()).add(event);
+            }
+        }
+        while (capacity > 0 && all.size() > capacity) {
+            removeOldest();
+        }
+    }
+
+    // REQUIRES: lock is held, all.size() > 0
+    // MODIFIES: this
+    // EFFECTS: drops the oldest indexed event from every series it is in; being the oldest overall,
+    //          it is also the oldest in each of them
+    private void removeOldest() {
+        Event event = all.removeOldest();
+        if (event.getCourse() != null) {
+            removeOldest(byCourse, event.getCourse());
+        }
+        if (event.getTopic() != null) {
+            Map<String, EventSeries> topics = byTopic.get(event.getCourse());
+            removeOldest(topics, event.getTopic());
+            if (topics.isEmpty()) {
+                byTopic.remove(event.getCourse());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the oldest event of the series under key in map, and the series if that empties it
+    private static void removeOldest(Map<String, EventSeries> map, String key) {
+        EventSeries series = map.get(key);
+        series.removeOldest();
+        if (series.size() == 0) {
+            map.remove(key);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Represents what kind of change an Event records, and so which of its fields are set:
+ * course, topic and objective name the model elements involved, from the outermost one known,
+ * and MASTERY_CHANGED also records the objective's old and new mastery. MESSAGE events carry
+ * only a free-text description.
+ */
+public enum EventKind {
+    COURSE_ADDED,
+    COURSE_REMOVED,
+    TOPIC_ADDED,
+    TOPIC_REMOVED,
+    OBJECTIVE_ADDED,
+    MASTERY_CHANGED,
+    MESSAGE
+}
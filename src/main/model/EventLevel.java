@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * Represents how important an event is, least important first. EventLog keeps, for each
+ * category, the least important level it logs; OFF as that level logs nothing in the category.
+ * Events are never logged at OFF.
+ */
+public enum EventLevel {
+    DEBUG,
+    INFO,
+    WARNING,
+    OFF
+}
@@ -1,26 +1,50 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents a log of alarm system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * The log keeps every event by default, or only the most recent ones once it is bounded,
+ * dropping or spilling the rest. Events may be logged from several threads at once without
+ * locking, and iterating sees a snapshot of the log, so logging during iteration is safe.
+ * Reconfiguring or clearing the log swaps in a new buffer; appends that race with the swap
+ * wait briefly and then land in the new buffer, after the events carried over from the old one.
+ * Once first queried, the log also indexes its events by time and by the course and topic they
+ * involve, so queries for a time range or one course or topic read only the matching part of the
+ * log; until then logging does no indexing work.
+ * What gets logged is set per EventCategory: the least important EventLevel logged, and
+ * optionally a sampling rate. Callers ask shouldLog before building an event, so an event that
+ * is switched off costs neither an Event nor its description.
  */
 public class EventLog implements Iterable<Event> {
-    /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    private volatile EventBuffer buffer;
+    private final List<EventSink> sinks = new CopyOnWriteArrayList<>(); // receive every logged event
+    private final EventGate[] gates = new EventGate[EventCategory.values().length]; // by category
 
     /** 
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        buffer = new EventBuffer(true);
+        for (int i = 0; i < gates.length; i++) {
+            gates[i] = new EventGate();
+        }
+    }
+
+    /**
+     * Holds the only EventLog in the system (Singleton Design Pattern). The JVM creates it
+     * the first time getInstance is called, exactly once even if several threads call it.
+     */
+    private static class Holder {
+        private static final EventLog THE_LOG = new EventLog();
     }
 
     /**
@@ -30,31 +54,250 @@ public class EventLog implements Iterable<Event> {
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
-        
-        return theLog;
+        return Holder.THE_LOG;
+    }
+
+    /**
+     * Decides whether an event of the given category and level should be logged now. Ask this
+     * once per event, before creating it: when the category is sampled, every call is counted.
+     * @param category the category of the event
+     * @param level    the level of the event
+     * @return true if the event should be created and logged
+     */
+    public boolean shouldLog(EventCategory category, EventLevel level) {
+        return gates[category.ordinal()].admits(level);
+    }
+
+    /**
+     * Logs only events of category at level or more important from now on, or none if level is OFF.
+     * Every category logs INFO and more important events to begin with.
+     * @param category the category to configure
+     * @param level    the least important level to log
+     */
+    public void setLevel(EventCategory category, EventLevel level) {
+        gates[category.ordinal()].setThreshold(level);
+    }
+
+    /**
+     * Gets the least important level logged for a category.
+     * @param category the category
+     * @return the level set for the category
+     */
+    public EventLevel getLevel(EventCategory category) {
+        return gates[category.ordinal()].getThreshold();
+    }
+
+    /**
+     * Logs only one in every sampleEvery events of category that pass its level from now on,
+     * starting with the next one; 1 logs every one, as categories do to begin with.
+     * REQUIRES: sampleEvery > 0
+     * @param category    the category to configure
+     * @param sampleEvery how many events to count for each one logged
+     */
+    public void setSampling(EventCategory category, int sampleEvery) {
+        gates[category.ordinal()].setSampleEvery(sampleEvery);
+    }
+
+    /**
+     * Gets the sampling rate of a category.
+     * @param category the category
+     * @return n where one in every n events of the category is logged
+     */
+    public int getSampling(EventCategory category) {
+        return gates[category.ordinal()].getSampleEvery();
     }
 
     /**
-     * Adds an event to the event log.
+     * Adds an event to the event log and hands it to every added sink, whatever its category. If the log is bounded
+     * and full, the oldest event is pushed out to the overflow sink, or dropped if there is none.
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        append(e);
+        for (EventSink sink : sinks) {
+            sink.accept(e);
+        }
+    }
+
+    /**
+     * Hands every event logged from now on to sink, on the thread that logs it.
+     * @param sink the sink to add
+     */
+    public void addSink(EventSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Stops handing logged events to sink.
+     * @param sink the sink to remove
+     */
+    public void removeSink(EventSink sink) {
+        sinks.remove(sink);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends e to the current buffer, waiting while a new buffer is being filled
+    private void append(Event e) {
+        while (true) {
+            EventBuffer current = buffer;
+            if (!current.isOpen()) {
+                Thread.onSpinWait();
+                continue;
+            }
+            current.enter();
+            try {
+                if (current == buffer) {
+                    current.add(e);
+                    return;
+                }
+            } finally {
+                current.exit();
+            }
+        }
+    }
+
+    /**
+     * Keeps only the most recent events from now on, dropping older ones.
+     * REQUIRES: capacity > 0
+     * @param capacity the number of events to keep
+     */
+    public void setBounded(int capacity) {
+        setBounded(capacity, null);
     }
 
     /**
-     * Clears the event log and logs the event.
+     * Keeps only the most recent events from now on, handing older ones to sink. Events already
+     * in the log beyond capacity are handed over straight away.
+     * REQUIRES: capacity > 0
+     * @param capacity the number of events to keep
+     * @param sink     receives every event pushed out of the log, or null to drop them
+     */
+    public void setBounded(int capacity, EventSink sink) {
+        replaceBuffer(new EventBuffer(capacity, sink), true);
+    }
+
+    /**
+     * Keeps every event from now on, as the log does by default.
+     */
+    public void setUnbounded() {
+        replaceBuffer(new EventBuffer(false), true);
+    }
+
+    /**
+     * Gets the number of events the log keeps.
+     * @return the capacity of the log, or 0 if it is unbounded
+     */
+    public int getCapacity() {
+        return buffer.getCapacity();
+    }
+
+    /**
+     * Clears the event log and logs the event, unless GENERAL events are switched off.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        replaceBuffer(buffer.emptyCopy(), false);
+        if (shouldLog(EventCategory.GENERAL, EventLevel.INFO)) {
+            logEvent(new Event("Event log cleared."));
+        }
+    }
+
+    /**
+     * Returns the events in the log, oldest first, as of this call; later events are not included.
+     * @return a snapshot of the logged events
+     */
+    public List<Event> snapshot() {
+        return buffer.snapshot();
+    }
+
+    /**
+     * Returns the events logged in a time range, in the order they were logged. The result is read
+     * lazily from the index; events logged after this call are not included.
+     * @param from the start of the range, inclusive, or null for no start
+     * @param to   the end of the range, exclusive, or null for no end
+     * @return the events in the range
+     */
+    public Iterable<Event> between(Instant from, Instant to) {
+        return index().between(toNanos(from, Long.MIN_VALUE), toNanos(to, Long.MAX_VALUE));
+    }
+
+    /**
+     * Returns the events involving a course that were logged in a time range, in the order they
+     * were logged. The result is read lazily from the index; events logged after this call are
+     * not included.
+     * @param course the name of the course
+     * @param from   the start of the range, inclusive, or null for no start
+     * @param to     the end of the range, exclusive, or null for no end
+     * @return the events involving the course in the range
+     */
+    public Iterable<Event> forCourse(String course, Instant from, Instant to) {
+        return index().forCourse(course, toNanos(from, Long.MIN_VALUE), toNanos(to, Long.MAX_VALUE));
+    }
+
+    /**
+     * Returns the events involving a topic of a course that were logged in a time range, in the
+     * order they were logged, including those for the topic's objectives. The result is read
+     * lazily from the index; events logged after this call are not included.
+     * @param course the name of the course, or null for a topic that belongs to no course
+     * @param topic  the name of the topic
+     * @param from   the start of the range, inclusive, or null for no start
+     * @param to     the end of the range, exclusive, or null for no end
+     * @return the events involving the topic in the range
+     */
+    public Iterable<Event> forTopic(String course, String topic, Instant from, Instant to) {
+        return index().forTopic(course, topic, toNanos(from, Long.MIN_VALUE),
+                toNanos(to, Long.MAX_VALUE));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the index of the current buffer, first swapping in an indexed copy of the
+    //          buffer if it is not indexed yet
+    private EventIndex index() {
+        EventIndex index = buffer.getIndex();
+        while (index == null) {
+            startIndexing();
+            index = buffer.getIndex();
+        }
+        return index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the buffer with an indexed copy holding the same events, unless it is indexed
+    private synchronized void startIndexing() {
+        if (buffer.getIndex() == null) {
+            replaceBuffer(buffer.indexedCopy(), true);
+        }
+    }
+
+    // EFFECTS: returns instant as nanoseconds since the epoch, clamped to the range of a long,
+    //          or ifNull if instant is null
+    private static long toNanos(Instant instant, long ifNull) {
+        if (instant == null) {
+            return ifNull;
+        }
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
     }
 
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return Collections.unmodifiableList(snapshot()).iterator();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the closed buffer next the log's buffer. Once nothing is still appending to the
+    //          old buffer, carries its events over into next if carryOver, then opens next.
+    private synchronized void replaceBuffer(EventBuffer next, boolean carryOver) {
+        EventBuffer old = buffer;
+        buffer = next;
+        old.awaitWriters();
+        if (carryOver) {
+            for (Event e : old.snapshot()) {
+                next.add(e);
+            }
+        }
+        next.open();
     }
 }
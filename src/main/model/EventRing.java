@@ -0,0 +1,83 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents a fixed-capacity ring of the most recent events. Appends are lock-free: each one
+ * claims the next sequence number and swaps its event into that sequence's slot, pushing out the
+ * event that was there. Every slot remembers the sequence number of its event, so a snapshot can
+ * skip slots that are still being written or have already been reused.
+ */
+final class EventRing {
+    private final int capacity;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * REQUIRES: capacity > 0
+     * EFFECTS: constructs an empty ring holding at most capacity events
+     */
+    EventRing(int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Gets the number of events this ring can hold.
+     * @return the capacity
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: appends event and returns the event it pushed out of the ring, or null if none was.
+     *          If appenders have lapped this one, event is already the oldest and is returned itself.
+     */
+    Event add(Event event) {
+        long sequence = next.getAndIncrement();
+        int index = (int) (sequence % capacity);
+        Slot mine = new Slot(sequence, event);
+        while (true) {
+            Slot current = slots.get(index);
+            if (current != null && current.sequence > sequence) {
+                return event;
+            }
+            if (slots.compareAndSet(index, current, mine)) {
+                return current == null ? null : current.event;
+            }
+        }
+    }
+
+    /**
+     * EFFECTS: returns the events currently in the ring, oldest first. Appends that are still in
+     *          progress when the snapshot is taken are left out.
+     */
+    List<Event> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - capacity);
+        List<Event> events = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Slot slot = slots.get((int) (sequence % capacity));
+            if (slot != null && slot.sequence == sequence) {
+                events.add(slot.event);
+            }
+        }
+        return events;
+    }
+
+    // Represents an event together with the sequence number it was appended under
+    private static final class Slot {
+        private final long sequence;
+        private final Event event;
+
+        Slot(long sequence, Event event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
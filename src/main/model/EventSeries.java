@@ -0,0 +1,151 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a list of events in the order they were indexed, searchable by time stamp.
+ * Events logged from several threads can be indexed slightly out of time order, so alongside
+ * each event the series keeps the largest time stamp seen up to it, which never decreases and
+ * can be binary searched, and the largest amount any event trails that maximum by. A range
+ * query starts at the first event whose running maximum reaches the start of the range, and
+ * stops once the running maximum, less that lag, reaches its end.
+ * Events are only ever appended to the arrays or dropped from the front by moving an offset;
+ * growing or compacting copies into new arrays. So a query result can keep reading the arrays
+ * it was given, without a lock, while later events are indexed.
+ * Not thread-safe: EventIndex guards it.
+ */
+final class EventSeries {
+    private static final int INITIAL_SIZE = 16;
+
+    private Event[] events = new Event[INITIAL_SIZE];
+    private long[] maxTimestamps = new long[INITIAL_SIZE]; // largest time stamp up to each position
+    private int start; // position of the oldest event kept
+    private int end;   // position after the newest event
+    private long maxLag; // largest amount an event's time stamp trails an earlier event's
+
+    /**
+     * EFFECTS: returns the number of events in the series
+     */
+    int size() {
+        return end - start;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: appends event to the series
+     */
+    void add(Event event) {
+        if (end == events.length) {
+            reallocate();
+        }
+        long timestamp = event.getTimestamp();
+        long max = end == start ? timestamp : Math.max(timestamp, maxTimestamps[end - 1]);
+        maxLag = Math.max(maxLag, max - timestamp);
+        events[end] = event;
+        maxTimestamps[end] = max;
+        end++;
+    }
+
+    /**
+     * REQUIRES: size() > 0
+     * MODIFIES: this
+     * EFFECTS: drops the oldest event in the series and returns it
+     */
+    Event removeOldest() {
+        return events[start++];
+    }
+
+    /**
+     * EFFECTS: returns the events in the series with from <= time stamp < to, in the order they
+     *          were indexed. Events indexed after this call are not included.
+     */
+    Iterable<Event> between(long from, long to) {
+        int first = firstReaching(from);
+        Event[] view = events;
+        long[] maxes = maxTimestamps;
+        int last = end;
+        long stopAt = to > Long.MAX_VALUE - maxLag ? Long.MAX_VALUE : to + maxLag;
+        return () -> new RangeIterator(view, maxes, first, last, from, stopAt, to);
+    }
+
+    // EFFECTS: returns the first position whose running maximum is at least from, or end if none is;
+    //          every event before it has a time stamp below from
+    private int firstReaching(long from) {
+        int lo = start;
+        int hi = end;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxTimestamps[mid] < from) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the events into new arrays, twice as large unless at least half were dropped
+    private void reallocate() {
+        int size = size();
+        int length = size * 2 <= events.length ? events.length : events.length * 2;
+        events = Arrays.copyOfRange(events, start, start + length);
+        maxTimestamps = Arrays.copyOfRange(maxTimestamps, start, start + length);
+        start = 0;
+        end = size;
+    }
+
+    // Represents an iteration over the events in [first, last) of a series with from <= time stamp < to
+    private static final class RangeIterator implements Iterator<Event> {
+        private final Event[] events;
+        private final long[] maxTimestamps;
+        private final int last;
+        private final long from;
+        private final long stopAt; // once the running maximum reaches this, no later event is before to
+        private final long to;
+        private int position;
+        private Event next;
+
+        RangeIterator(Event[] events, long[] maxTimestamps, int first, int last, long from, long stopAt, long to) {
+            this.events = events;
+            this.maxTimestamps = maxTimestamps;
+            this.position = first;
+            this.last = last;
+            this.from = from;
+            this.stopAt = stopAt;
+            this.to = to;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Event next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Event result = next;
+            advance();
+            return result;
+        }
+
+        // EFFECTS: moves next to the next event in range, or null if there is none
+        private void advance() {
+            next = null;
+            while (position < last && maxTimestamps[position] < stopAt) {
+                Event candidate = events[position++];
+                long timestamp = candidate.getTimestamp();
+                if (timestamp >= from && timestamp < to) {
+                    next = candidate;
+                    return;
+                }
+            }
+            position = last;
+        }
+    }
+}
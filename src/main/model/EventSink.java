@@ -0,0 +1,14 @@
+package model;
+
+/**
+ * Represents a destination for events that a bounded EventLog no longer has room for.
+ */
+@FunctionalInterface
+public interface EventSink {
+    /**
+     * Receives an event pushed out of the log. May be called from several logging threads at once,
+     * so implementations must be thread-safe and should return quickly.
+     * @param event the event that was pushed out
+     */
+    void accept(Event event);
+}
@@ -0,0 +1,42 @@
+package model;
+
+import java.util.function.Supplier;
+
+/**
+ * Represents an entry of a course index: the course's name and its overall progress as of the
+ * last save, plus a way to build the full course (topics and objectives) when it is first needed.
+ */
+public final class LazyCourse {
+    private final String name;
+    private final double overallProgress;
+    private final Supplier<Course> loader;
+
+    // REQUIRES: loader returns a course named name whose overall progress is overallProgress,
+    //           and reports read failures as unchecked exceptions
+    // EFFECTS: constructs an index entry that builds its course with loader
+    public LazyCourse(String name, double overallProgress, Supplier<Course> loader) {
+        this.name = name;
+        this.overallProgress = overallProgress;
+        this.loader = loader;
+    }
+
+    // EFFECTS: constructs an index entry for a course that is already built
+    public static LazyCourse of(Course course) {
+        return new LazyCourse(course.getName(), course.getOverallProgress(), () -> course);
+    }
+
+    // EFFECTS: returns the name of the course
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the overall progress of the course without building it
+    public double getOverallProgress() {
+        return overallProgress;
+    }
+
+    // EFFECTS: builds and returns the course
+    public Course load() {
+        return loader.get();
+    }
+}
@@ -1,13 +1,18 @@
 package model;
 
+import java.io.IOException;
+
 import org.json.JSONObject;
 
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
 //Represents a single lesson objective within a topic.
 public class LessonObjective implements Writable {
     private String description;
     private boolean isMastered;
+    private Topic topic; // topic notified when mastery changes, or null if detached
+    private int index; // position within the owning topic's objectives
 
     /* 
      * REQUIRES: description is a non-empty string.
@@ -18,6 +23,16 @@ public class LessonObjective implements Writable {
         this.isMastered = false;
     }
 
+    /* 
+     * REQUIRES: description is a non-empty string.
+     * EFFECTS: Initializes the lesson objective with the provided description and mastery status
+     *          without logging any event. Used to rebuild saved objectives in bulk.
+    */
+    public LessonObjective(String description, boolean isMastered) {
+        this.description = description;
+        this.isMastered = isMastered;
+    }
+
     /* 
      * EFFECTS: Returns the description of the lesson objective. 
     */
@@ -41,7 +56,11 @@ public class LessonObjective implements Writable {
     public void markAsMastered() {
         if (!isMastered) { 
             this.isMastered = true;
-            EventLog.getInstance().logEvent(new Event("Marked objective '" + description + "' as mastered."));
+            EventLog log = EventLog.getInstance();
+            if (log.shouldLog(EventCategory.MASTERY, EventLevel.INFO)) {
+                log.logEvent(Event.masteryChanged(courseName(), topicName(), description, false, true));
+            }
+            notifyTopic(1);
         }
     }
 
@@ -51,7 +70,64 @@ public class LessonObjective implements Writable {
      * 
     */
     public void unmarkAsMastered() {
-        this.isMastered = false;
+        if (isMastered) {
+            this.isMastered = false;
+            notifyTopic(-1);
+        }
+    }
+
+    /* 
+     * MODIFIES: this
+     * EFFECTS: Sets the topic that is notified whenever this objective's mastery changes,
+     *          and this objective's position within that topic.
+     */
+    void setTopic(Topic topic, int index) {
+        this.topic = topic;
+        this.index = index;
+    }
+
+    /* 
+     * EFFECTS: Returns the owning topic, or null if detached.
+     */
+    Topic getTopic() {
+        return topic;
+    }
+
+    /* 
+     * EFFECTS: Returns the name of the owning topic, or null if detached.
+     */
+    private String topicName() {
+        return topic == null ? null : topic.getName();
+    }
+
+    /* 
+     * EFFECTS: Returns the name of the owning topic's course, or null if there is none.
+     */
+    private String courseName() {
+        return topic == null || topic.getCourse() == null ? null : topic.getCourse().getName();
+    }
+
+    /* 
+     * EFFECTS: Returns the position of this objective within its owning topic.
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /* 
+     * EFFECTS: Returns this objective as it is now.
+     */
+    ObjectiveVersion toVersion() {
+        return new ObjectiveVersion(description, isMastered);
+    }
+
+    /* 
+     * EFFECTS: Tells the owning topic (if any) that its mastered count changed by delta.
+     */
+    private void notifyTopic(int delta) {
+        if (topic != null) {
+            topic.masteredCountChanged(this, delta);
+        }
     }
     
     /* 
@@ -78,4 +154,11 @@ public class LessonObjective implements Writable {
         return json;
     }
 
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("description").value(description);
+        writer.name("isMastered").value(isMastered);
+        writer.endObject();
+    }
 }
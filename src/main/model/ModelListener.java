@@ -0,0 +1,73 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Represents an observer that is told about every change made to the courses of a CourseManager,
+ * including changes made directly on a Course, Topic or LessonObjective that belongs to it.
+ * Every method does nothing by default, so listeners only override what they care about.
+ */
+public interface ModelListener {
+    /**
+     * EFFECTS: Called after course was added to the manager.
+     */
+    default void courseAdded(Course course) {
+    }
+
+    /**
+     * EFFECTS: Called after course was removed from the manager.
+     */
+    default void courseRemoved(Course course) {
+    }
+
+    /**
+     * EFFECTS: Called after topic was appended to course.
+     */
+    default void topicAdded(Course course, Topic topic) {
+    }
+
+    /**
+     * EFFECTS: Called after topic was put into course at index, moving the topics from index on
+     *          one place later.
+     */
+    default void topicInserted(Course course, int index, Topic topic) {
+    }
+
+    /**
+     * EFFECTS: Called after topic, which was at index, was removed from course. When one call removes
+     *          several topics, they are reported in order, each index counted after the removals
+     *          reported before it.
+     */
+    default void topicRemoved(Course course, int index, Topic topic) {
+    }
+
+    /**
+     * EFFECTS: Called once after one call removed topics from course, topics.get(k) having been at
+     *          indexes[k] counted after the removals before it. By default reports each removal in
+     *          order to topicRemoved; listeners that treat the removals as one change override this.
+     */
+    default void topicsRemoved(Course course, int[] indexes, List<Topic> topics) {
+        for (int k = 0; k < indexes.length; k++) {
+            topicRemoved(course, indexes[k], topics.get(k));
+        }
+    }
+
+    /**
+     * EFFECTS: Called after objective was appended to the topic at topicIndex in course.
+     */
+    default void objectiveAdded(Course course, int topicIndex, LessonObjective objective) {
+    }
+
+    /**
+     * EFFECTS: Called after objective, the last objective of the topic at topicIndex in course, was removed.
+     */
+    default void objectiveRemoved(Course course, int topicIndex, LessonObjective objective) {
+    }
+
+    /**
+     * EFFECTS: Called after the mastery of the objective at objectiveIndex, in the topic at
+     *          topicIndex of course, was flipped.
+     */
+    default void masteryChanged(Course course, int topicIndex, int objectiveIndex, LessonObjective objective) {
+    }
+}
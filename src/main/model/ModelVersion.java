@@ -0,0 +1,131 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents every course of a CourseManager as it was at one moment: an immutable snapshot that
+ * can be read from any thread without locking while the manager goes on changing. The manager
+ * publishes a new version after each change. A new version copies only the path from what changed
+ * to the root and shares everything else with the previous one: changing one objective makes a new
+ * version of it, of its topic and of its course, plus O(log n) nodes of each list on the way. Adding
+ * or removing a course likewise copies O(log n) nodes of the list and of the map from names to slots.
+ * Courses keep the order they were added in.
+ */
+public final class ModelVersion {
+    static final ModelVersion EMPTY = new ModelVersion(PersistentVector.empty(), PersistentMap.empty(), 0, 0);
+    private static final int MIN_COMPACTED = 32; // removed slots are only reclaimed past this many slots
+
+    private final PersistentVector<CourseVersion> slots; // courses in order, null where one was removed
+    private final PersistentMap<String, Integer> slotsByName; // slot of each course
+    private final long totalProgress; // sum of the courses' overall progress, in Course progress units
+    private final long sequence;
+
+    private ModelVersion(PersistentVector<CourseVersion> slots, PersistentMap<String, Integer> slotsByName,
+                         long totalProgress, long sequence) {
+        this.slots = slots;
+        this.slotsByName = slotsByName;
+        this.totalProgress = totalProgress;
+        this.sequence = sequence;
+    }
+
+    /**
+     * REQUIRES: the courses have distinct names
+     * EFFECTS: returns the first version of a model holding courses, in order
+     */
+    static ModelVersion of(List<CourseVersion> courses) {
+        PersistentMap<String, Integer> slotsByName = PersistentMap.empty();
+        long total = 0;
+        for (CourseVersion course : courses) {
+            slotsByName = slotsByName.plus(course.getName(), slotsByName.size());
+            total += Course.toUnits(course.getOverallProgress());
+        }
+        return new ModelVersion(PersistentVector.of(courses), slotsByName, total, 0);
+    }
+
+    /**
+     * EFFECTS: returns the number of changes published before this version, counting from the
+     *          version the manager started with
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * EFFECTS: returns the number of courses
+     */
+    public int getCourseCount() {
+        return slotsByName.size();
+    }
+
+    /**
+     * EFFECTS: returns the course with the given name, or null if there is none
+     */
+    public CourseVersion getCourse(String name) {
+        Integer slot = slotsByName.get(name);
+        return slot == null ? null : slots.get(slot);
+    }
+
+    /**
+     * EFFECTS: returns every course, in the order they were added
+     */
+    public List<CourseVersion> getCourses() {
+        List<CourseVersion> courses = new ArrayList<>(slotsByName.size());
+        for (CourseVersion course : slots) {
+            if (course != null) {
+                courses.add(course);
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * EFFECTS: returns the average overall progress across all courses, or 0.0 if there are none
+     */
+    public double getOverallProgress() {
+        return slotsByName.isEmpty() ? 0.0 : Course.fromUnits(totalProgress) / slotsByName.size();
+    }
+
+    /**
+     * EFFECTS: returns the next version, with course in place of the course of the same name;
+     *          returns this if there is no such course
+     */
+    ModelVersion withCourse(CourseVersion course) {
+        Integer slot = slotsByName.get(course.getName());
+        if (slot == null) {
+            return this;
+        }
+        long total = totalProgress + Course.toUnits(course.getOverallProgress())
+                - Course.toUnits(slots.get(slot).getOverallProgress());
+        return new ModelVersion(slots.with(slot, course), slotsByName, total, sequence + 1);
+    }
+
+    /**
+     * REQUIRES: there is no course named course.getName()
+     * EFFECTS: returns the next version, with course added after the others
+     */
+    ModelVersion plusCourse(CourseVersion course) {
+        return new ModelVersion(slots.plus(course), slotsByName.plus(course.getName(), slots.size()),
+                totalProgress + Course.toUnits(course.getOverallProgress()), sequence + 1);
+    }
+
+    /**
+     * EFFECTS: returns the next version, without the course with the given name; returns this if
+     *          there is no such course. Reclaims the slots of removed courses once they outnumber
+     *          the courses left.
+     */
+    ModelVersion withoutCourse(String name) {
+        Integer slot = slotsByName.get(name);
+        if (slot == null) {
+            return this;
+        }
+        PersistentMap<String, Integer> names = slotsByName.minus(name);
+        long total = totalProgress - Course.toUnits(slots.get(slot).getOverallProgress());
+        PersistentVector<CourseVersion> next = slots.with(slot, null);
+        if (next.size() > MIN_COMPACTED && names.size() * 2 < next.size()) {
+            ModelVersion compacted = of(new ModelVersion(next, names, total, sequence).getCourses());
+            return new ModelVersion(compacted.slots, compacted.slotsByName, total, sequence + 1);
+        }
+        return new ModelVersion(next, names, total, sequence + 1);
+    }
+}
@@ -0,0 +1,297 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Represents a collection of names that can be looked up by part of a name, with typos. Each name
+ * is indexed by the trigrams (runs of three characters) of its lower-case form, padded with two
+ * spaces in front and one behind. A lookup collects the names sharing enough trigrams with the
+ * query to match it, then ranks them: names starting with the query, then names containing it,
+ * then names whose start is within a few edits of it. About one edit is allowed for every four
+ * characters of the query, and a query shorter than three characters only matches the start of
+ * names. Each rank is only looked for while the best names found so far leave room for it, so the
+ * edit distance is only computed when too few names start with or contain the query. A name added
+ * several times is kept until it has been removed as many times.
+ */
+public class NameIndex {
+    private static final int CHARS_PER_EDIT = 4; // one edit is allowed per this many query characters
+    private static final int STARTS = 0; // ranks of matches, best first
+    private static final int CONTAINS = 1;
+    private static final int NEAR_MISS = 2;
+
+    private final Map<String, Integer> ids = new HashMap<>(); // id of each name
+    private final Map<String, IdList> postings = new HashMap<>(); // ids of the names containing each trigram
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private String[] names = new String[16]; // name by id, null if the id is free
+    private String[] folded = new String[16]; // case-folded name by id, as Course.fold folds it
+    private int[] copies = new int[16]; // times each name was added and not yet removed
+    private int nextId;
+    private int search; // number of lookups so far
+    private int[] seen = new int[0]; // the last lookup that looked at each id
+    private int[] sharedAll = new int[0]; // trigrams each id shares with the padded query, if seen
+    private int[] sharedInner = new int[0]; // trigrams each id shares with the query itself, if seen
+
+    /**
+     * EFFECTS: returns the number of distinct names
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * EFFECTS: returns true if name has been added more times than removed
+     */
+    public boolean contains(String name) {
+        return ids.containsKey(name);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: adds name, once more if it is already there
+     */
+    public void add(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            copies[existing]++;
+            return;
+        }
+        int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+            folded = Arrays.copyOf(folded, id * 2);
+            copies = Arrays.copyOf(copies, id * 2);
+        }
+        names[id] = name;
+        folded[id] = Course.fold(name);
+        copies[id] = 1;
+        ids.put(name, id);
+        for (String gram : grams("  " + folded[id] + " ")) {
+            postings.computeIfAbsent(gram, k -> new IdList()).add(id);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: removes one copy of name, if there is one
+     */
+    public void remove(String name) {
+        Integer id = ids.get(name);
+        if (id == null || --copies[id] > 0) {
+            return;
+        }
+        ids.remove(name);
+        for (String gram : grams("  " + folded[id] + " ")) {
+            IdList list = postings.get(gram);
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        names[id] = null;
+        folded[id] = null;
+        freeIds.push(id);
+    }
+
+    /**
+     * REQUIRES: limit > 0
+     * MODIFIES: this
+     * EFFECTS: returns up to limit names close to query, ignoring case, best first: names starting
+     *          with query, then names containing it, then names starting with a near miss of it,
+     *          fewest edits first; shorter names come first among equals. Returns no names if query
+     *          is blank.
+     */
+    public List<String> suggest(String query, int limit) {
+        String key = Course.fold(query.trim());
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int maxEdits = key.length() / CHARS_PER_EDIT;
+        IdList found = candidates(key, maxEdits);
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Collections.reverseOrder()); // worst first
+        for (int rank = STARTS; rank <= NEAR_MISS; rank++) {
+            if (best.size() == limit && best.peek().rank < rank) {
+                break; // no name of this rank or worse can make the cut
+            }
+            for (int i = 0; i < found.size; i++) {
+                int edits = edits(key, folded[found.ids[i]], rank, maxEdits);
+                if (edits <= maxEdits) {
+                    offer(best, new Match(found.ids[i], rank, edits), limit);
+                }
+            }
+        }
+        String[] result = new String[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = names[best.poll().id];
+        }
+        return Arrays.asList(result);
+    }
+
+    // EFFECTS: returns the fewest single-character insertions, deletions and substitutions that turn
+    //          query into the start of name, or max + 1 if that takes more than max; only the part of
+    //          the table within max of its diagonal is filled in, as no other cell can be within max
+    static int distance(String query, String name, int max) {
+        int width = Math.min(name.length(), query.length() + max); // a longer start is too far off
+        int[] previous = new int[width + 2];
+        int[] current = new int[width + 2];
+        for (int j = 0; j <= width; j++) {
+            previous[j] = Math.min(j, max + 1);
+        }
+        previous[width + 1] = max + 1;
+        for (int i = 1; i <= query.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(width, i + max);
+            current[from - 1] = from == 1 ? Math.min(i, max + 1) : max + 1;
+            int rowBest = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int substitute = previous[j - 1] + (query.charAt(i - 1) == name.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+                rowBest = Math.min(rowBest, current[j]);
+            }
+            current[to + 1] = max + 1; // the cell the next row reads just past its diagonal band
+            if (rowBest > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = max + 1;
+        for (int j = Math.max(0, query.length() - max); j <= width; j++) {
+            best = Math.min(best, previous[j]); // the rest of the name may follow the match
+        }
+        return best;
+    }
+
+    // EFFECTS: returns the edits a match of the given rank between key and name takes, which is more
+    //          than max if name is not such a match
+    private static int edits(String key, String name, int rank, int max) {
+        if (name.startsWith(key)) {
+            return rank == STARTS ? 0 : max + 1;
+        }
+        if (rank == CONTAINS) {
+            return name.contains(key) ? 0 : max + 1;
+        }
+        if (rank == STARTS || max == 0 || name.contains(key)) {
+            return max + 1;
+        }
+        return distance(key, name, max);
+    }
+
+    // EFFECTS: adds match to best, which holds up to limit matches worst first, if it makes the cut
+    private static void offer(PriorityQueue<Match> best, Match match, int limit) {
+        if (best.size() < limit || match.compareTo(best.peek()) < 0) {
+            best.add(match);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the ids of the names that may start with key, contain it, or start with a near
+    //          miss of it within maxEdits edits: names sharing every trigram of key, or sharing all but
+    //          three per edit of the trigrams of key padded like a name start
+    private IdList candidates(String key, int maxEdits) {
+        Set<String> all = grams("  " + key);
+        Set<String> inner = grams(key);
+        int neededAll = Math.max(1, all.size() - 3 * maxEdits);
+        int neededInner = inner.isEmpty() ? Integer.MAX_VALUE : inner.size();
+        startLookup();
+        IdList touched = new IdList();
+        for (String gram : all) {
+            IdList list = postings.get(gram);
+            int innerCount = inner.contains(gram) ? 1 : 0;
+            for (int i = 0; list != null && i < list.size; i++) {
+                int id = list.ids[i];
+                if (seen[id] != search) {
+                    seen[id] = search;
+                    sharedAll[id] = 0;
+                    sharedInner[id] = 0;
+                    touched.add(id);
+                }
+                sharedAll[id]++;
+                sharedInner[id] += innerCount;
+            }
+        }
+        IdList found = new IdList();
+        for (int i = 0; i < touched.size; i++) {
+            int id = touched.ids[i];
+            if (sharedAll[id] >= neededAll || sharedInner[id] >= neededInner) {
+                found.add(id);
+            }
+        }
+        return found;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new lookup, making the scratch arrays cover every id
+    private void startLookup() {
+        search++;
+        if (seen.length < nextId) {
+            seen = Arrays.copyOf(seen, Math.max(nextId, seen.length * 2));
+            sharedAll = Arrays.copyOf(sharedAll, seen.length);
+            sharedInner = Arrays.copyOf(sharedInner, seen.length);
+        }
+    }
+
+    // EFFECTS: returns the distinct runs of three characters in text
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Represents a name close enough to a query, ordered from best to worst
+    private class Match implements Comparable<Match> {
+        private final int id;
+        private final int rank; // STARTS, CONTAINS or NEAR_MISS
+        private final int edits; // edits to turn the query into the start of the name, for a near miss
+
+        Match(int id, int rank, int edits) {
+            this.id = id;
+            this.rank = rank;
+            this.edits = edits;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            int order = rank != other.rank ? Integer.compare(rank, other.rank)
+                    : edits != other.edits ? Integer.compare(edits, other.edits)
+                    : Integer.compare(folded[id].length(), folded[other.id].length());
+            return order != 0 ? order : names[id].compareTo(names[other.id]);
+        }
+    }
+
+    // Represents the ids of the names containing one trigram, in no particular order
+    private static class IdList {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a lookup of the course names of a CourseManager, and of the topic names of each of its
+ * courses, by part of a name and with typos, kept up to date as a listener. Course names are
+ * indexed up front without building any course; the topic names of a course are indexed the first
+ * time they are looked up. Meant for a manager used by one thread.
+ */
+public class NameResolver implements ModelListener {
+    public static final int DEFAULT_LIMIT = 10;
+
+    private final CourseManager manager;
+    private final NameIndex courseNames = new NameIndex();
+    private final Map<String, NameIndex> topicNames = new HashMap<>(); // by course name, once looked up
+
+    /**
+     * MODIFIES: manager
+     * EFFECTS: constructs a lookup of manager's course and topic names that follows its changes
+     */
+    public NameResolver(CourseManager manager) {
+        this.manager = manager;
+        for (String name : manager.getCourseNames()) {
+            courseNames.add(name);
+        }
+        manager.addListener(this);
+    }
+
+    /**
+     * MODIFIES: manager
+     * EFFECTS: stops following manager's changes
+     */
+    public void detach() {
+        manager.removeListener(this);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns up to limit course names close to query, best first, as NameIndex.suggest does
+     */
+    public List<String> suggestCourses(String query, int limit) {
+        return courseNames.suggest(query, limit);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns up to limit names of topics in the named course close to query, best first,
+     *          as NameIndex.suggest does; returns no names if there is no such course
+     */
+    public List<String> suggestTopics(String courseName, String query, int limit) {
+        NameIndex index = topicIndex(courseName);
+        return index == null ? List.of() : index.suggest(query, limit);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns the course name query stands for: the only close name, or the best one if it
+     *          equals query ignoring case; returns null if there is none or several are equally likely
+     */
+    public String resolveCourse(String query) {
+        return resolve(query, courseNames.suggest(query, 2));
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns the name of the topic in the named course that query stands for, as
+     *          resolveCourse does for courses
+     */
+    public String resolveTopic(String courseName, String query) {
+        return resolve(query, suggestTopics(courseName, query, 2));
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        courseNames.add(course.getName());
+    }
+
+    @Override
+    public void courseRemoved(Course course) {
+        courseNames.remove(course.getName());
+        topicNames.remove(course.getName());
+    }
+
+    @Override
+    public void topicAdded(Course course, Topic topic) {
+        NameIndex index = topicNames.get(course.getName());
+        if (index != null) {
+            index.add(topic.getName());
+        }
+    }
+
+    @Override
+    public void topicInserted(Course course, int index, Topic topic) {
+        topicAdded(course, topic);
+    }
+
+    @Override
+    public void topicRemoved(Course course, int index, Topic topic) {
+        NameIndex names = topicNames.get(course.getName());
+        if (names != null) {
+            names.remove(topic.getName());
+        }
+    }
+
+    // EFFECTS: returns the first of the best two suggestions for query if it is unambiguous, or null
+    private static String resolve(String query, List<String> best) {
+        if (best.size() == 1 || !best.isEmpty() && best.get(0).equalsIgnoreCase(query.trim())) {
+            return best.get(0);
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the index of the named course's topic names, building the course and the index
+    //          if needed, or null if there is no such course
+    private NameIndex topicIndex(String courseName) {
+        NameIndex index = topicNames.get(courseName);
+        Course course = index == null ? manager.getCourse(courseName) : null;
+        if (course != null) {
+            index = new NameIndex();
+            for (Topic topic : course.getTopicsView()) {
+                index.add(topic.getName());
+            }
+            topicNames.put(courseName, index);
+        }
+        return index;
+    }
+}
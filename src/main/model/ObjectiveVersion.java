@@ -0,0 +1,59 @@
+package model;
+
+import java.io.IOException;
+
+import org.json.JSONObject;
+
+import persistence.JsonStreamWriter;
+import persistence.Writable;
+
+/**
+ * Represents a lesson objective as it was at one version of the model. Immutable.
+ */
+public final class ObjectiveVersion implements Writable {
+    private final String description;
+    private final boolean mastered;
+
+    /**
+     * EFFECTS: constructs the version of an objective with the given description and mastery
+     */
+    ObjectiveVersion(String description, boolean mastered) {
+        this.description = description;
+        this.mastered = mastered;
+    }
+
+    /**
+     * EFFECTS: returns the description of the objective
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * EFFECTS: returns true if the objective was mastered
+     */
+    public boolean isMastered() {
+        return mastered;
+    }
+
+    @Override
+    public String toString() {
+        return description + (mastered ? " [Mastered]" : " [Not Mastered]");
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("description", description);
+        json.put("isMastered", mastered);
+        return json;
+    }
+
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("description").value(description);
+        writer.name("isMastered").value(mastered);
+        writer.endObject();
+    }
+}
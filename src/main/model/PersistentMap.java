@@ -0,0 +1,201 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents an immutable map that shares structure with the maps it was made from. Entries live in
+ * a hash array mapped trie: each node covers 5 bits of the keys' hash codes and holds, for each of
+ * the 32 values those bits can take that is in use, either one entry or a child node for the keys
+ * that share them. Only the used values take room, found by counting the bits set below them in
+ * the node's bitmap. Adding, replacing or removing an entry copies only the nodes on the path to
+ * it: O(log32 n) nodes, all other nodes being shared with the original. Keys whose hash codes are
+ * equal in every bit are kept in a list at the bottom of the trie. Keys must not be null.
+ */
+final class PersistentMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(0, EMPTY_NODE);
+
+    private final int size;
+    private final Node root;
+
+    private PersistentMap(int size, Node root) {
+        this.size = size;
+        this.root = root;
+    }
+
+    /**
+     * EFFECTS: returns the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * EFFECTS: returns the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * EFFECTS: returns true if there are no entries
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * EFFECTS: returns the value for key, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        int hash = key.hashCode();
+        Node node = root;
+        for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            int at = node.position(bit);
+            Object found = node.array[at];
+            if (found != null) {
+                return key.equals(found) ? (V) node.array[at + 1] : null;
+            }
+            node = (Node) node.array[at + 1];
+        }
+        int at = node.find(key);
+        return at < 0 ? null : (V) node.array[at + 1];
+    }
+
+    /**
+     * REQUIRES: key and value are not null
+     * EFFECTS: returns a map like this one with value for key, in place of any value it had
+     */
+    PersistentMap<K, V> plus(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node next = put(root, 0, key.hashCode(), key, value, added);
+        return next == root ? this : new PersistentMap<>(added[0] ? size + 1 : size, next);
+    }
+
+    /**
+     * EFFECTS: returns a map like this one without an entry for key; returns this if it has none
+     */
+    PersistentMap<K, V> minus(Object key) {
+        Node next = remove(root, 0, key.hashCode(), key);
+        return next == root ? this : new PersistentMap<>(size - 1, next);
+    }
+
+    // EFFECTS: returns node, covering the hash bits from shift on, with value for key; sets added[0]
+    //          if key was not there before. Returns node itself if key already had value.
+    private static Node put(Node node, int shift, int hash, Object key, Object value, boolean[] added) {
+        if (shift >= Integer.SIZE) {
+            int at = node.find(key);
+            if (at >= 0) {
+                return node.array[at + 1] == value ? node : node.replace(at + 1, value);
+            }
+            added[0] = true;
+            return node.insert(0, node.array.length, key, value);
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int at = node.position(bit);
+        if ((node.bitmap & bit) == 0) {
+            added[0] = true;
+            return node.insert(bit, at, key, value);
+        }
+        Object found = node.array[at];
+        Object current = node.array[at + 1];
+        if (found == null) {
+            Node child = put((Node) current, shift + BITS, hash, key, value, added);
+            return child == current ? node : node.replace(at + 1, child);
+        }
+        if (key.equals(found)) {
+            return current == value ? node : node.replace(at + 1, value);
+        }
+        added[0] = true;
+        Node child = put(EMPTY_NODE, shift + BITS, found.hashCode(), found, current, new boolean[1]);
+        child = put(child, shift + BITS, hash, key, value, new boolean[1]);
+        return node.replace(at, null).replace(at + 1, child);
+    }
+
+    // EFFECTS: returns node, covering the hash bits from shift on, without an entry for key; returns
+    //          node itself if key is not there. A child left holding a single entry is folded into its parent.
+    private static Node remove(Node node, int shift, int hash, Object key) {
+        if (shift >= Integer.SIZE) {
+            int at = node.find(key);
+            return at < 0 ? node : node.delete(0, at);
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int at = node.position(bit);
+        Object found = node.array[at];
+        if (found != null) {
+            return key.equals(found) ? node.delete(bit, at) : node;
+        }
+        Node child = (Node) node.array[at + 1];
+        Node next = remove(child, shift + BITS, hash, key);
+        if (next == child) {
+            return node;
+        }
+        if (next.array.length == 2 && next.array[0] != null) {
+            return node.replace(at, next.array[0]).replace(at + 1, next.array[1]);
+        }
+        return node.replace(at + 1, next);
+    }
+
+    // Represents one node of the trie: a bitmap of the hash values in use and, for each, a key and its
+    // value, or null and the child node for the keys sharing that value. At the bottom of the trie,
+    // where every key has the same hash code, the bitmap is unused and the array lists the entries.
+    private static final class Node {
+        private final int bitmap;
+        private final Object[] array;
+
+        Node(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        // EFFECTS: returns where the pair for bit is, or would go, in array
+        int position(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        // EFFECTS: returns where key is in the array of a bottom node, or -1 if it is not there
+        int find(Object key) {
+            for (int at = 0; at < array.length; at += 2) {
+                if (key.equals(array[at])) {
+                    return at;
+                }
+            }
+            return -1;
+        }
+
+        // EFFECTS: returns a copy of this node with the element at in array replaced by element
+        Node replace(int at, Object element) {
+            Object[] copy = array.clone();
+            copy[at] = element;
+            return new Node(bitmap, copy);
+        }
+
+        // EFFECTS: returns a copy of this node with bit set and the pair key, value inserted at in array
+        Node insert(int bit, int at, Object key, Object value) {
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, at);
+            copy[at] = key;
+            copy[at + 1] = value;
+            System.arraycopy(array, at, copy, at + 2, array.length - at);
+            return new Node(bitmap | bit, copy);
+        }
+
+        // EFFECTS: returns a copy of this node with bit cleared and the pair at in array removed
+        Node delete(int bit, int at) {
+            Object[] copy = Arrays.copyOf(array, array.length - 2);
+            System.arraycopy(array, at + 2, copy, at, array.length - at - 2);
+            return new Node(bitmap & ~bit, copy);
+        }
+    }
+}
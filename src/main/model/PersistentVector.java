@@ -0,0 +1,218 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Represents an immutable list that shares structure with the lists it was made from. Elements
+ * live in the leaves of a trie of 32-way nodes, so replacing or appending an element copies only
+ * the nodes on the path to it: O(log32 n) nodes, all other nodes being shared with the original.
+ * Removing the last element does the same. Replacing every element from some position on shares the
+ * nodes before that position and builds only the rest, which is how any other element is removed.
+ * The List methods that would modify the list throw UnsupportedOperationException; use with,
+ * plus, minusLast and without instead.
+ */
+final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, new Object[0]);
+
+    private final int size;
+    private final int shift; // BITS times the number of levels above the leaves
+    private final Object[] root; // a leaf if shift is 0, otherwise an array of child nodes
+
+    private PersistentVector(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * EFFECTS: returns the empty vector
+     */
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * EFFECTS: returns a vector of the elements of items, in order, built in O(n)
+     */
+    static <E> PersistentVector<E> of(List<? extends E> items) {
+        if (items.isEmpty()) {
+            return empty();
+        }
+        List<Object[]> nodes = new ArrayList<>((items.size() + MASK) / WIDTH);
+        for (int from = 0; from < items.size(); from += WIDTH) {
+            nodes.add(items.subList(from, Math.min(from + WIDTH, items.size())).toArray());
+        }
+        int shift = 0;
+        while (nodes.size() > 1) {
+            List<Object[]> parents = new ArrayList<>((nodes.size() + MASK) / WIDTH);
+            for (int from = 0; from < nodes.size(); from += WIDTH) {
+                parents.add(nodes.subList(from, Math.min(from + WIDTH, nodes.size())).toArray());
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+        return new PersistentVector<>(items.size(), shift, nodes.get(0));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (E) node[index & MASK];
+    }
+
+    /**
+     * REQUIRES: 0 <= index < size()
+     * EFFECTS: returns a vector like this one with element at index
+     */
+    PersistentVector<E> with(int index, E element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return new PersistentVector<>(size, shift, replace(root, shift, index, element));
+    }
+
+    /**
+     * EFFECTS: returns a vector like this one with element added at the end
+     */
+    PersistentVector<E> plus(E element) {
+        if (size == 1L << (shift + BITS)) { // the trie is full: grow a level
+            Object[] grown = {root, path(shift, element)};
+            return new PersistentVector<>(size + 1, shift + BITS, grown);
+        }
+        return new PersistentVector<>(size + 1, shift, append(root, shift, size, element));
+    }
+
+    /**
+     * REQUIRES: size() > 0
+     * EFFECTS: returns a vector like this one without its last element
+     */
+    PersistentVector<E> minusLast() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("Vector is empty");
+        }
+        Object[] trimmed = trim(root, shift, size - 1);
+        if (shift > 0 && trimmed.length == 1) { // everything left fits under one child: drop a level
+            return new PersistentVector<>(size - 1, shift - BITS, (Object[]) trimmed[0]);
+        }
+        return new PersistentVector<>(size - 1, shift, trimmed);
+    }
+
+    /**
+     * REQUIRES: 0 <= index < size()
+     * EFFECTS: returns a vector like this one without the element at index, in O(size() - index)
+     */
+    PersistentVector<E> without(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return withTail(index, subList(index + 1, size));
+    }
+
+    /**
+     * REQUIRES: 0 <= from <= size()
+     * EFFECTS: returns a vector of this one's first from elements followed by those of tail. The nodes
+     *          holding only elements before from are shared, so this costs O(tail.size() + log n).
+     */
+    PersistentVector<E> withTail(int from, List<? extends E> tail) {
+        if (from < 0 || from > size) {
+            throw new IndexOutOfBoundsException("Index " + from + " out of bounds for length " + size);
+        }
+        int newSize = from + tail.size();
+        if (newSize == 0) {
+            return empty();
+        }
+        int newShift = 0;
+        while (newSize > 1 << (newShift + BITS)) {
+            newShift += BITS;
+        }
+        return new PersistentVector<>(newSize, newShift, build(newShift, 0, from, tail, newSize));
+    }
+
+    // EFFECTS: returns the node at level holding positions start on of the vector made by withTail,
+    //          sharing this vector's node there if every position it holds is before from
+    private Object[] build(int level, int start, int from, List<? extends E> tail, int newSize) {
+        long span = 1L << (level + BITS);
+        if (start + span <= from) {
+            Object[] node = root;
+            for (int above = shift; above > level; above -= BITS) {
+                node = (Object[]) node[(start >>> above) & MASK];
+            }
+            return node;
+        }
+        int count = (int) Math.min(WIDTH, (newSize - start + (1L << level) - 1) >>> level);
+        Object[] node = new Object[count];
+        for (int slot = 0; slot < count; slot++) {
+            int position = start + (slot << level);
+            if (level > 0) {
+                node[slot] = build(level - BITS, position, from, tail, newSize);
+            } else {
+                node[slot] = position < from ? get(position) : tail.get(position - from);
+            }
+        }
+        return node;
+    }
+
+    // EFFECTS: returns a copy of node, at level, with the element at index replaced by element
+    private static Object[] replace(Object[] node, int level, int index, Object element) {
+        Object[] copy = node.clone();
+        int slot = (index >>> level) & MASK;
+        copy[slot] = level == 0 ? element : replace((Object[]) node[slot], level - BITS, index, element);
+        return copy;
+    }
+
+    // REQUIRES: index is the last position used under node
+    // EFFECTS: returns a copy of node, at level, without the element at index, dropping emptied nodes
+    private static Object[] trim(Object[] node, int level, int index) {
+        int slot = (index >>> level) & MASK;
+        if (level == 0) {
+            return Arrays.copyOf(node, slot);
+        }
+        Object[] child = trim((Object[]) node[slot], level - BITS, index);
+        if (child.length == 0) {
+            return Arrays.copyOf(node, slot);
+        }
+        Object[] copy = node.clone();
+        copy[slot] = child;
+        return copy;
+    }
+
+    // REQUIRES: index is the first free position under node
+    // EFFECTS: returns a copy of node, at level, with element added at index
+    private static Object[] append(Object[] node, int level, int index, Object element) {
+        int slot = (index >>> level) & MASK;
+        Object[] copy = Arrays.copyOf(node, Math.max(node.length, slot + 1));
+        if (level == 0) {
+            copy[slot] = element;
+        } else if (slot < node.length) {
+            copy[slot] = append((Object[]) node[slot], level - BITS, index, element);
+        } else {
+            copy[slot] = path(level - BITS, element);
+        }
+        return copy;
+    }
+
+    // EFFECTS: returns a chain of new nodes from level down to a leaf holding only element
+    private static Object[] path(int level, Object element) {
+        return level == 0 ? new Object[] {element} : new Object[] {path(level - BITS, element)};
+    }
+}
@@ -0,0 +1,423 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Represents a full-text index of the course names, topic names and objective descriptions of a
+ * CourseManager, kept up to date as a listener. Text is split into lower-case words of letters and
+ * digits. Each word maps to the ids of the entries containing it, grouped by how many words the
+ * entries have, and each entry keeps its own words. A query matches the entries that contain each
+ * of its words, either in full or as the start of a longer word. Matches rank by how rare the
+ * query words are, a full word counting double a prefix, divided by the square root of the
+ * entry's word count. A search walks the postings of its rarest query word from the shortest
+ * entries up, checks each entry's own words for the others, and stops once no longer entry can
+ * beat the results it has. Removed entries stay in the postings, skipped, until they outnumber the
+ * live ones, when the index is rebuilt. Meant for a manager used by one thread.
+ */
+public class SearchIndex implements ModelListener {
+    public static final int DEFAULT_LIMIT = 20;
+    private static final double PREFIX_WEIGHT = 0.5; // a prefix match counts half as much as a full word
+    private static final int GROUPS = 8; // entries are grouped by word count, the last group holding the rest
+    private static final int MIN_REBUILT = 1024; // removed entries are only dropped past this many
+
+    private final CourseManager manager;
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Object, Integer> ids = new IdentityHashMap<>(); // id of each indexed course, topic, objective
+    private Object[] entries = new Object[64]; // indexed course, topic or objective by id, null once removed
+    private String[][] entryWords = new String[64][]; // distinct words of each entry
+    private int nextId;
+    private int removed; // ids whose entry was removed
+    private int search; // number of searches so far
+    private int[] seen = new int[0]; // the last search that looked at each id
+
+    /**
+     * MODIFIES: manager
+     * EFFECTS: constructs an index of every course of manager, building any not built yet, and
+     *          keeps it up to date with manager's changes
+     */
+    public SearchIndex(CourseManager manager) {
+        this.manager = manager;
+        for (Course course : manager.getCourses()) {
+            addCourse(course);
+        }
+        manager.addListener(this);
+    }
+
+    /**
+     * MODIFIES: manager
+     * EFFECTS: stops following manager's changes
+     */
+    public void detach() {
+        manager.removeListener(this);
+    }
+
+    /**
+     * EFFECTS: returns the number of courses, topics and objectives indexed
+     */
+    public int size() {
+        return nextId - removed;
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: returns the best DEFAULT_LIMIT matches for query, best first
+     */
+    public List<SearchResult> search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    /**
+     * REQUIRES: limit > 0
+     * MODIFIES: this
+     * EFFECTS: returns the best limit entries containing every word of query, in full or as a
+     *          prefix, best first; ties go to the entry indexed first. Returns no results if query
+     *          has no words.
+     */
+    public List<SearchResult> search(String query, int limit) {
+        Set<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        QueryWord[] parts = new QueryWord[words.size()];
+        int count = 0;
+        for (String word : words) {
+            QueryWord part = new QueryWord(word, postings.subMap(word, true, word + Character.MAX_VALUE, false));
+            if (part.terms.isEmpty()) {
+                return List.of();
+            }
+            parts[count++] = part;
+        }
+        Arrays.sort(parts, (a, b) -> Long.compare(a.total, b.total));
+        return toResults(collect(parts, limit));
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        addCourse(course);
+    }
+
+    @Override
+    public void courseRemoved(Course course) {
+        remove(course);
+        for (Topic topic : course.getTopicsView()) {
+            removeTopic(topic);
+        }
+    }
+
+    @Override
+    public void topicAdded(Course course, Topic topic) {
+        addTopic(topic);
+    }
+
+    @Override
+    public void topicInserted(Course course, int index, Topic topic) {
+        addTopic(topic);
+    }
+
+    @Override
+    public void topicRemoved(Course course, int index, Topic topic) {
+        removeTopic(topic);
+    }
+
+    @Override
+    public void objectiveAdded(Course course, int topicIndex, LessonObjective objective) {
+        add(objective, objective.getDescription());
+    }
+
+    @Override
+    public void objectiveRemoved(Course course, int topicIndex, LessonObjective objective) {
+        remove(objective);
+    }
+
+    // EFFECTS: returns the distinct lower-case words of letters and digits in text, in order
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the best limit entries matching every part, as a queue whose head is the worst.
+    //          Walks the postings of parts[0], the rarest, group by group from the shortest entries.
+    private PriorityQueue<Hit> collect(QueryWord[] parts, int limit) {
+        startSearch();
+        double bestPossible = 0.0;
+        for (QueryWord part : parts) {
+            bestPossible += part.fullWeight;
+        }
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1);
+        for (int group = 0; group < GROUPS; group++) {
+            if (best.size() == limit && bestPossible / Math.sqrt(group + 1) < best.peek().score) {
+                break; // every entry left has at least group + 1 words, so none can do better
+            }
+            for (Postings found : parts[0].terms) {
+                for (int i = 0; i < found.sizes[group]; i++) {
+                    offer(best, found.ids[group][i], parts, limit);
+                }
+            }
+        }
+        return best;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the entry with id to best if it is live, matches every part and beats the
+    //          worst of best, dropping that worst one if best already holds limit entries
+    private void offer(PriorityQueue<Hit> best, int id, QueryWord[] parts, int limit) {
+        if (seen[id] == search || entries[id] == null) {
+            return;
+        }
+        seen[id] = search;
+        double score = score(entryWords[id], parts);
+        if (score == 0.0 || best.size() == limit && !beats(score, id, best.peek())) {
+            return;
+        }
+        best.add(new Hit(id, score));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    // EFFECTS: returns the score of an entry with the given words, or 0.0 if some part matches none
+    private static double score(String[] words, QueryWord[] parts) {
+        double total = 0.0;
+        for (QueryWord part : parts) {
+            double weight = 0.0;
+            for (String word : words) {
+                if (word.equals(part.word)) {
+                    weight = part.fullWeight;
+                    break;
+                } else if (word.startsWith(part.word)) {
+                    weight = part.prefixWeight;
+                }
+            }
+            if (weight == 0.0) {
+                return 0.0;
+            }
+            total += weight;
+        }
+        return total / Math.sqrt(words.length);
+    }
+
+    // EFFECTS: returns true if the entry with id and score ranks above hit
+    private static boolean beats(double score, int id, Hit hit) {
+        return score > hit.score || score == hit.score && id < hit.id;
+    }
+
+    // EFFECTS: returns the hits in best as results, best first
+    private List<SearchResult> toResults(PriorityQueue<Hit> best) {
+        SearchResult[] results = new SearchResult[best.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            Hit hit = best.poll();
+            results[i] = toResult(entries[hit.id], hit.score);
+        }
+        return Arrays.asList(results);
+    }
+
+    // EFFECTS: returns entry, a course, topic or objective, as a result with the given score
+    private static SearchResult toResult(Object entry, double score) {
+        if (entry instanceof Course) {
+            Course course = (Course) entry;
+            return new SearchResult(SearchResultKind.COURSE, course.getName(), null, -1, -1, course.getName(), score);
+        }
+        if (entry instanceof Topic) {
+            Topic topic = (Topic) entry;
+            return new SearchResult(SearchResultKind.TOPIC, topic.getCourse().getName(), topic.getName(),
+                    topic.getIndex(), -1, topic.getName(), score);
+        }
+        LessonObjective objective = (LessonObjective) entry;
+        Topic topic = objective.getTopic();
+        return new SearchResult(SearchResultKind.OBJECTIVE, topic.getCourse().getName(), topic.getName(),
+                topic.getIndex(), objective.getIndex(), objective.getDescription(), score);
+    }
+
+    // EFFECTS: returns how much a word found in count of this index's entries counts in a search
+    private double rarity(long count) {
+        return Math.log(1.0 + (double) Math.max(nextId, 1) / count);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new search, making seen cover every id
+    private void startSearch() {
+        search++;
+        if (seen.length < nextId) {
+            seen = Arrays.copyOf(seen, Math.max(nextId, seen.length * 2));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes course with its topics and their objectives
+    private void addCourse(Course course) {
+        add(course, course.getName());
+        for (Topic topic : course.getTopicsView()) {
+            addTopic(topic);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes topic with its objectives
+    private void addTopic(Topic topic) {
+        add(topic, topic.getName());
+        for (LessonObjective objective : topic.getLessonObjectivesView()) {
+            add(objective, objective.getDescription());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes topic and its objectives from the index
+    private void removeTopic(Topic topic) {
+        remove(topic);
+        for (LessonObjective objective : topic.getLessonObjectivesView()) {
+            remove(objective);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes entry under the words of text with the next id; an entry without words is
+    //          kept but never matched
+    private void add(Object entry, String text) {
+        Set<String> words = tokenize(text);
+        if (nextId == entries.length) {
+            entries = Arrays.copyOf(entries, nextId * 2);
+            entryWords = Arrays.copyOf(entryWords, nextId * 2);
+        }
+        int id = nextId++;
+        int group = Math.min(words.size(), GROUPS) - 1;
+        String[] shared = new String[words.size()];
+        int count = 0;
+        for (String word : words) {
+            Postings found = postings.computeIfAbsent(word, Postings::new);
+            found.add(group, id);
+            shared[count++] = found.word; // one copy of each word for every entry
+        }
+        entries[id] = entry;
+        entryWords[id] = shared;
+        ids.put(entry, id);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes entry from the index, if indexed, rebuilding the index once removed entries
+    //          outnumber the live ones
+    private void remove(Object entry) {
+        Integer id = ids.remove(entry);
+        if (id == null) {
+            return;
+        }
+        entries[id] = null;
+        entryWords[id] = null;
+        removed++;
+        if (removed > MIN_REBUILT && removed * 2 > nextId) {
+            rebuild();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the live entries again with new ids, in the same order, dropping removed ones
+    private void rebuild() {
+        Object[] live = new Object[nextId - removed];
+        int count = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (entries[id] != null) {
+                live[count++] = entries[id];
+            }
+        }
+        postings.clear();
+        ids.clear();
+        entries = new Object[Math.max(64, live.length * 2)];
+        entryWords = new String[entries.length][];
+        nextId = 0;
+        removed = 0;
+        for (Object entry : live) {
+            add(entry, textOf(entry));
+        }
+    }
+
+    // EFFECTS: returns the indexed text of entry, a course, topic or objective
+    private static String textOf(Object entry) {
+        if (entry instanceof Course) {
+            return ((Course) entry).getName();
+        }
+        if (entry instanceof Topic) {
+            return ((Topic) entry).getName();
+        }
+        return ((LessonObjective) entry).getDescription();
+    }
+
+    // Represents the ids of the entries containing one word, in increasing order within each group
+    private static class Postings {
+        private final String word;
+        private final int[][] ids = new int[GROUPS][];
+        private final int[] sizes = new int[GROUPS];
+        private int total;
+
+        Postings(String word) {
+            this.word = word;
+        }
+
+        void add(int group, int id) {
+            if (ids[group] == null) {
+                ids[group] = new int[2];
+            } else if (sizes[group] == ids[group].length) {
+                ids[group] = Arrays.copyOf(ids[group], sizes[group] * 2);
+            }
+            ids[group][sizes[group]++] = id;
+            total++;
+        }
+    }
+
+    // Represents one word of a query with the indexed words it matches in full or as a prefix
+    private class QueryWord {
+        private final String word;
+        private final List<Postings> terms;
+        private final long total; // postings of all the terms, counting an entry once per term
+        private final double fullWeight; // weight of matching word in full, the best it can score
+        private final double prefixWeight; // weight of matching a longer word starting with word
+
+        QueryWord(String word, Map<String, Postings> matching) {
+            this.word = word;
+            this.terms = new ArrayList<>(matching.values());
+            long sum = 0;
+            for (Postings found : terms) {
+                sum += found.total;
+            }
+            this.total = sum;
+            Postings exact = matching.get(word);
+            this.prefixWeight = sum == 0 ? 0.0 : rarity(sum) * PREFIX_WEIGHT;
+            this.fullWeight = exact == null ? prefixWeight : rarity(exact.total);
+        }
+    }
+
+    // Represents an entry found by a search and its score, ordered from worst to best
+    private static class Hit implements Comparable<Hit> {
+        private final int id;
+        private final double score;
+
+        Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            return beats(score, id, other) ? 1 : beats(other.score, other.id, this) ? -1 : 0;
+        }
+    }
+}
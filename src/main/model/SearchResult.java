@@ -0,0 +1,89 @@
+package model;
+
+/**
+ * Represents one match found by a SearchIndex: a course, a topic or a lesson objective, where it
+ * was at the time of the search, and how well it matched. Immutable.
+ */
+public final class SearchResult {
+    private final SearchResultKind kind;
+    private final String courseName;
+    private final String topicName;
+    private final int topicIndex;
+    private final int objectiveIndex;
+    private final String text;
+    private final double score;
+
+    /**
+     * EFFECTS: constructs a result of the given kind; topicName is null and the indexes are -1
+     *          where kind does not use them
+     */
+    SearchResult(SearchResultKind kind, String courseName, String topicName, int topicIndex,
+                 int objectiveIndex, String text, double score) {
+        this.kind = kind;
+        this.courseName = courseName;
+        this.topicName = topicName;
+        this.topicIndex = topicIndex;
+        this.objectiveIndex = objectiveIndex;
+        this.text = text;
+        this.score = score;
+    }
+
+    /**
+     * EFFECTS: returns what was matched
+     */
+    public SearchResultKind getKind() {
+        return kind;
+    }
+
+    /**
+     * EFFECTS: returns the name of the matched course, or of the course holding the match
+     */
+    public String getCourseName() {
+        return courseName;
+    }
+
+    /**
+     * EFFECTS: returns the name of the matched topic, or of the topic holding the matched objective;
+     *          null for a course
+     */
+    public String getTopicName() {
+        return topicName;
+    }
+
+    /**
+     * EFFECTS: returns the position of the topic within its course, or -1 for a course
+     */
+    public int getTopicIndex() {
+        return topicIndex;
+    }
+
+    /**
+     * EFFECTS: returns the position of the objective within its topic, or -1 for a course or topic
+     */
+    public int getObjectiveIndex() {
+        return objectiveIndex;
+    }
+
+    /**
+     * EFFECTS: returns the matched text: a course or topic name, or an objective's description
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * EFFECTS: returns how well the match scored; higher is better
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        if (kind == SearchResultKind.COURSE) {
+            return courseName;
+        }
+        String topic = courseName + " > " + topicName;
+        return kind == SearchResultKind.TOPIC ? topic : topic + " > " + text;
+    }
+}
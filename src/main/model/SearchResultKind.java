@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * Represents what a SearchResult matched, and so which of its fields are set: every result names
+ * its course, TOPIC and OBJECTIVE results also name a topic, and OBJECTIVE results an objective.
+ */
+public enum SearchResultKind {
+    COURSE,
+    TOPIC,
+    OBJECTIVE
+}
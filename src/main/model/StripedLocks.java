@@ -0,0 +1,30 @@
+package model;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a fixed set of locks shared out among course names by hash, so that work on
+ * different courses usually takes different locks while the number of locks stays bounded.
+ */
+final class StripedLocks {
+    private final ReentrantLock[] stripes;
+
+    /**
+     * REQUIRES: count is a power of two
+     * EFFECTS: constructs count locks
+     */
+    StripedLocks(int count) {
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * EFFECTS: returns the lock guarding key
+     */
+    ReentrantLock lockFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -1,20 +1,31 @@
 package model;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
 /**
  * Represents a topic within a course, containing multiple lesson objectives.
+ * The topic keeps an immutable TopicVersion of itself up to date, making a new one after each
+ * change and handing it to its course, which publishes it as part of a new ModelVersion.
  */
 public class Topic implements Writable {
     private String name;
     private List<LessonObjective> lessonObjectives;
+    private List<LessonObjective> objectivesView; // read-only view of lessonObjectives, made once
     private double confidenceLevel; // percentage of mastered objectives
+    private int masteredCount; // number of mastered objectives, kept in step with lessonObjectives
+    private Course course; // course notified when confidence changes, or null if detached
+    private int index; // position within the owning course's topics
+    private PersistentVector<ObjectiveVersion> objectiveVersions; // versions of lessonObjectives, in order
+    private TopicVersion version; // this topic as of its last change
 
     /**
      * REQUIRES: name is a non-empty string.
@@ -23,7 +34,33 @@ public class Topic implements Writable {
     public Topic(String name) {
         this.name = name;
         this.lessonObjectives = new ArrayList<>();
+        this.objectivesView = Collections.unmodifiableList(lessonObjectives);
         this.confidenceLevel = 0.0;
+        this.objectiveVersions = PersistentVector.empty();
+        this.version = new TopicVersion(name, confidenceLevel, objectiveVersions);
+    }
+
+    /**
+     * REQUIRES: name is a non-empty string, lessonObjectives are not owned by another topic.
+     * EFFECTS: Initializes the topic with the provided name and lesson objectives in one pass,
+     *          computing the mastered count and confidence level once and logging no events.
+     *          Used to rebuild saved topics in bulk.
+     */
+    public Topic(String name, List<LessonObjective> lessonObjectives) {
+        this.name = name;
+        this.lessonObjectives = new ArrayList<>(lessonObjectives);
+        this.objectivesView = Collections.unmodifiableList(this.lessonObjectives);
+        List<ObjectiveVersion> versions = new ArrayList<>(lessonObjectives.size());
+        for (int i = 0; i < this.lessonObjectives.size(); i++) {
+            LessonObjective objective = this.lessonObjectives.get(i);
+            objective.setTopic(this, i);
+            if (objective.isMastered()) {
+                masteredCount++;
+            }
+            versions.add(objective.toVersion());
+        }
+        this.objectiveVersions = PersistentVector.of(versions);
+        updateConfidenceLevel();
     }
 
     /**
@@ -43,10 +80,37 @@ public class Topic implements Writable {
      */
     public void addLessonObjective(String objectiveDescription) {
         LessonObjective objective = new LessonObjective(objectiveDescription);
+        objective.setTopic(this, lessonObjectives.size());
         lessonObjectives.add(objective);
+        objectiveVersions = objectiveVersions.plus(objective.toVersion());
         updateConfidenceLevel();
-        EventLog.getInstance().logEvent(
-            new Event("Added lesson objective '" + objectiveDescription + "' to topic '" + name + "'."));
+        if (course != null) {
+            course.objectiveAdded(this, objective);
+        }
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO)) {
+            log.logEvent(Event.objectiveAdded(course == null ? null : course.getName(), name, objectiveDescription));
+        }
+    }
+
+    /**
+     * REQUIRES: lessonObjectives is not empty.
+     * MODIFIES: this
+     * EFFECTS: Removes and returns the last lesson objective and updates confidence level.
+     *          Used to undo addLessonObjective.
+     */
+    LessonObjective removeLastObjective() {
+        LessonObjective objective = lessonObjectives.remove(lessonObjectives.size() - 1);
+        if (objective.isMastered()) {
+            masteredCount--;
+        }
+        objective.setTopic(null, 0);
+        objectiveVersions = objectiveVersions.minusLast();
+        updateConfidenceLevel();
+        if (course != null) {
+            course.objectiveRemoved(this, objective);
+        }
+        return objective;
     }
 
     /**
@@ -54,14 +118,10 @@ public class Topic implements Writable {
      * REQUIRES: index is a valid index within lessonObjectives.
      * MODIFIES: this
      * EFFECTS: Marks the lesson objective at the specified index as mastered and updates confidence level.
+     *          The objective logs the change, naming this topic.
      */
     public void markObjectiveAsMastered(int index) {
         lessonObjectives.get(index).markAsMastered();
-        updateConfidenceLevel();
-        EventLog.getInstance().logEvent(
-            new Event("Marked objective '" 
-                + lessonObjectives.get(index).getDescription() 
-                    + "' as mastered in topic '" + name + "'."));
     }
 
     /**
@@ -72,7 +132,6 @@ public class Topic implements Writable {
      */
     public void unmarkObjectiveAsMastered(int index) {
         lessonObjectives.get(index).unmarkAsMastered();
-        updateConfidenceLevel();
     }
     
 
@@ -83,6 +142,22 @@ public class Topic implements Writable {
         return new ArrayList<>(lessonObjectives); // return a copy to preserve encapsulation
     }
 
+    /**
+     * Returns a read-only view of the lesson objectives, without copying them. The view follows
+     * later changes to the topic, so it must not be iterated while objectives are added; use
+     * getLessonObjectives for a copy that can be.
+     */
+    public List<LessonObjective> getLessonObjectivesView() {
+        return objectivesView;
+    }
+
+    /**
+     * Returns the number of lesson objectives.
+     */
+    public int getObjectiveCount() {
+        return lessonObjectives.size();
+    }
+
     /**
      * Returns the confidence level for the topic.
      */
@@ -90,27 +165,67 @@ public class Topic implements Writable {
         return confidenceLevel;
     }
 
+    /**
+     * Returns this topic as of its last change.
+     */
+    public TopicVersion getVersion() {
+        return version;
+    }
+
     /**
      * Updates the confidence level based on mastered lesson objectives.
      *
      * MODIFIES: this
-     * EFFECTS: Calculates and updates the confidence level as the percentage of mastered objectives.
+     * EFFECTS: Calculates and updates the confidence level as the percentage of mastered objectives,
+     *          using the maintained mastered count instead of rescanning the objectives, then
+     *          publishes a new version of the topic.
      */
     public void updateConfidenceLevel() {
         if (lessonObjectives.isEmpty()) {
-            confidenceLevel = 0.0;  
+            setConfidenceLevel(0.0);
             return;
         }
-    
-        int masteredCount = 0;
-        for (LessonObjective objective : lessonObjectives) {
-            if (objective.isMastered()) {
-                masteredCount++;
-            }
-        }
-    
+
         // Confidence level is calculated as the percentage of mastered objectives
-        confidenceLevel = ((double) masteredCount / lessonObjectives.size()) * 100.0;
+        setConfidenceLevel(((double) masteredCount / lessonObjectives.size()) * 100.0);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: Adjusts the mastered count by delta, updates the confidence level and tells the
+     *          owning course. Called by a LessonObjective of this topic whenever its mastery changes.
+     */
+    void masteredCountChanged(LessonObjective objective, int delta) {
+        masteredCount += delta;
+        objectiveVersions = objectiveVersions.with(objective.getIndex(), objective.toVersion());
+        updateConfidenceLevel();
+        if (course != null) {
+            course.objectiveMasteryChanged(this, objective);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: Sets the course that is notified whenever this topic's confidence level changes,
+     *          and this topic's position within that course.
+     */
+    void setCourse(Course course, int index) {
+        this.course = course;
+        this.index = index;
+    }
+
+    /**
+     * EFFECTS: Returns the position of this topic within its owning course.
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * EFFECTS: Returns the course this topic belongs to, or null if it is detached.
+     */
+    Course getCourse() {
+        return course;
     }
 
     /**
@@ -121,8 +236,21 @@ public class Topic implements Writable {
         return name + " (" + ((int) (confidenceLevel * 100)) / 100.0 + "% confident)";
     }
     
+    /**
+     * MODIFIES: this, course
+     * EFFECTS: Sets the confidence level, updates the owning course's running total and publishes
+     *          a new version of the topic.
+     */
     public void setConfidenceLevel(double confidenceLevel) {
+        double oldLevel = this.confidenceLevel;
         this.confidenceLevel = confidenceLevel;
+        if (course != null && oldLevel != confidenceLevel) {
+            course.topicConfidenceChanged(oldLevel, confidenceLevel);
+        }
+        version = new TopicVersion(name, confidenceLevel, objectiveVersions);
+        if (course != null) {
+            course.topicChanged(this);
+        }
     }
 
     @Override
@@ -139,6 +267,17 @@ public class Topic implements Writable {
         return json;
     }
 
-}
-
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("confidenceLevel").value(confidenceLevel);
 
+        writer.name("lessonObjectives").beginArray();
+        for (LessonObjective objective : lessonObjectives) {
+            objective.writeJson(writer);
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+}
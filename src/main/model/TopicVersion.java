@@ -0,0 +1,81 @@
+package model;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import persistence.JsonStreamWriter;
+import persistence.Writable;
+
+/**
+ * Represents a topic as it was at one version of the model. Immutable; a new version of a topic
+ * shares the versions of its unchanged objectives with the previous one.
+ */
+public final class TopicVersion implements Writable {
+    private final String name;
+    private final double confidenceLevel;
+    private final PersistentVector<ObjectiveVersion> objectives;
+
+    /**
+     * EFFECTS: constructs the version of a topic with the given name, confidence level and objectives
+     */
+    TopicVersion(String name, double confidenceLevel, PersistentVector<ObjectiveVersion> objectives) {
+        this.name = name;
+        this.confidenceLevel = confidenceLevel;
+        this.objectives = objectives;
+    }
+
+    /**
+     * EFFECTS: returns the name of the topic
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * EFFECTS: returns the confidence level of the topic
+     */
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    /**
+     * EFFECTS: returns the topic's objectives, in order, as an unmodifiable list
+     */
+    public List<ObjectiveVersion> getObjectives() {
+        return objectives;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + ((int) (confidenceLevel * 100)) / 100.0 + "% confident)";
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("name", name);
+        json.put("confidenceLevel", confidenceLevel);
+        JSONArray jsonObjectives = new JSONArray();
+        for (ObjectiveVersion objective : objectives) {
+            jsonObjectives.put(objective.toJson());
+        }
+        json.put("lessonObjectives", jsonObjectives);
+        return json;
+    }
+
+    @Override
+    public void writeJson(JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("confidenceLevel").value(confidenceLevel);
+        writer.name("lessonObjectives").beginArray();
+        for (ObjectiveVersion objective : objectives) {
+            objective.writeJson(writer);
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+}
@@ -0,0 +1,302 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Represents the undo and redo history of a CourseManager. Attached to the manager as a listener,
+ * it records every change made to its courses as one step, however the change was made, and can
+ * reverse the latest steps and then make them again. Removing every topic with a name is one step,
+ * however many topics share it. Steps refer to courses by name and to topics
+ * and objectives by position, which stay valid because the steps after a step are always undone
+ * before it. A new change clears the steps that could be redone, and only the latest depth steps
+ * are kept. A course brought back by undoing its removal is added after the other courses.
+ * Meant for a manager used by one thread.
+ */
+public class UndoHistory implements ModelListener {
+    public static final int DEFAULT_DEPTH = 100;
+
+    private final CourseManager manager;
+    private final int depth;
+    private final Deque<Step> undoSteps = new ArrayDeque<>(); // latest first
+    private final Deque<Step> redoSteps = new ArrayDeque<>(); // latest undone first
+    private boolean replaying; // true while this history is making changes itself
+
+    /**
+     * MODIFIES: manager
+     * EFFECTS: constructs an empty history of manager's changes keeping up to DEFAULT_DEPTH steps
+     */
+    public UndoHistory(CourseManager manager) {
+        this(manager, DEFAULT_DEPTH);
+    }
+
+    /**
+     * REQUIRES: depth > 0
+     * MODIFIES: manager
+     * EFFECTS: constructs an empty history of manager's changes keeping up to depth steps
+     */
+    public UndoHistory(CourseManager manager, int depth) {
+        this.manager = manager;
+        this.depth = depth;
+        manager.addListener(this);
+    }
+
+    /**
+     * EFFECTS: returns true if there is a step to undo
+     */
+    public boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    /**
+     * EFFECTS: returns true if there is an undone step to redo
+     */
+    public boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    /**
+     * MODIFIES: this, manager
+     * EFFECTS: reverses the latest step and returns true, or returns false if there is none
+     */
+    public boolean undo() {
+        Step step = undoSteps.poll();
+        if (step == null) {
+            return false;
+        }
+        replaying = true;
+        try {
+            step.undo();
+        } finally {
+            replaying = false;
+        }
+        redoSteps.push(step);
+        return true;
+    }
+
+    /**
+     * MODIFIES: this, manager
+     * EFFECTS: makes the latest undone step again and returns true, or returns false if there is none
+     */
+    public boolean redo() {
+        Step step = redoSteps.poll();
+        if (step == null) {
+            return false;
+        }
+        replaying = true;
+        try {
+            step.redo();
+        } finally {
+            replaying = false;
+        }
+        undoSteps.push(step);
+        return true;
+    }
+
+    /**
+     * MODIFIES: this, manager
+     * EFFECTS: forgets every step and stops recording manager's changes
+     */
+    public void detach() {
+        manager.removeListener(this);
+        undoSteps.clear();
+        redoSteps.clear();
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        record(new CourseStep(course.getName(), null));
+    }
+
+    @Override
+    public void courseRemoved(Course course) {
+        record(new CourseStep(course.getName(), course.getTopics()));
+    }
+
+    @Override
+    public void topicAdded(Course course, Topic topic) {
+        record(new TopicStep(course.getName(), new int[] {topic.getIndex()}, List.of(topic), true));
+    }
+
+    @Override
+    public void topicInserted(Course course, int index, Topic topic) {
+        record(new TopicStep(course.getName(), new int[] {index}, List.of(topic), true));
+    }
+
+    @Override
+    public void topicsRemoved(Course course, int[] indexes, List<Topic> topics) {
+        record(new TopicStep(course.getName(), indexes.clone(), List.copyOf(topics), false));
+    }
+
+    @Override
+    public void objectiveAdded(Course course, int topicIndex, LessonObjective objective) {
+        record(new ObjectiveStep(course.getName(), topicIndex, objective.getDescription()));
+    }
+
+    @Override
+    public void masteryChanged(Course course, int topicIndex, int objectiveIndex, LessonObjective objective) {
+        record(new MasteryStep(course.getName(), topicIndex, objectiveIndex, objective.isMastered()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records step as the latest one, unless this history made the change itself
+    private void record(Step step) {
+        if (replaying) {
+            return;
+        }
+        redoSteps.clear();
+        undoSteps.push(step);
+        if (undoSteps.size() > depth) {
+            undoSteps.removeLast();
+        }
+    }
+
+    // Represents one recorded change that can be reversed and made again
+    private interface Step {
+        void undo();
+
+        void redo();
+    }
+
+    // Represents a course being added (topics is null) or removed with the given topics
+    private class CourseStep implements Step {
+        private final String name;
+        private List<Topic> topics;
+
+        CourseStep(String name, List<Topic> topics) {
+            this.name = name;
+            this.topics = topics;
+        }
+
+        @Override
+        public void undo() {
+            if (topics == null) {
+                manager.removeCourse(name);
+            } else {
+                restore();
+            }
+        }
+
+        @Override
+        public void redo() {
+            if (topics == null) {
+                manager.addCourse(name);
+            } else {
+                topics = manager.getCourse(name).getTopics();
+                manager.removeCourse(name);
+            }
+        }
+
+        // EFFECTS: adds the course back with the topics it had when it was removed, putting them all
+        //          back in one change
+        private void restore() {
+            manager.addCourse(name);
+            manager.update(name, course -> course.addTopicObjects(topics));
+        }
+    }
+
+    // Represents topics being put into (added is true) or taken out of a course by one call, topics.get(k)
+    // at indexes[k], each counted after the changes to the topics before it
+    private class TopicStep implements Step {
+        private final String courseName;
+        private final int[] indexes;
+        private final List<Topic> topics;
+        private final boolean added;
+
+        TopicStep(String courseName, int[] indexes, List<Topic> topics, boolean added) {
+            this.courseName = courseName;
+            this.indexes = indexes;
+            this.topics = topics;
+            this.added = added;
+        }
+
+        @Override
+        public void undo() {
+            apply(!added);
+        }
+
+        @Override
+        public void redo() {
+            apply(added);
+        }
+
+        // EFFECTS: puts the topics at their indexes if insert, last first, so that each index is counted
+        //          as it was recorded; otherwise removes the topics at their indexes, first first
+        private void apply(boolean insert) {
+            manager.update(courseName, course -> {
+                if (insert) {
+                    for (int k = indexes.length - 1; k >= 0; k--) {
+                        course.insertTopic(indexes[k], topics.get(k));
+                    }
+                } else {
+                    for (int index : indexes) {
+                        course.removeTopicAt(index);
+                    }
+                }
+            });
+        }
+    }
+
+    // Represents an objective being added to the end of the topic at topicIndex
+    private class ObjectiveStep implements Step {
+        private final String courseName;
+        private final int topicIndex;
+        private final String description;
+
+        ObjectiveStep(String courseName, int topicIndex, String description) {
+            this.courseName = courseName;
+            this.topicIndex = topicIndex;
+            this.description = description;
+        }
+
+        @Override
+        public void undo() {
+            manager.update(courseName, course -> course.getTopicsView().get(topicIndex).removeLastObjective());
+        }
+
+        @Override
+        public void redo() {
+            manager.update(courseName, course -> {
+                course.getTopicsView().get(topicIndex).addLessonObjective(description);
+            });
+        }
+    }
+
+    // Represents the objective at objectiveIndex of the topic at topicIndex becoming mastered or not
+    private class MasteryStep implements Step {
+        private final String courseName;
+        private final int topicIndex;
+        private final int objectiveIndex;
+        private final boolean mastered;
+
+        MasteryStep(String courseName, int topicIndex, int objectiveIndex, boolean mastered) {
+            this.courseName = courseName;
+            this.topicIndex = topicIndex;
+            this.objectiveIndex = objectiveIndex;
+            this.mastered = mastered;
+        }
+
+        @Override
+        public void undo() {
+            apply(!mastered);
+        }
+
+        @Override
+        public void redo() {
+            apply(mastered);
+        }
+
+        // EFFECTS: marks the objective as mastered if master, otherwise unmarks it
+        private void apply(boolean master) {
+            manager.update(courseName, course -> {
+                Topic topic = course.getTopicsView().get(topicIndex);
+                if (master) {
+                    topic.markObjectiveAsMastered(objectiveIndex);
+                } else {
+                    topic.unmarkObjectiveAsMastered(objectiveIndex);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Helpers for the compact binary encodings used by the persistence formats:
+// unsigned LEB128 varints, varint-length-prefixed UTF-8 strings, and checksummed record frames
+final class BinaryIO {
+
+    private BinaryIO() {
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: out
+    // EFFECTS: writes value as a varint, seven bits per byte
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a varint written by writeVarInt; throws IOException if it is malformed
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes value as a varint byte length followed by its UTF-8 bytes
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a string written by writeString
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes payload framed as: varint length, payload, CRC32 of the payload
+    static void writeFrame(DataOutput out, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        writeVarInt(out, payload.length);
+        out.write(payload);
+        out.writeInt((int) crc.getValue());
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the next frame written by writeFrame and returns its payload, or null at the end
+    //          of the input or at a torn or corrupt frame, or one longer than maxSize
+    static byte[] readFrame(DataInput in, int maxSize) throws IOException {
+        try {
+            int length = readVarInt(in);
+            if (length < 0 || length > maxSize) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return in.readInt() == (int) crc.getValue() ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: returns the number of bytes writeFrame uses for a payload of the given length
+    static int frameSize(int payloadLength) {
+        int size = 1;
+        for (int value = payloadLength; (value & ~0x7F) != 0; value >>>= 7) {
+            size++;
+        }
+        return size + payloadLength + Integer.BYTES;
+    }
+}
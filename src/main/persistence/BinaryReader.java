@@ -0,0 +1,52 @@
+package persistence;
+
+import model.Course;
+import model.Event;
+import model.EventCategory;
+import model.EventLevel;
+import model.EventLog;
+import model.LazyCourse;
+
+import java.io.IOException;
+import java.util.List;
+
+// Represents a reader that reads the StudyTrack state from a binary snapshot written by BinaryWriter.
+// Every record is checked against its CRC32 as it is decoded, so a damaged file is reported rather
+// than partially loaded.
+public class BinaryReader {
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads list of courses from file and returns it, logging a single load event;
+    // throws IOException if an error occurs reading data from file or the data is malformed
+    public List<Course> read() throws IOException {
+        List<Course> courses = readCourses();
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.PERSISTENCE, EventLevel.INFO)) {
+            log.logEvent(new Event("Loaded {} course(s) from {}.", courses.size(), source));
+        }
+        return courses;
+    }
+
+    // EFFECTS: returns an index of the file's courses, each read and decoded only when it is first
+    //          loaded, logging a single load event; the file stays open until every course has been
+    //          loaded. Throws IOException if the catalog cannot be read
+    public List<LazyCourse> readIndex() throws IOException {
+        List<LazyCourse> index = new SnapshotFile(source).toIndex();
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.PERSISTENCE, EventLevel.INFO)) {
+            log.logEvent(new Event("Indexed {} course(s) from {}.", index.size(), source));
+        }
+        return index;
+    }
+
+    // EFFECTS: reads list of courses from file and returns it without logging any event;
+    // throws IOException if an error occurs reading data from file or the data is malformed
+    List<Course> readCourses() throws IOException {
+        return new SnapshotFile(source).readAll();
+    }
+}
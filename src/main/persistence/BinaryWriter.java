@@ -0,0 +1,198 @@
+package persistence;
+
+import model.Course;
+import model.LessonObjective;
+import model.Topic;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Represents a writer that writes the courses to file in the compact binary snapshot format:
+//   header:  magic "STRK", version byte
+//   records: one per course: int payload length, payload, CRC32 of the payload. The payload is a
+//            varint topic count, then per topic: varint name index, confidence level as a double,
+//            varint objective count, varint description index per objective, mastery flags packed
+//            8 per byte
+//   catalog: string table (varint count, then each string as varint byte length + UTF-8), varint
+//            course count, then per course: varint name index, long record offset, double progress
+//   trailer: long catalog offset, CRC32 of the catalog
+// Every name and description is stored once in the string table and referred to by index. The
+// catalog at the end lets a reader list the courses and open any one of them without decoding
+// the others. Like JsonWriter, the file is written next to destination and only moved over it
+// once complete.
+public class BinaryWriter {
+    static final byte[] MAGIC = {'S', 'T', 'R', 'K'};
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = MAGIC.length + 1;
+    static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DataOutputStream section = new DataOutputStream(buffer);
+    private FileOutputStream fileOut;
+    private DataOutputStream out;
+    private long position;
+    private String destination;
+    private Durability durability;
+    private boolean complete;
+
+    // EFFECTS: constructs writer to write to destination file, forcing data to disk
+    public BinaryWriter(String destination) {
+        this(destination, Durability.DATA);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, making the save as durable as durability asks
+    public BinaryWriter(String destination, Durability durability) {
+        this.destination = destination;
+        this.durability = durability;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer on a temp file next to destination;
+    //          throws FileNotFoundException if it cannot be opened for writing
+    public void open() throws FileNotFoundException {
+        fileOut = new FileOutputStream(destination + TEMP_SUFFIX);
+        out = new DataOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE));
+        position = 0;
+        complete = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the binary representation of the courses list to the temp file;
+    //          throws IOException if the data cannot be written
+    public void write(List<Course> courses) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        position = HEADER_SIZE;
+        Map<String, Integer> strings = buildStringTable(courses);
+        long[] offsets = new long[courses.size()];
+        for (int i = 0; i < courses.size(); i++) {
+            offsets[i] = position;
+            writeCourse(courses.get(i), strings);
+            writeSection(true);
+        }
+        long catalogOffset = position;
+        writeCatalog(courses, strings, offsets);
+        int catalogCrc = writeSection(false);
+        out.writeLong(catalogOffset);
+        out.writeInt(catalogCrc);
+        out.flush();
+        complete = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer. If the courses were written completely, forces them to disk as the
+    //          durability asks and moves the temp file over destination, keeping the previous file
+    //          as a backup; otherwise discards the temp file and leaves destination untouched.
+    //          Throws IOException if the data cannot be made durable or moved into place.
+    public void close() throws IOException {
+        Path temp = Paths.get(destination + TEMP_SUFFIX);
+        try {
+            out.flush();
+            if (complete && durability != Durability.NONE) {
+                fileOut.getChannel().force(false);
+            }
+        } finally {
+            out.close();
+        }
+        if (complete) {
+            SafeFiles.replace(temp, Paths.get(destination), durability, true);
+        } else {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the string table and the course index to the section buffer
+    private void writeCatalog(List<Course> courses, Map<String, Integer> strings, long[] offsets)
+            throws IOException {
+        BinaryIO.writeVarInt(section, strings.size());
+        for (String value : strings.keySet()) {
+            BinaryIO.writeString(section, value);
+        }
+        BinaryIO.writeVarInt(section, courses.size());
+        for (int i = 0; i < courses.size(); i++) {
+            BinaryIO.writeVarInt(section, strings.get(courses.get(i).getName()));
+            section.writeLong(offsets[i]);
+            section.writeDouble(courses.get(i).getOverallProgress());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the section buffer to the file, framed with its length and CRC32 if framed,
+    //          empties the buffer and returns the CRC32 of the section
+    private int writeSection(boolean framed) throws IOException {
+        section.flush();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.toByteArray());
+        if (framed) {
+            out.writeInt(buffer.size());
+        }
+        buffer.writeTo(out);
+        if (framed) {
+            out.writeInt((int) crc.getValue());
+        }
+        position += buffer.size() + (framed ? 2 * Integer.BYTES : 0);
+        buffer.reset();
+        return (int) crc.getValue();
+    }
+
+    // EFFECTS: returns every distinct name and description in the courses mapped to its index,
+    //          in order of first use
+    private static Map<String, Integer> buildStringTable(List<Course> courses) {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (Course course : courses) {
+            strings.putIfAbsent(course.getName(), strings.size());
+            for (Topic topic : course.getTopicsView()) {
+                strings.putIfAbsent(topic.getName(), strings.size());
+                for (LessonObjective objective : topic.getLessonObjectivesView()) {
+                    strings.putIfAbsent(objective.getDescription(), strings.size());
+                }
+            }
+        }
+        return strings;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the record payload of a course's topics to the section buffer, using indices into strings
+    private void writeCourse(Course course, Map<String, Integer> strings) throws IOException {
+        List<Topic> topics = course.getTopicsView();
+        BinaryIO.writeVarInt(section, topics.size());
+        for (Topic topic : topics) {
+            BinaryIO.writeVarInt(section, strings.get(topic.getName()));
+            section.writeDouble(topic.getConfidenceLevel());
+            writeObjectives(topic.getLessonObjectivesView(), strings);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the objectives' description indices followed by their mastery bitset
+    private void writeObjectives(List<LessonObjective> objectives, Map<String, Integer> strings) throws IOException {
+        BinaryIO.writeVarInt(section, objectives.size());
+        for (LessonObjective objective : objectives) {
+            BinaryIO.writeVarInt(section, strings.get(objective.getDescription()));
+        }
+        int bits = 0;
+        for (int i = 0; i < objectives.size(); i++) {
+            if (objectives.get(i).isMastered()) {
+                bits |= 1 << (i % 8);
+            }
+            if (i % 8 == 7 || i == objectives.size() - 1) {
+                section.writeByte(bits);
+                bits = 0;
+            }
+        }
+    }
+}
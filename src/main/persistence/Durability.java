@@ -0,0 +1,13 @@
+package persistence;
+
+// Represents how far a save goes to make sure its data survives a crash or power loss,
+// trading save latency for safety. A JournalStore forces each batch of journal records
+// from its background writer, so changes never wait on the disk themselves.
+public enum Durability {
+    // Data is handed to the operating system but not forced to disk
+    NONE,
+    // File contents are forced to disk before the save completes
+    DATA,
+    // File contents and the directory entries of renamed files are forced to disk
+    DATA_AND_DIRECTORY
+}
@@ -0,0 +1,246 @@
+package persistence;
+
+import model.Course;
+import model.LazyCourse;
+import model.LessonObjective;
+import model.Topic;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents the replay of mutation journal records on top of a snapshot of courses.
+// Records are applied to plain draft copies of the courses and the model is rebuilt through
+// the bulk constructors at the end, so replaying logs no events and needs no listeners.
+// When replaying onto a course index, only the courses that records touch are built.
+// Each record is framed as: varint payload length, payload, CRC32 of the payload.
+class JournalReplay {
+    static final int COURSE_ADDED = 1;
+    static final int COURSE_REMOVED = 2;
+    static final int TOPIC_ADDED = 3;
+    static final int TOPIC_REMOVED = 4; // by name; no longer written, but still replayed
+    static final int OBJECTIVE_ADDED = 5;
+    static final int MASTERY_CHANGED = 6;
+    static final int TOPIC_INSERTED = 7;
+    static final int TOPIC_REMOVED_AT = 8;
+    static final int OBJECTIVE_REMOVED = 9;
+    static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+    private final Map<String, List<TopicDraft>> courses = new LinkedHashMap<>(); // null until drafted
+    private final Map<String, LazyCourse> untouched = new HashMap<>();
+    private int recordCount;
+
+    // EFFECTS: constructs a replay starting from the given snapshot courses; if several courses
+    //          share a name only the first is kept, as CourseManager does
+    JournalReplay(List<Course> snapshot) {
+        for (Course course : snapshot) {
+            if (!courses.containsKey(course.getName())) {
+                courses.put(course.getName(), draftsOf(course));
+            }
+        }
+    }
+
+    // EFFECTS: constructs a replay starting from the given course index; a course is only built
+    //          if a record changes it
+    static JournalReplay ofIndex(List<LazyCourse> index) {
+        JournalReplay replay = new JournalReplay(List.of());
+        for (LazyCourse entry : index) {
+            if (!replay.courses.containsKey(entry.getName())) {
+                replay.courses.put(entry.getName(), null);
+                replay.untouched.put(entry.getName(), entry);
+            }
+        }
+        return replay;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies every complete record of the journal at path and returns the length of the
+    //          journal prefix holding them; a torn or corrupt record ends the replay
+    long apply(Path path) throws IOException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] payload;
+            while ((payload = BinaryIO.readFrame(in, MAX_RECORD_SIZE)) != null) {
+                applyRecord(new DataInputStream(new ByteArrayInputStream(payload)));
+                valid += BinaryIO.frameSize(payload.length);
+                recordCount++;
+            }
+        }
+        return valid;
+    }
+
+    // EFFECTS: returns the number of records applied so far
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    // EFFECTS: builds and returns the replayed courses
+    List<Course> toCourses() throws IOException {
+        List<Course> result = new ArrayList<>(courses.size());
+        for (String name : courses.keySet()) {
+            result.add(toCourse(name));
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the replayed courses as an index, building only the courses records changed
+    List<LazyCourse> toIndex() {
+        List<LazyCourse> result = new ArrayList<>(courses.size());
+        for (Map.Entry<String, List<TopicDraft>> entry : courses.entrySet()) {
+            if (entry.getValue() == null) {
+                result.add(untouched.get(entry.getKey()));
+            } else {
+                result.add(LazyCourse.of(buildCourse(entry.getKey(), entry.getValue())));
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the named course, built from its drafts or from the index if no record changed it
+    private Course toCourse(String name) throws IOException {
+        List<TopicDraft> drafts = courses.get(name);
+        return drafts != null ? buildCourse(name, drafts) : load(untouched.get(name));
+    }
+
+    // EFFECTS: builds a course from its topic drafts
+    private static Course buildCourse(String name, List<TopicDraft> drafts) {
+        List<Topic> topics = new ArrayList<>(drafts.size());
+        for (TopicDraft draft : drafts) {
+            topics.add(draft.toTopic());
+        }
+        return new Course(name, topics);
+    }
+
+    // EFFECTS: returns drafts copying the topics of course
+    private static List<TopicDraft> draftsOf(Course course) {
+        List<TopicDraft> topics = new ArrayList<>();
+        for (Topic topic : course.getTopicsView()) {
+            topics.add(new TopicDraft(topic.getName(), topic.getLessonObjectivesView(), topic.getConfidenceLevel()));
+        }
+        return topics;
+    }
+
+    // EFFECTS: builds the indexed course, reporting a failure to read it as an IOException
+    private static Course load(LazyCourse entry) throws IOException {
+        try {
+            return entry.load();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the drafts of the named course, drafting it from the index first if needed,
+    //          or null if there is no such course
+    private List<TopicDraft> draftsFor(String name) throws IOException {
+        List<TopicDraft> drafts = courses.get(name);
+        if (drafts == null && untouched.containsKey(name)) {
+            drafts = draftsOf(load(untouched.remove(name)));
+            courses.put(name, drafts);
+        }
+        return drafts;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies one record payload to the drafts
+    private void applyRecord(DataInputStream in) throws IOException {
+        int op = in.readUnsignedByte();
+        String courseName = BinaryIO.readString(in);
+        if (op == COURSE_ADDED) {
+            if (!courses.containsKey(courseName)) {
+                courses.put(courseName, new ArrayList<>());
+            }
+        } else if (op == COURSE_REMOVED) {
+            courses.remove(courseName);
+            untouched.remove(courseName);
+        } else {
+            List<TopicDraft> topics = draftsFor(courseName);
+            if (topics == null) {
+                throw new IOException("Journal refers to unknown course '" + courseName + "'");
+            }
+            applyTopicRecord(op, topics, in);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies a record that changes the topics of one course
+    private void applyTopicRecord(int op, List<TopicDraft> topics, DataInputStream in) throws IOException {
+        if (op == TOPIC_ADDED) {
+            topics.add(readTopic(in));
+        } else if (op == TOPIC_INSERTED) {
+            int index = BinaryIO.readVarInt(in);
+            topics.add(index, readTopic(in));
+        } else if (op == TOPIC_REMOVED_AT) {
+            topics.remove(BinaryIO.readVarInt(in));
+        } else if (op == TOPIC_REMOVED) {
+            String name = BinaryIO.readString(in);
+            topics.removeIf(draft -> draft.name.equalsIgnoreCase(name));
+        } else if (op == OBJECTIVE_ADDED) {
+            topics.get(BinaryIO.readVarInt(in)).addObjective(new LessonObjective(BinaryIO.readString(in), false));
+        } else if (op == OBJECTIVE_REMOVED) {
+            topics.get(BinaryIO.readVarInt(in)).removeLastObjective();
+        } else if (op == MASTERY_CHANGED) {
+            TopicDraft topic = topics.get(BinaryIO.readVarInt(in));
+            topic.setMastered(BinaryIO.readVarInt(in), in.readBoolean());
+        } else {
+            throw new IOException("Unknown journal record type " + op);
+        }
+    }
+
+    // EFFECTS: reads a topic written with all of its objectives
+    private static TopicDraft readTopic(DataInputStream in) throws IOException {
+        String name = BinaryIO.readString(in);
+        double confidenceLevel = in.readDouble();
+        int count = BinaryIO.readVarInt(in);
+        List<LessonObjective> objectives = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            objectives.add(new LessonObjective(BinaryIO.readString(in), in.readBoolean()));
+        }
+        return new TopicDraft(name, objectives, confidenceLevel);
+    }
+
+    // Represents a mutable copy of a topic while records are replayed
+    private static class TopicDraft {
+        private final String name;
+        private final List<LessonObjective> objectives;
+        private Double confidenceLevel; // saved level, or null once an objective has changed
+
+        TopicDraft(String name, List<LessonObjective> objectives, double confidenceLevel) {
+            this.name = name;
+            this.objectives = new ArrayList<>(objectives);
+            this.confidenceLevel = confidenceLevel;
+        }
+
+        void addObjective(LessonObjective objective) {
+            objectives.add(objective);
+            confidenceLevel = null;
+        }
+
+        void removeLastObjective() {
+            objectives.remove(objectives.size() - 1);
+            confidenceLevel = null;
+        }
+
+        void setMastered(int index, boolean mastered) {
+            objectives.set(index, new LessonObjective(objectives.get(index).getDescription(), mastered));
+            confidenceLevel = null;
+        }
+
+        Topic toTopic() {
+            Topic topic = new Topic(name, objectives);
+            if (confidenceLevel != null) {
+                topic.setConfidenceLevel(confidenceLevel);
+            }
+            return topic;
+        }
+    }
+}
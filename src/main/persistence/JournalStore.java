@@ -0,0 +1,553 @@
+package persistence;
+
+import model.Course;
+import model.CourseManager;
+import model.Event;
+import model.EventCategory;
+import model.EventLevel;
+import model.EventLog;
+import model.LessonObjective;
+import model.ModelListener;
+import model.Topic;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents journaled storage for a CourseManager: a JSON or binary snapshot plus an append-only journal
+// of compact mutation records next to it (<snapshot>.journal). Once loaded or saved, every change
+// to the manager is recorded as it happens, so saving costs only what changed. A change only encodes
+// its record and queues it: a background writer appends the queued records to the journal in
+// batches and forces each batch to disk once (unless durability is NONE), so no change waits on the
+// disk and changes from several threads share each sync. A save waits until every record queued
+// before it has been written and forced; a crash may lose the records queued since the last batch.
+// When the journal passes a size threshold the writer rotates it out and a background thread folds it
+// into a fresh snapshot. Loading replays the snapshot plus any journal left behind; a lazy load
+// keeps a binary snapshot open and builds only the courses the journal touches, leaving the rest to
+// be built on first access. Before the store replaces or stops using that snapshot it copies the
+// records of the courses not built yet into memory and closes the file.
+//
+// Compaction works only from files, never from the live model, using these steps:
+// rename journal to .compacting, write the folded snapshot to .next, rename .compacting to
+// .compacted, move .next over the snapshot, delete .compacted. A full save of another manager
+// writes .next, creates a .reset marker, moves .next over the snapshot, deletes the journals
+// and then the marker. Load finishes or discards either operation if it was interrupted
+// between any two of those steps. The durability decides whether snapshots, journal records
+// and renames are forced to disk before they count as done.
+public class JournalStore implements ModelListener {
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+
+    private final Path snapshot;
+    private final Path journal;
+    private final Path compacting;
+    private final Path compacted;
+    private final Path snapshotNext;
+    private final Path resetMarker;
+    private final long compactionThreshold;
+    private final Durability durability;
+    private final SnapshotFormat format;
+    private final ExecutorService compactor;
+    private final ExecutorService writer; // writes queued records to the journal in batches
+
+    private CourseManager attached;
+    private volatile Future<?> compaction;
+    private volatile IOException pendingError;
+    private volatile SnapshotFile lazySnapshot; // the snapshot a lazy load still builds courses from
+
+    // records queued for the writer; guarded by pending
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long queued; // records queued since the store was made
+    private long written; // records written and forced so far
+    private long unwrittenBytes; // bytes of the records queued but not yet written
+    private boolean writing; // true while the writer has been asked to write the queued records
+    private boolean accepting; // true while journaling a manager's changes
+
+    // the journal; only used by the writer thread while attached
+    private FileChannel journalChannel;
+    private OutputStream journalOut;
+    private long journalSize;
+    private volatile boolean journalFailed; // true once a write failed, until the next full save
+
+    // EFFECTS: constructs a store for the snapshot at snapshotPath with the default compaction threshold
+    public JournalStore(String snapshotPath) {
+        this(snapshotPath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    // EFFECTS: constructs a store for the snapshot at snapshotPath whose journal is compacted into
+    //          the snapshot once it reaches compactionThreshold bytes, forcing data to disk
+    public JournalStore(String snapshotPath, long compactionThreshold) {
+        this(snapshotPath, compactionThreshold, Durability.DATA);
+    }
+
+    // EFFECTS: constructs a store for the snapshot at snapshotPath whose journal is compacted into
+    //          the snapshot once it reaches compactionThreshold bytes, making every journal record
+    //          and snapshot as durable as durability asks
+    public JournalStore(String snapshotPath, long compactionThreshold, Durability durability) {
+        this(snapshotPath, compactionThreshold, durability, SnapshotFormat.JSON);
+    }
+
+    // EFFECTS: constructs a store as above that writes new snapshots in the given format; an existing
+    //          snapshot is read in whichever format it is stored, so switching formats converts it on
+    //          the next full save or compaction
+    public JournalStore(String snapshotPath, long compactionThreshold, Durability durability,
+                        SnapshotFormat format) {
+        this.snapshot = Paths.get(snapshotPath);
+        this.journal = Paths.get(snapshotPath + ".journal");
+        this.compacting = Paths.get(snapshotPath + ".journal.compacting");
+        this.compacted = Paths.get(snapshotPath + ".journal.compacted");
+        this.snapshotNext = Paths.get(snapshotPath + ".next");
+        this.resetMarker = Paths.get(snapshotPath + ".reset");
+        this.compactionThreshold = compactionThreshold;
+        this.durability = durability;
+        this.format = format;
+        this.compactor = daemonExecutor("journal-compactor");
+        this.writer = daemonExecutor("journal-writer");
+    }
+
+    // EFFECTS: returns an executor running tasks one at a time on a daemon thread with the given name
+    private static ExecutorService daemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the snapshot and replays the journal on top of it, returns the resulting manager
+    //          and starts journaling its changes; a missing snapshot loads as no courses.
+    //          Throws IOException if the files cannot be read.
+    public CourseManager load() throws IOException {
+        return load(false, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: as load(), except that only the course index of a binary snapshot is read: each course
+    //          is built the first time the returned manager is asked for it, unless the journal
+    //          changes it. A JSON snapshot is loaded in full as with load().
+    public CourseManager loadLazily() throws IOException {
+        return load(true, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: as loadLazily(), except that the returned manager can be used from several threads at once
+    public CourseManager loadConcurrent() throws IOException {
+        return load(true, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads the manager as described for load(), loadLazily() and loadConcurrent()
+    private CourseManager load(boolean lazily, boolean concurrent) throws IOException {
+        detach();
+        awaitCompaction();
+        releaseSnapshot();
+        recover();
+
+        JournalReplay replay = replaySnapshot(lazily);
+        if (Files.exists(compacting)) {
+            replay.apply(compacting);
+        }
+        long validJournal = Files.exists(journal) ? replay.apply(journal) : 0;
+        truncateJournal(validJournal);
+
+        CourseManager manager = CourseManager.fromIndex(replay.toIndex(), concurrent);
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.PERSISTENCE, EventLevel.INFO)) {
+            log.logEvent(new Event("Loaded {} course(s) from {} and {} journal record(s).",
+                    manager.getCourseNames().size(), snapshot, replay.getRecordCount()));
+        }
+        attach(manager);
+        if (Files.exists(compacting)) {
+            startCompaction();
+        }
+        return manager;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes manager's current state durable. If manager is the one this store is journaling,
+    //          this waits for the queued records to be written; otherwise, or if writing the journal
+    //          failed, a full snapshot is written, the journal is reset and manager's changes are
+    //          journaled from then on. Throws IOException if writing fails, or if a journal write or
+    //          background compaction failed since the last save.
+    public void save(CourseManager manager) throws IOException {
+        if (manager == attached) {
+            awaitWritten();
+        }
+        if (manager != attached || journalFailed) {
+            detach();
+            awaitCompaction();
+            writeSnapshot(manager.getCourses(), snapshotNext);
+            Files.createFile(resetMarker);
+            SafeFiles.syncDirectory(resetMarker, durability);
+            releaseSnapshot();
+            finishReset();
+            attach(manager);
+        }
+        IOException error = pendingError;
+        pendingError = null;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops journaling, closes the journal and the snapshot and waits for any running compaction
+    public void close() throws IOException {
+        detach();
+        awaitCompaction();
+        releaseSnapshot();
+        compactor.shutdown();
+        writer.shutdown();
+    }
+
+    // EFFECTS: returns the size of the records queued for the journal but not yet written to it
+    public long getUnwrittenBytes() {
+        synchronized (pending) {
+            return unwrittenBytes;
+        }
+    }
+
+    // EFFECTS: returns the journal file's path
+    public Path getJournalPath() {
+        return journal;
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        append(JournalReplay.COURSE_ADDED, course, out -> { });
+    }
+
+    @Override
+    public void courseRemoved(Course course) {
+        append(JournalReplay.COURSE_REMOVED, course, out -> { });
+    }
+
+    @Override
+    public void topicAdded(Course course, Topic topic) {
+        append(JournalReplay.TOPIC_ADDED, course, out -> writeTopic(out, topic));
+    }
+
+    @Override
+    public void topicInserted(Course course, int index, Topic topic) {
+        append(JournalReplay.TOPIC_INSERTED, course, out -> {
+            BinaryIO.writeVarInt(out, index);
+            writeTopic(out, topic);
+        });
+    }
+
+    @Override
+    public void topicRemoved(Course course, int index, Topic topic) {
+        append(JournalReplay.TOPIC_REMOVED_AT, course, out -> BinaryIO.writeVarInt(out, index));
+    }
+
+    @Override
+    public void objectiveAdded(Course course, int topicIndex, LessonObjective objective) {
+        append(JournalReplay.OBJECTIVE_ADDED, course, out -> {
+            BinaryIO.writeVarInt(out, topicIndex);
+            BinaryIO.writeString(out, objective.getDescription());
+        });
+    }
+
+    @Override
+    public void objectiveRemoved(Course course, int topicIndex, LessonObjective objective) {
+        append(JournalReplay.OBJECTIVE_REMOVED, course, out -> BinaryIO.writeVarInt(out, topicIndex));
+    }
+
+    @Override
+    public void masteryChanged(Course course, int topicIndex, int objectiveIndex, LessonObjective objective) {
+        append(JournalReplay.MASTERY_CHANGED, course, out -> {
+            BinaryIO.writeVarInt(out, topicIndex);
+            BinaryIO.writeVarInt(out, objectiveIndex);
+            out.writeBoolean(objective.isMastered());
+        });
+    }
+
+    // EFFECTS: writes topic with all of its objectives
+    private static void writeTopic(DataOutputStream out, Topic topic) throws IOException {
+        BinaryIO.writeString(out, topic.getName());
+        out.writeDouble(topic.getConfidenceLevel());
+        List<LessonObjective> objectives = topic.getLessonObjectivesView();
+        BinaryIO.writeVarInt(out, objectives.size());
+        for (LessonObjective objective : objectives) {
+            BinaryIO.writeString(out, objective.getDescription());
+            out.writeBoolean(objective.isMastered());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes a record of type op about course, with the fields written by body, as a
+    //          checksummed frame and queues it for the writer, without waiting for it to be written.
+    //          Only the queueing is done under a lock, so a concurrent CourseManager can report changes
+    //          to different courses from several threads.
+    private void append(int op, Course course, RecordBody body) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            DataOutputStream record = new DataOutputStream(payload);
+            record.writeByte(op);
+            BinaryIO.writeString(record, course.getName());
+            body.write(record);
+            BinaryIO.writeFrame(new DataOutputStream(frame), payload.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode a journal record in memory", e);
+        }
+        synchronized (pending) {
+            if (!accepting) {
+                return;
+            }
+            pending.writeBytes(frame.toByteArray());
+            queued++;
+            unwrittenBytes += frame.size();
+            if (!writing) {
+                writing = true;
+                writer.execute(this::writeQueued);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the writer thread, writes the queued records in batches until none are left,
+    //          counting each batch as written once it has been forced
+    private void writeQueued() {
+        while (true) {
+            byte[] batch;
+            long upTo;
+            synchronized (pending) {
+                if (pending.size() == 0) {
+                    writing = false;
+                    pending.notifyAll();
+                    return;
+                }
+                batch = pending.toByteArray();
+                pending.reset();
+                upTo = queued;
+            }
+            writeBatch(batch);
+            synchronized (pending) {
+                written = upTo;
+                unwrittenBytes -= batch.length;
+                pending.notifyAll();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends batch to the journal, forces it to disk once unless durability is NONE, and
+    //          rotates the journal out for compaction once it passes the threshold. After a failed
+    //          write the error is reported by the next save, which then writes a full snapshot;
+    //          records are dropped until then.
+    private void writeBatch(byte[] batch) {
+        if (journalFailed) {
+            return;
+        }
+        try {
+            journalOut.write(batch);
+            journalOut.flush();
+            if (durability != Durability.NONE) {
+                journalChannel.force(false);
+            }
+            journalSize += batch.length;
+            if (journalSize >= compactionThreshold && (compaction == null || compaction.isDone())) {
+                rotateJournal();
+            }
+        } catch (IOException e) {
+            pendingError = e;
+            journalFailed = true;
+        }
+    }
+
+    // EFFECTS: waits until every record queued so far has been written
+    private void awaitWritten() throws IOException {
+        synchronized (pending) {
+            long target = queued;
+            while (written < target) {
+                try {
+                    pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal", e);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the current journal aside for the compactor (unless an earlier compaction's
+    //          journal is still waiting) and starts a fresh journal
+    private void rotateJournal() throws IOException {
+        if (!Files.exists(compacting)) {
+            journalOut.close();
+            Files.move(journal, compacting);
+            openJournal();
+            SafeFiles.syncDirectory(journal, durability);
+        }
+        startCompaction();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: folds the rotated journal into the snapshot on the compactor thread
+    private void startCompaction() {
+        compaction = compactor.submit(() -> {
+            try {
+                JournalReplay replay = new JournalReplay(readSnapshot());
+                replay.apply(compacting);
+                writeSnapshot(replay.toCourses(), snapshotNext);
+                Files.move(compacting, compacted, StandardCopyOption.REPLACE_EXISTING);
+                SafeFiles.syncDirectory(compacted, durability);
+                releaseSnapshot();
+                SafeFiles.replace(snapshotNext, snapshot, durability, true);
+                Files.delete(compacted);
+            } catch (IOException e) {
+                pendingError = e;
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a running compaction to finish
+    private void awaitCompaction() throws IOException {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for journal compaction", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Journal compaction failed", e.getCause());
+        } finally {
+            compaction = null;
+        }
+    }
+
+    // EFFECTS: completes or discards a compaction or full save that was interrupted part way through
+    private void recover() throws IOException {
+        if (Files.exists(resetMarker)) {
+            finishReset();
+        }
+        if (Files.exists(compacted)) {
+            if (Files.exists(snapshotNext)) {
+                SafeFiles.replace(snapshotNext, snapshot, durability, true);
+            }
+            Files.delete(compacted);
+        }
+        Files.deleteIfExists(snapshotNext);
+    }
+
+    // REQUIRES: the reset marker exists
+    // EFFECTS: completes a full save: moves the new snapshot (if not moved yet) over the old one,
+    //          drops the journals that belonged to the old snapshot, then removes the marker
+    private void finishReset() throws IOException {
+        if (Files.exists(snapshotNext)) {
+            SafeFiles.replace(snapshotNext, snapshot, durability, true);
+        }
+        Files.deleteIfExists(compacting);
+        Files.deleteIfExists(journal);
+        Files.delete(resetMarker);
+        SafeFiles.syncDirectory(resetMarker, durability);
+    }
+
+    // EFFECTS: returns a replay starting from the snapshot file; if lazily and the snapshot is binary,
+    //          it starts from the snapshot's course index instead of its courses
+    private JournalReplay replaySnapshot(boolean lazily) throws IOException {
+        if (lazily && Files.exists(snapshot) && SnapshotFormat.detect(snapshot.toString()) == SnapshotFormat.BINARY) {
+            lazySnapshot = new SnapshotFile(snapshot.toString());
+            return JournalReplay.ofIndex(lazySnapshot.toIndex());
+        }
+        return new JournalReplay(readSnapshot());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the courses a lazy load has not built yet out of the snapshot file and closes it,
+    //          so that the file can be replaced
+    private void releaseSnapshot() throws IOException {
+        SnapshotFile lazy = lazySnapshot;
+        lazySnapshot = null;
+        if (lazy != null) {
+            lazy.release();
+        }
+    }
+
+    // EFFECTS: returns the courses in the snapshot file, or no courses if there is none yet
+    private List<Course> readSnapshot() throws IOException {
+        if (!Files.exists(snapshot)) {
+            return new ArrayList<>();
+        }
+        return SnapshotFormat.detect(snapshot.toString()).readCourses(snapshot.toString());
+    }
+
+    // EFFECTS: writes courses as a snapshot to path in this store's format
+    private void writeSnapshot(List<Course> courses, Path path) throws IOException {
+        format.write(courses, path.toString(), durability);
+    }
+
+    // EFFECTS: cuts a torn record off the end of the journal so new records follow valid ones
+    private void truncateJournal(long validLength) throws IOException {
+        if (Files.exists(journal) && Files.size(journal) > validLength) {
+            try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal for appending
+    private void openJournal() throws IOException {
+        journalChannel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        journalOut = new BufferedOutputStream(Channels.newOutputStream(journalChannel));
+        journalSize = journalChannel.size();
+    }
+
+    // MODIFIES: this, manager
+    // EFFECTS: starts journaling manager's changes
+    private void attach(CourseManager manager) throws IOException {
+        openJournal();
+        journalFailed = false;
+        attached = manager;
+        synchronized (pending) {
+            accepting = true;
+        }
+        manager.addListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops journaling the attached manager, if any, waits for the records already queued to be
+    //          written and closes the journal
+    private void detach() {
+        if (attached == null) {
+            return;
+        }
+        attached.removeListener(this);
+        attached = null;
+        synchronized (pending) {
+            accepting = false;
+        }
+        try {
+            awaitWritten();
+            journalOut.close();
+        } catch (IOException e) {
+            pendingError = e;
+        }
+    }
+
+    // Writes the type-specific fields of one journal record
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
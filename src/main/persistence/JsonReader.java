@@ -1,22 +1,24 @@
 package persistence;
 
 import model.Course;
+import model.Event;
+import model.EventCategory;
+import model.EventLevel;
+import model.EventLog;
 import model.LessonObjective;
 import model.Topic;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
-
-import org.json.*;
 
 // Referenced from the JsonSerialization Demo
 // https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo
-// Represents a reader that reads the StudyTrack state from JSON data stored in file
+// Represents a reader that reads the StudyTrack state from JSON data stored in file.
+// The file is tokenized as a stream and the model is built while parsing, so no JSON DOM
+// or full copy of the file text is held in memory.
 public class JsonReader {
     private String source;
 
@@ -25,88 +27,131 @@ public class JsonReader {
         this.source = source;
     }
 
-    // EFFECTS: reads list of courses from file and returns it;
-    // throws IOException if an error occurs reading data from file
+    // EFFECTS: reads list of courses from file and returns it, logging a single load event;
+    // throws IOException if an error occurs reading data from file or the data is malformed
     public List<Course> read() throws IOException {
-        String jsonData = readFile(source);
-        JSONArray jsonArray = new JSONArray(jsonData);
-        return parseCourses(jsonArray);
+        List<Course> courses = readCourses();
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.PERSISTENCE, EventLevel.INFO)) {
+            log.logEvent(new Event("Loaded {} course(s) from {}.", courses.size(), source));
+        }
+        return courses;
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(contentBuilder::append);
+    // EFFECTS: reads list of courses from file and returns it without logging any event;
+    // throws IOException if an error occurs reading data from file or the data is malformed
+    List<Course> readCourses() throws IOException {
+        try (JsonTokenizer tokenizer = new JsonTokenizer(Files.newByteChannel(Paths.get(source)))) {
+            List<Course> courses = parseCourses(tokenizer);
+            tokenizer.endDocument();
+            return courses;
         }
-
-        return contentBuilder.toString();
     }
 
-    // EFFECTS: parses list of courses from JSON array and returns it
-    private List<Course> parseCourses(JSONArray jsonArray) {
+    // EFFECTS: parses list of courses from a JSON array and returns it
+    private List<Course> parseCourses(JsonTokenizer tokenizer) throws IOException {
         List<Course> courses = new ArrayList<>();
-        for (Object obj : jsonArray) {
-            JSONObject jsonCourse = (JSONObject) obj;
-            courses.add(parseCourse(jsonCourse));
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            courses.add(parseCourse(tokenizer));
         }
         return courses;
     }
 
-    // EFFECTS: parses a course from JSON object and returns it
-    private Course parseCourse(JSONObject jsonObject) {
-        String name = jsonObject.getString("name");
-        Course course = new Course(name);
-        JSONArray topicsArray = jsonObject.getJSONArray("topics");
-    
-        for (Object obj : topicsArray) {
-            JSONObject jsonTopic = (JSONObject) obj;
-            Topic topic = parseTopic(jsonTopic);
-            
-            course.addTopicObject(topic);  
+    // EFFECTS: parses a course from a JSON object and returns it
+    private Course parseCourse(JsonTokenizer tokenizer) throws IOException {
+        String name = null;
+        List<Topic> topics = null;
+
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            String key = tokenizer.nextName();
+            if (key.equals("name")) {
+                name = tokenizer.nextString();
+            } else if (key.equals("topics")) {
+                topics = parseTopics(tokenizer);
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+
+        return new Course(require(tokenizer, name, "name"), require(tokenizer, topics, "topics"));
+    }
+
+    // EFFECTS: parses list of topics from a JSON array and returns it
+    private List<Topic> parseTopics(JsonTokenizer tokenizer) throws IOException {
+        List<Topic> topics = new ArrayList<>();
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            topics.add(parseTopic(tokenizer));
         }
-    
-        return course;
+        return topics;
     }
-    
-
-    // EFFECTS: parses a topic from JSON object and returns it
-    private Topic parseTopic(JSONObject jsonObject) {
-        String name = jsonObject.getString("name");
-        Topic topic = new Topic(name);
-    
-        JSONArray objectivesArray = jsonObject.getJSONArray("lessonObjectives");
-        for (int i = 0; i < objectivesArray.length(); i++) {
-            JSONObject jsonObjective = objectivesArray.getJSONObject(i);
-            LessonObjective lessonObjective = parseLessonObjective(jsonObjective);
-            
-            
-            topic.addLessonObjective(lessonObjective.getDescription());
-    
-            
-            if (lessonObjective.isMastered()) {
-                topic.markObjectiveAsMastered(i);  
+
+    // EFFECTS: parses a topic from a JSON object and returns it; a missing confidence level
+    //          is computed from the mastered objectives
+    private Topic parseTopic(JsonTokenizer tokenizer) throws IOException {
+        String name = null;
+        List<LessonObjective> objectives = null;
+        Double confidenceLevel = null;
+
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            String key = tokenizer.nextName();
+            if (key.equals("name")) {
+                name = tokenizer.nextString();
+            } else if (key.equals("lessonObjectives")) {
+                objectives = parseLessonObjectives(tokenizer);
+            } else if (key.equals("confidenceLevel")) {
+                confidenceLevel = tokenizer.nextDouble();
+            } else {
+                tokenizer.skipValue();
             }
         }
-    
-        
-        double confidenceLevel = jsonObject.getDouble("confidenceLevel");
-        topic.setConfidenceLevel(confidenceLevel);
-    
+
+        Topic topic = new Topic(require(tokenizer, name, "name"), require(tokenizer, objectives, "lessonObjectives"));
+        if (confidenceLevel != null) {
+            topic.setConfidenceLevel(confidenceLevel);
+        }
         return topic;
     }
-    
-    private LessonObjective parseLessonObjective(JSONObject jsonObject) {
-        String description = jsonObject.getString("description");
-        boolean isMastered = jsonObject.getBoolean("isMastered");
-
-        LessonObjective objective = new LessonObjective(description);
-        if (isMastered) {
-            objective.markAsMastered();
+
+    // EFFECTS: parses list of lesson objectives from a JSON array and returns it
+    private List<LessonObjective> parseLessonObjectives(JsonTokenizer tokenizer) throws IOException {
+        List<LessonObjective> objectives = new ArrayList<>();
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            objectives.add(parseLessonObjective(tokenizer));
+        }
+        return objectives;
+    }
+
+    // EFFECTS: parses a lesson objective from a JSON object and returns it
+    private LessonObjective parseLessonObjective(JsonTokenizer tokenizer) throws IOException {
+        String description = null;
+        Boolean isMastered = null;
+
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            String key = tokenizer.nextName();
+            if (key.equals("description")) {
+                description = tokenizer.nextString();
+            } else if (key.equals("isMastered")) {
+                isMastered = tokenizer.nextBoolean();
+            } else {
+                tokenizer.skipValue();
+            }
         }
 
-        return objective;
+        return new LessonObjective(require(tokenizer, description, "description"),
+                require(tokenizer, isMastered, "isMastered"));
+    }
+
+    // EFFECTS: returns value, or throws IOException naming key if the value was missing
+    private static <T> T require(JsonTokenizer tokenizer, T value, String key) throws IOException {
+        if (value == null) {
+            throw tokenizer.error("Missing '" + key + "'");
+        }
+        return value;
     }
-        
 }
@@ -0,0 +1,191 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+// Represents a writer that emits JSON tokens straight to an underlying character stream,
+// so Writable objects can serialize themselves without building intermediate JSONObjects
+public class JsonStreamWriter implements Closeable {
+    private static final int INDENT = 4;
+
+    private final Writer out;
+    private final boolean prettyPrint;
+    private boolean[] hasMembers = new boolean[16]; // whether each open object/array has a member yet
+    private int depth;
+    private boolean afterName;
+
+    // EFFECTS: constructs writer emitting to out, indenting nested values when prettyPrint is true
+    public JsonStreamWriter(Writer out, boolean prettyPrint) {
+        this.out = out;
+        this.prettyPrint = prettyPrint;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the '{' that opens an object
+    public JsonStreamWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the '}' that closes the current object
+    public JsonStreamWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the '[' that opens an array
+    public JsonStreamWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the ']' that closes the current array
+    public JsonStreamWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    // REQUIRES: the innermost open value is an object
+    // MODIFIES: this
+    // EFFECTS: writes the name of the next object member
+    public JsonStreamWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        out.write(prettyPrint ? ": " : ":");
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value
+    public JsonStreamWriter value(String value) throws IOException {
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a boolean value
+    public JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value, dropping the fraction of whole numbers as org.json does;
+    //          throws IllegalArgumentException if value is NaN or infinite
+    public JsonStreamWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not allow non-finite numbers");
+        }
+        beforeValue();
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.write(Long.toString((long) value));
+        } else {
+            out.write(Double.toString(value));
+        }
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes any buffered output to the underlying stream
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening bracket of a nested object or array
+    private JsonStreamWriter open(char bracket) throws IOException {
+        beforeValue();
+        out.write(bracket);
+        depth++;
+        if (depth == hasMembers.length) {
+            hasMembers = Arrays.copyOf(hasMembers, depth * 2);
+        }
+        hasMembers[depth] = false;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the closing bracket of the innermost object or array
+    private JsonStreamWriter close(char bracket) throws IOException {
+        boolean empty = !hasMembers[depth];
+        depth--;
+        if (!empty) {
+            newline();
+        }
+        out.write(bracket);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator and indentation needed before the next value or member name
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        if (hasMembers[depth]) {
+            out.write(',');
+        }
+        hasMembers[depth] = true;
+        newline();
+    }
+
+    // EFFECTS: starts a new line indented to the current depth when pretty-printing
+    private void newline() throws IOException {
+        if (prettyPrint) {
+            out.write('\n');
+            for (int i = 0; i < depth * INDENT; i++) {
+                out.write(' ');
+            }
+        }
+    }
+
+    // EFFECTS: writes value as a quoted JSON string, escaping characters as needed
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    writeChar(c);
+            }
+        }
+        out.write('"');
+    }
+
+    // EFFECTS: writes c, using a unicode escape for other control characters
+    private void writeChar(char c) throws IOException {
+        if (c < 0x20) {
+            out.write(String.format("\\u%04x", (int) c));
+        } else {
+            out.write(c);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// Represents a pull tokenizer that reads JSON values one at a time from a byte channel,
+// so callers can build their model while parsing instead of materializing a JSON DOM
+class JsonTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder scratch = new StringBuilder();
+    private int position;
+    private int limit;
+    private long offset;
+    private boolean first; // true until the current object or array has had a member
+
+    // EFFECTS: constructs tokenizer decoding UTF-8 text from channel
+    JsonTokenizer(ReadableByteChannel channel) {
+        this.reader = Channels.newReader(channel, StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the '{' that opens an object; throws IOException if something else is next
+    void beginObject() throws IOException {
+        expect('{');
+        first = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the '[' that opens an array; throws IOException if something else is next
+    void beginArray() throws IOException {
+        expect('[');
+        first = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the current object or array has another member, consuming the
+    //          separating comma; returns false and consumes the closing bracket otherwise. Throws
+    //          IOException if a comma comes before the first member or is missing between two.
+    boolean hasNext() throws IOException {
+        char c = peek();
+        if (c == '}' || c == ']') {
+            read();
+            first = false; // the container just closed was a member of the one around it
+            return false;
+        }
+        if (first) {
+            if (c == ',') {
+                throw error("Unexpected ','");
+            }
+            first = false;
+        } else {
+            expect(',');
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads an object member name and its ':' separator and returns the name
+    String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a string value and returns it; throws IOException if the next value is not a string
+    String nextString() throws IOException {
+        expect('"');
+        scratch.setLength(0);
+        for (char c = read(); c != '"'; c = read()) {
+            scratch.append(c == '\\' ? readEscape() : c);
+        }
+        return scratch.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number value and returns it; throws IOException if the next value is not a number
+    double nextDouble() throws IOException {
+        peek();
+        scratch.setLength(0);
+        while (fill() && isNumberChar(buffer[position])) {
+            scratch.append(buffer[position++]);
+            offset++;
+        }
+        try {
+            return Double.parseDouble(scratch.toString());
+        } catch (NumberFormatException e) {
+            throw error("Expected a number");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a boolean value and returns it; throws IOException if the next value is not a boolean
+    boolean nextBoolean() throws IOException {
+        char c = peek();
+        if (c == 't') {
+            expectLiteral("true");
+            return true;
+        }
+        if (c == 'f') {
+            expectLiteral("false");
+            return false;
+        }
+        throw error("Expected a boolean");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and discards the next value, including any nested objects or arrays
+    void skipValue() throws IOException {
+        char c = peek();
+        if (c == '{' || c == '[') {
+            read();
+            first = true;
+            while (hasNext()) {
+                if (c == '{') {
+                    nextName();
+                }
+                skipValue();
+            }
+        } else if (c == '"') {
+            nextString();
+        } else if (c == 't' || c == 'f') {
+            nextBoolean();
+        } else if (c == 'n') {
+            expectLiteral("null");
+        } else {
+            nextDouble();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: throws IOException if anything other than whitespace remains in the input
+    void endDocument() throws IOException {
+        skipWhitespace();
+        if (fill()) {
+            throw error("Unexpected trailing content");
+        }
+    }
+
+    // EFFECTS: returns an IOException describing a malformed document at the current offset
+    IOException error(String message) {
+        return new IOException(message + " at character " + offset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without consuming it
+    private char peek() throws IOException {
+        skipWhitespace();
+        if (!fill()) {
+            throw error("Unexpected end of input");
+        }
+        return buffer[position];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character
+    private char read() throws IOException {
+        if (!fill()) {
+            throw error("Unexpected end of input");
+        }
+        offset++;
+        return buffer[position++];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and consumes the expected character, or throws IOException
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        read();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the characters of literal, or throws IOException if they do not match
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw error("Expected '" + literal + "'");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the rest of an escape sequence whose backslash was already read and
+    //          returns the character it stands for
+    private char readEscape() throws IOException {
+        char c = read();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                return readUnicodeEscape();
+            default:
+                return c;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes four hex digits and returns the character they encode
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes whitespace characters
+    private void skipWhitespace() throws IOException {
+        while (fill() && Character.isWhitespace(buffer[position])) {
+            position++;
+            offset++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the buffer if it is exhausted; returns false at end of input
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        limit = reader.read(buffer, 0, BUFFER_SIZE);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if c can appear in a JSON number
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+}
@@ -1,46 +1,107 @@
 package persistence;
 
 import model.Course;
-import org.json.JSONArray;
+import model.CourseVersion;
+import model.ModelVersion;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 
+// Represents a writer that streams the JSON representation of the courses to file without first
+// building a JSONArray or the whole document as a String. The JSON goes to a sibling temp file
+// that only replaces the destination once it is complete (and forced to disk, depending on the
+// durability), so a crash mid-save never leaves a truncated data file. The previous generation
+// of the destination is kept at destination + ".bak".
 public class JsonWriter {
-    private PrintWriter writer;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private JsonStreamWriter writer;
+    private FileOutputStream fileOut;
     private String destination;
+    private boolean prettyPrint;
+    private Durability durability;
+    private boolean complete;
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write indented JSON to destination file, forcing data to disk
     public JsonWriter(String destination) {
+        this(destination, true);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, indenting the JSON if prettyPrint is true
+    //          and forcing data to disk
+    public JsonWriter(String destination, boolean prettyPrint) {
+        this(destination, prettyPrint, Durability.DATA);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, indenting the JSON if prettyPrint is true
+    //          and making the save as durable as durability asks
+    public JsonWriter(String destination, boolean prettyPrint, Durability durability) {
         this.destination = destination;
+        this.prettyPrint = prettyPrint;
+        this.durability = durability;
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot be opened for writing
+    // EFFECTS: opens writer on a temp file next to destination;
+    //          throws FileNotFoundException if it cannot be opened for writing
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+        fileOut = new FileOutputStream(destination + TEMP_SUFFIX);
+        OutputStream out = new BufferedOutputStream(fileOut, BUFFER_SIZE);
+        writer = new JsonStreamWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), prettyPrint);
+        complete = false;
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of the courses list to file
-    public void write(List<Course> courses) {
-        JSONArray jsonCourses = new JSONArray();
-    
+    // EFFECTS: writes JSON representation of the courses list to the temp file, one token at a time;
+    //          throws IOException if the data cannot be written
+    public void write(List<Course> courses) throws IOException {
+        writer.beginArray();
         for (Course course : courses) {
-            jsonCourses.put(course.toJson()); 
+            course.writeJson(writer);
         }
-    
-        saveToFile(jsonCourses.toString(4));  
+        writer.endArray();
+        writer.flush();
+        complete = true;
     }
 
+    // REQUIRES: every course in version is loaded
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: writes JSON representation of the courses in version to the temp file, exactly as
+    //          write(List<Course>) writes the live courses. Needs no lock, since the version cannot
+    //          change while it is written. Throws IOException if the data cannot be written
+    public void write(ModelVersion version) throws IOException {
+        writer.beginArray();
+        for (CourseVersion course : version.getCourses()) {
+            course.writeJson(writer);
+        }
+        writer.endArray();
+        writer.flush();
+        complete = true;
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: closes writer. If the courses were written completely, forces them to disk as the
+    //          durability asks and moves the temp file over destination, keeping the previous file
+    //          as a backup; otherwise discards the temp file and leaves destination untouched.
+    //          Throws IOException if the data cannot be made durable or moved into place.
+    public void close() throws IOException {
+        Path temp = Paths.get(destination + TEMP_SUFFIX);
+        try {
+            writer.flush();
+            if (complete && durability != Durability.NONE) {
+                fileOut.getChannel().force(false);
+            }
+        } finally {
+            writer.close();
+        }
+        if (complete) {
+            SafeFiles.replace(temp, Paths.get(destination), durability, true);
+        } else {
+            Files.deleteIfExists(temp);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package persistence;
+
+// Represents what a RollingEventWriter does with an event that arrives while its queue is full
+public enum OverflowPolicy {
+    // The logging thread waits for room in the queue
+    BLOCK,
+    // The event is dropped and counted, so the logging thread never waits
+    DROP
+}
@@ -0,0 +1,118 @@
+package persistence;
+
+import model.Event;
+import model.EventKind;
+import model.EventSink;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Represents a reader that replays the events written by a RollingEventWriter, oldest file first.
+// A file cut short by a crash is read up to its last whole event.
+public class RollingEventReader {
+    private static final int MAX_EVENT_SIZE = 1024 * 1024;
+    private static final EventKind[] KINDS = EventKind.values();
+
+    private Path directory;
+    private String baseName;
+
+    // EFFECTS: constructs reader for the <baseName>-<sequence>.log files in directory
+    public RollingEventReader(Path directory, String baseName) {
+        this.directory = directory;
+        this.baseName = baseName;
+    }
+
+    // EFFECTS: returns every event in the files, oldest first;
+    //          throws IOException if a file cannot be read or is not an event log
+    public List<Event> read() throws IOException {
+        List<Event> events = new ArrayList<>();
+        replay(events::add);
+        return events;
+    }
+
+    // EFFECTS: hands every event in the files to sink, oldest first, without holding them in memory;
+    //          throws IOException if a file cannot be read or is not an event log
+    public void replay(EventSink sink) throws IOException {
+        for (Path file : listFiles(directory, baseName)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                checkHeader(in, file);
+                byte[] payload;
+                while ((payload = BinaryIO.readFrame(in, MAX_EVENT_SIZE)) != null) {
+                    sink.accept(readEvent(new DataInputStream(new ByteArrayInputStream(payload))));
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns the path of the file with the given sequence number
+    static Path fileFor(Path directory, String baseName, int sequence) {
+        return directory.resolve(String.format("%s-%06d%s", baseName, sequence, RollingEventWriter.SUFFIX));
+    }
+
+    // EFFECTS: returns the sequence number in the name of file
+    static int sequenceOf(Path file, String baseName) {
+        Matcher matcher = patternFor(baseName).matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    // EFFECTS: returns the event log files in directory, in order of sequence number;
+    //          no files if directory does not exist
+    static List<Path> listFiles(Path directory, String baseName) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        Pattern pattern = patternFor(baseName);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> pattern.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingInt(file -> sequenceOf(file, baseName)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // EFFECTS: returns the pattern matching the names of the event log files
+    private static Pattern patternFor(String baseName) {
+        return Pattern.compile(Pattern.quote(baseName) + "-(\\d+)" + Pattern.quote(RollingEventWriter.SUFFIX));
+    }
+
+    // EFFECTS: checks the magic bytes and version at the start of file
+    private static void checkHeader(DataInputStream in, Path file) throws IOException {
+        byte[] header = in.readNBytes(RollingEventWriter.MAGIC.length + 1);
+        if (header.length == 0) {
+            return; // created but nothing written before a crash
+        }
+        if (header.length != RollingEventWriter.MAGIC.length + 1
+                || !Arrays.equals(Arrays.copyOf(header, RollingEventWriter.MAGIC.length), RollingEventWriter.MAGIC)
+                || header[RollingEventWriter.MAGIC.length] != RollingEventWriter.VERSION) {
+            throw new IOException("Not an event log file: " + file);
+        }
+    }
+
+    // EFFECTS: reads one event written by RollingEventWriter.writeEvent
+    private static Event readEvent(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= KINDS.length) {
+            throw new IOException("Unknown event kind " + ordinal);
+        }
+        EventKind kind = KINDS[ordinal];
+        long timestamp = in.readLong();
+        int flags = in.readUnsignedByte();
+        String course = (flags & 1) != 0 ? BinaryIO.readString(in) : null;
+        String topic = (flags & 2) != 0 ? BinaryIO.readString(in) : null;
+        String objective = (flags & 4) != 0 ? BinaryIO.readString(in) : null;
+        String description = kind == EventKind.MESSAGE ? BinaryIO.readString(in) : null;
+        return Event.restore(timestamp, kind, course, topic, objective, (flags & 8) != 0, (flags & 16) != 0,
+                description);
+    }
+}
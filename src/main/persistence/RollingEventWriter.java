@@ -0,0 +1,257 @@
+package persistence;
+
+import model.Event;
+import model.EventKind;
+import model.EventSink;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Represents a sink that writes events to rolling log files in a directory. Events are queued and a
+// background thread writes them in batches, so logging never waits for the disk. The queue is
+// bounded: when it is full, an overflow policy decides whether logging threads wait for room or drop
+// the event; the number dropped is written to the log once there is room.
+// A new file is started once the current one reaches a size or age limit, and the oldest files are
+// deleted beyond a file count limit. Files are named <baseName>-<sequence>.log and hold, after the
+// magic "STRE" and a version byte, one frame per event (see BinaryIO.writeFrame) so that a file cut
+// short by a crash still reads back up to its last whole event. RollingEventReader reads them back.
+public class RollingEventWriter implements EventSink, Closeable {
+    static final byte[] MAGIC = {'S', 'T', 'R', 'E'};
+    static final int VERSION = 1;
+    static final String SUFFIX = ".log";
+    public static final long DEFAULT_MAX_FILE_BYTES = 1024 * 1024;
+    public static final long DEFAULT_MAX_FILE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    public static final int DEFAULT_MAX_FILES = 10;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 512;
+    private static final long POLL_MILLIS = 100;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final String baseName;
+    private final long maxFileBytes;
+    private final long maxFileMillis;
+    private final int maxFiles;
+    private final BlockingQueue<Event> queue;
+    private final OverflowPolicy overflow;
+    private final AtomicLong dropped = new AtomicLong();
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream record = new DataOutputStream(recordBuffer);
+    private Thread writer;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // the current file; only used by the writer thread
+    private DataOutputStream out;
+    private int sequence;
+    private long fileBytes;
+    private long fileOpenedAt;
+
+    // EFFECTS: constructs a writer of <baseName>-<sequence>.log files in directory with the default limits,
+    //          whose logging threads wait for room when the queue is full
+    public RollingEventWriter(Path directory, String baseName) {
+        this(directory, baseName, OverflowPolicy.BLOCK);
+    }
+
+    // EFFECTS: constructs a writer of <baseName>-<sequence>.log files in directory with the default limits,
+    //          handling events that arrive while the queue is full according to overflow
+    public RollingEventWriter(Path directory, String baseName, OverflowPolicy overflow) {
+        this(directory, baseName, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILE_MILLIS, DEFAULT_MAX_FILES,
+                DEFAULT_QUEUE_CAPACITY, overflow);
+    }
+
+    // REQUIRES: maxFileBytes > 0, maxFileMillis > 0, queueCapacity > 0
+    // EFFECTS: constructs a writer of <baseName>-<sequence>.log files in directory that starts a new file
+    //          once the current one holds maxFileBytes or is maxFileMillis old, keeps at most maxFiles
+    //          files (all of them if maxFiles <= 0), queues at most queueCapacity events and handles
+    //          events that arrive while the queue is full according to overflow
+    public RollingEventWriter(Path directory, String baseName, long maxFileBytes, long maxFileMillis,
+                              int maxFiles, int queueCapacity, OverflowPolicy overflow) {
+        this.directory = directory;
+        this.baseName = baseName;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFileMillis = maxFileMillis;
+        this.maxFiles = maxFiles;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflow = overflow;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates directory if needed and starts the background writer, which continues the
+    //          numbering after any files already there; throws IOException if the directory cannot be made
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> existing = RollingEventReader.listFiles(directory, baseName);
+        Path last = existing.isEmpty() ? null : existing.get(existing.size() - 1);
+        sequence = last == null ? 0 : RollingEventReader.sequenceOf(last, baseName);
+        writer = new Thread(this::run, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues event for writing; if the queue is full, waits for room under the BLOCK policy
+    //          and drops and counts the event under the DROP policy.
+    //          Events arriving after close or after the writer failed are dropped and counted.
+    @Override
+    public void accept(Event event) {
+        if (closed || failure != null) { // nothing will drain the queue any more
+            dropped.incrementAndGet();
+            return;
+        }
+        if (queue.offer(event)) {
+            return;
+        }
+        try {
+            while (overflow == OverflowPolicy.BLOCK && !closed && failure == null) {
+                if (queue.offer(event, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.incrementAndGet();
+    }
+
+    // EFFECTS: returns the number of events dropped so far
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out every event queued so far, stops the writer and closes the current file;
+    //          throws IOException if writing failed at any point
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while closing the event log writer", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // EFFECTS: drains the queue in batches until closed and empty, then closes the current file
+    private void run() {
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Event first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                }
+                writeBatch(batch);
+                batch.clear();
+            }
+            closeFile();
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new IOException("Event log writer interrupted", e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the batch, preceded by a note of any events dropped since the last batch, to the
+    //          current file, rolling it first if it is full or old, and flushes it
+    private void writeBatch(List<Event> batch) throws IOException {
+        long droppedNow = dropped.getAndSet(0);
+        if (droppedNow > 0) {
+            batch.add(0, new Event("Dropped {} event(s) while the event log queue was full.", droppedNow));
+        }
+        if (batch.isEmpty()) {
+            if (out != null && isTooOld()) {
+                closeFile();
+            }
+            return;
+        }
+        for (Event event : batch) {
+            if (out == null || fileBytes >= maxFileBytes || isTooOld()) {
+                rollFile();
+            }
+            writeEvent(event);
+        }
+        out.flush();
+    }
+
+    // EFFECTS: returns true if the current file was started maxFileMillis or more ago
+    private boolean isTooOld() {
+        return System.currentTimeMillis() - fileOpenedAt >= maxFileMillis;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes one event as a frame to the current file
+    private void writeEvent(Event event) throws IOException {
+        recordBuffer.reset();
+        record.writeByte(event.getKind().ordinal());
+        record.writeLong(event.getTimestamp());
+        int flags = (event.getCourse() != null ? 1 : 0) | (event.getTopic() != null ? 2 : 0)
+                | (event.getObjective() != null ? 4 : 0) | (event.getOldValue() ? 8 : 0)
+                | (event.getNewValue() ? 16 : 0);
+        record.writeByte(flags);
+        writeIfPresent(event.getCourse());
+        writeIfPresent(event.getTopic());
+        writeIfPresent(event.getObjective());
+        if (event.getKind() == EventKind.MESSAGE) {
+            BinaryIO.writeString(record, event.getDescription());
+        }
+        byte[] payload = recordBuffer.toByteArray();
+        BinaryIO.writeFrame(out, payload);
+        fileBytes += BinaryIO.frameSize(payload.length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value to the record buffer if it is not null
+    private void writeIfPresent(String value) throws IOException {
+        if (value != null) {
+            BinaryIO.writeString(record, value);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the current file, starts the next one and deletes the oldest files beyond maxFiles
+    private void rollFile() throws IOException {
+        closeFile();
+        sequence++;
+        Path file = RollingEventReader.fileFor(directory, baseName, sequence);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        fileBytes = MAGIC.length + 1;
+        fileOpenedAt = System.currentTimeMillis();
+        if (maxFiles > 0) {
+            List<Path> files = RollingEventReader.listFiles(directory, baseName);
+            for (int i = 0; i < files.size() - maxFiles; i++) {
+                Files.deleteIfExists(files.get(i));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes and closes the current file, if any
+    private void closeFile() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Helpers for replacing data files so that a crash leaves either the old or the new file in place
+final class SafeFiles {
+    static final String BACKUP_SUFFIX = ".bak";
+
+    private SafeFiles() {
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: moves the complete file at source over target, atomically where the file system
+    //          supports it. If keepBackup, target's previous contents are first kept at
+    //          target + ".bak". Forces the directory entry to disk for DATA_AND_DIRECTORY.
+    static void replace(Path source, Path target, Durability durability, boolean keepBackup) throws IOException {
+        if (keepBackup && Files.exists(target)) {
+            keepBackup(target);
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target, durability);
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: forces the directory holding file to disk if durability is DATA_AND_DIRECTORY,
+    //          so renames and creations within it survive a crash
+    static void syncDirectory(Path file, Durability durability) throws IOException {
+        if (durability != Durability.DATA_AND_DIRECTORY) {
+            return;
+        }
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    // EFFECTS: returns the path where the previous generation of target is kept
+    static Path backupOf(Path target) {
+        return Paths.get(target.toString() + BACKUP_SUFFIX);
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: makes the backup of target hold target's current contents, as a hard link when
+    //          possible so no data is copied
+    private static void keepBackup(Path target) throws IOException {
+        Path backup = backupOf(target);
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, target);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
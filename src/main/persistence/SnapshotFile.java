@@ -0,0 +1,287 @@
+package persistence;
+
+import model.Course;
+import model.LazyCourse;
+import model.LessonObjective;
+import model.Topic;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Represents a binary snapshot file (see BinaryWriter) opened for reading. Opening it reads only the
+// header, trailer and catalog; a course's record is read from the file and decoded only when that
+// course is read. The file stays open until every course has been read or the snapshot is released;
+// releasing copies the records not read yet into memory, so the file can then be replaced or deleted
+// while the courses are still to be read.
+final class SnapshotFile {
+    // Largest count trusted for presizing lists before the data holding it has been checked
+    private static final int MAX_PRESIZE = 1024;
+
+    private final String source;
+    private final long size;
+    private final String[] strings;
+    private final String[] names;
+    private final long[] offsets;
+    private final double[] progress;
+    private final boolean[] read; // true once the course has been read
+    private final byte[][] copies; // payloads of the unread records, once released
+    private final IOException[] failures; // why an unread record could not be copied, once released
+    private int unread;
+    private FileChannel channel; // null once every course has been read or the snapshot is released
+
+    // EFFECTS: opens the binary snapshot at source and reads its catalog;
+    //          throws IOException if it cannot be read or is not a valid binary snapshot
+    SnapshotFile(String source) throws IOException {
+        this.source = source;
+        this.channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            checkHeader();
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(readCatalog()))) {
+                strings = new String[BinaryIO.readVarInt(in)];
+                for (int i = 0; i < strings.length; i++) {
+                    strings[i] = BinaryIO.readString(in);
+                }
+                int count = BinaryIO.readVarInt(in);
+                names = new String[count];
+                offsets = new long[count];
+                progress = new double[count];
+                for (int i = 0; i < count; i++) {
+                    names[i] = lookup(in);
+                    offsets[i] = in.readLong();
+                    progress[i] = in.readDouble();
+                }
+            } catch (EOFException e) {
+                throw new IOException("Corrupt catalog in binary snapshot " + source, e);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        read = new boolean[names.length];
+        copies = new byte[names.length][];
+        failures = new IOException[names.length];
+        unread = names.length;
+        closeIfDone();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns every course, decoding all of the records, and closes the file
+    List<Course> readAll() throws IOException {
+        try {
+            List<Course> courses = new ArrayList<>(names.length);
+            for (int i = 0; i < names.length; i++) {
+                courses.add(readCourse(i));
+            }
+            return courses;
+        } finally {
+            close();
+        }
+    }
+
+    // EFFECTS: returns an index entry per course that decodes the course's record when it is loaded;
+    //          a record that turns out to be corrupt is reported as an UncheckedIOException
+    List<LazyCourse> toIndex() {
+        List<LazyCourse> index = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            int course = i;
+            index.add(new LazyCourse(names[i], progress[i], () -> {
+                try {
+                    return readCourse(course);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return index;
+    }
+
+    // REQUIRES: 0 <= i < number of courses
+    // MODIFIES: this
+    // EFFECTS: decodes and returns the course with catalog position i, closing the file once every
+    //          course has been read; throws IOException if the record cannot be read or is corrupt,
+    //          or if the course was already read before the snapshot was released
+    synchronized Course readCourse(int i) throws IOException {
+        byte[] payload = copies[i];
+        if (payload == null) {
+            if (failures[i] != null) {
+                throw new IOException("Record for course '" + names[i] + "' could not be read", failures[i]);
+            }
+            if (channel == null) {
+                throw new IOException("Binary snapshot " + source + " was released after reading '"
+                        + names[i] + "'");
+            }
+            payload = readFramed(offsets[i]);
+        }
+        Course course;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int count = BinaryIO.readVarInt(in);
+            List<Topic> topics = new ArrayList<>(Math.min(count, MAX_PRESIZE));
+            for (int j = 0; j < count; j++) {
+                topics.add(readTopic(in));
+            }
+            course = new Course(names[i], topics);
+        } catch (EOFException e) {
+            throw new IOException("Corrupt record for course '" + names[i] + "' in " + source, e);
+        }
+        if (!read[i]) {
+            read[i] = true;
+            copies[i] = null;
+            unread--;
+            closeIfDone();
+        }
+        return course;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the records of the courses not read yet into memory and closes the file, so
+    //          that it can be replaced; a record that cannot be copied is reported when it is read
+    synchronized void release() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < names.length; i++) {
+                if (!read[i]) {
+                    try {
+                        copies[i] = readFramed(offsets[i]);
+                    } catch (IOException e) {
+                        failures[i] = e;
+                    }
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file if every course has been read
+    private void closeIfDone() throws IOException {
+        if (unread == 0) {
+            close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file if it is still open
+    private synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // EFFECTS: checks the magic bytes and version at the start of the file
+    private void checkHeader() throws IOException {
+        if (size < BinaryWriter.HEADER_SIZE + BinaryWriter.TRAILER_SIZE) {
+            throw new IOException("Not a binary snapshot: " + source);
+        }
+        ByteBuffer header = readAt(0, BinaryWriter.MAGIC.length + 1);
+        byte[] magic = new byte[BinaryWriter.MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(magic, BinaryWriter.MAGIC)) {
+            throw new IOException("Not a binary snapshot: " + source);
+        }
+        int version = header.get();
+        if (version != BinaryWriter.VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + version);
+        }
+    }
+
+    // EFFECTS: returns the catalog bytes located by the trailer after checking their CRC32
+    private byte[] readCatalog() throws IOException {
+        long trailer = size - BinaryWriter.TRAILER_SIZE;
+        ByteBuffer fields = readAt(trailer, BinaryWriter.TRAILER_SIZE);
+        long offset = fields.getLong();
+        if (offset < BinaryWriter.HEADER_SIZE || offset > trailer || trailer - offset > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt trailer in binary snapshot " + source);
+        }
+        byte[] catalog = readAt(offset, (int) (trailer - offset)).array();
+        if (crcOf(catalog) != fields.getInt()) {
+            throw new IOException("Corrupt catalog in binary snapshot " + source);
+        }
+        return catalog;
+    }
+
+    // EFFECTS: returns the payload of the length- and CRC-framed record at offset after checking it
+    private byte[] readFramed(long offset) throws IOException {
+        long limit = size - BinaryWriter.TRAILER_SIZE;
+        if (offset < BinaryWriter.HEADER_SIZE || offset + Integer.BYTES > limit) {
+            throw new IOException("Record offset " + offset + " out of range in " + source);
+        }
+        int length = readAt(offset, Integer.BYTES).getInt();
+        long start = offset + Integer.BYTES;
+        if (length < 0 || start + length + Integer.BYTES > limit) {
+            throw new IOException("Record length " + length + " out of range in " + source);
+        }
+        ByteBuffer record = readAt(start, length + Integer.BYTES);
+        byte[] payload = new byte[length];
+        record.get(payload);
+        if (crcOf(payload) != record.getInt()) {
+            throw new IOException("Corrupt record at offset " + offset + " in " + source);
+        }
+        return payload;
+    }
+
+    // REQUIRES: the file is open and position + length <= size
+    // EFFECTS: returns a buffer holding the length bytes of the file at position, ready to be read
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Binary snapshot " + source + " ended early");
+            }
+        }
+        return buffer.flip();
+    }
+
+    // EFFECTS: reads a topic with its objectives and mastery bitset
+    private Topic readTopic(DataInputStream in) throws IOException {
+        String name = lookup(in);
+        double confidenceLevel = in.readDouble();
+        int count = BinaryIO.readVarInt(in);
+        List<String> descriptions = new ArrayList<>(Math.min(count, MAX_PRESIZE));
+        for (int i = 0; i < count; i++) {
+            descriptions.add(lookup(in));
+        }
+        List<LessonObjective> objectives = new ArrayList<>(descriptions.size());
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            if (i % 8 == 0) {
+                bits = in.readUnsignedByte();
+            }
+            objectives.add(new LessonObjective(descriptions.get(i), (bits & (1 << (i % 8))) != 0));
+        }
+        Topic topic = new Topic(name, objectives);
+        topic.setConfidenceLevel(confidenceLevel);
+        return topic;
+    }
+
+    // EFFECTS: reads a string table index and returns the string it refers to
+    private String lookup(DataInputStream in) throws IOException {
+        int index = BinaryIO.readVarInt(in);
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("String index " + index + " out of range in " + source);
+        }
+        return strings[index];
+    }
+
+    // EFFECTS: returns the CRC32 of bytes
+    private static int crcOf(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
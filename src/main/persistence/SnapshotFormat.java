@@ -0,0 +1,90 @@
+package persistence;
+
+import model.Course;
+import model.Event;
+import model.EventCategory;
+import model.EventLevel;
+import model.EventLog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+// Represents the formats a StudyTrack data file can be stored in. Readers pick the format of an
+// existing file from its first bytes, so JSON and binary files load through the same call.
+public enum SnapshotFormat {
+    JSON {
+        @Override
+        List<Course> readCourses(String source) throws IOException {
+            return new JsonReader(source).readCourses();
+        }
+
+        @Override
+        public void write(List<Course> courses, String destination, Durability durability) throws IOException {
+            JsonWriter writer = new JsonWriter(destination, true, durability);
+            writer.open();
+            try {
+                writer.write(courses);
+            } finally {
+                writer.close();
+            }
+        }
+    },
+    BINARY {
+        @Override
+        List<Course> readCourses(String source) throws IOException {
+            return new BinaryReader(source).readCourses();
+        }
+
+        @Override
+        public void write(List<Course> courses, String destination, Durability durability) throws IOException {
+            BinaryWriter writer = new BinaryWriter(destination, durability);
+            writer.open();
+            try {
+                writer.write(courses);
+            } finally {
+                writer.close();
+            }
+        }
+    };
+
+    // EFFECTS: returns BINARY if the file at source starts with the binary snapshot magic bytes,
+    //          JSON otherwise; throws IOException if the file cannot be read
+    public static SnapshotFormat detect(String source) throws IOException {
+        try (InputStream in = Files.newInputStream(Paths.get(source))) {
+            byte[] head = in.readNBytes(BinaryWriter.MAGIC.length);
+            return Arrays.equals(head, BinaryWriter.MAGIC) ? BINARY : JSON;
+        }
+    }
+
+    // EFFECTS: reads list of courses from source in whichever format it is stored, logging a single
+    //          load event; throws IOException if it cannot be read or is malformed
+    public static List<Course> read(String source) throws IOException {
+        List<Course> courses = detect(source).readCourses(source);
+        EventLog log = EventLog.getInstance();
+        if (log.shouldLog(EventCategory.PERSISTENCE, EventLevel.INFO)) {
+            log.logEvent(new Event("Loaded {} course(s) from {}.", courses.size(), source));
+        }
+        return courses;
+    }
+
+    // MODIFIES: the file at path
+    // EFFECTS: rewrites the file at path in the target format, keeping the old file as its backup;
+    //          does nothing if it is already in that format
+    public static void convert(String path, SnapshotFormat target, Durability durability) throws IOException {
+        SnapshotFormat current = detect(path);
+        if (current != target) {
+            target.write(current.readCourses(path), path, durability);
+        }
+    }
+
+    // EFFECTS: reads list of courses in this format from source without logging any event
+    abstract List<Course> readCourses(String source) throws IOException;
+
+    // MODIFIES: the file at destination
+    // EFFECTS: atomically writes the courses in this format to destination, as durable as durability asks
+    public abstract void write(List<Course> courses, String destination, Durability durability) throws IOException;
+}
@@ -0,0 +1,343 @@
+package persistence;
+
+import model.CourseManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+// Represents storage for many users, each with their own journaled data file, plus a cache of the
+// users' loaded CourseManagers. Data files are spread over 256 shard directories under the root so
+// that no directory grows too large: <root>/<shard>/<user>.json, where the shard is two hex digits
+// of the user name's hash and the file name is the user name with every character other than
+// lower-case letters, digits, '-' and '_' written as %XX.
+// The cache keeps at most maxUsers users, and at most maxBytes of their data as measured on disk
+// (snapshot plus journal), evicting the least recently used. Evicting a user flushes their journal
+// and closes their store. A user is pinned while withUser runs for them and is never evicted then,
+// so the bounds can be exceeded briefly while every resident user is in use. A user evicted while
+// being flushed is not loaded again until the flush is done. Failing to flush an evicted user does
+// not take the place of the result of the withUser call that evicted them: it is reported by the
+// next flush or close instead, or attached to the action's own exception if it threw one.
+public class UserStore implements Closeable {
+    public static final int DEFAULT_MAX_USERS = 1000;
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final String SUFFIX = ".json";
+    private static final int SHARDS = 256;
+
+    private final Path root;
+    private final int maxUsers;
+    private final long maxBytes;
+    private final Durability durability;
+    private final LinkedHashMap<String, Resident> residents = new LinkedHashMap<>(16, 0.75f, true); // LRU first
+    private final Map<String, Resident> closing = new HashMap<>(); // evicted, still being flushed
+    private long residentBytes;
+    private boolean closed;
+    private IOException evictionFailure; // failure flushing an evicted user, not yet reported
+
+    // Represents work done on one user's manager while they are pinned in the cache
+    public interface UserAction<T> {
+        T apply(CourseManager manager) throws IOException;
+    }
+
+    // EFFECTS: constructs a store under root with the default bounds, forcing data to disk
+    public UserStore(Path root) {
+        this(root, DEFAULT_MAX_USERS, DEFAULT_MAX_BYTES, Durability.DATA);
+    }
+
+    // REQUIRES: maxUsers > 0, maxBytes > 0
+    // EFFECTS: constructs a store under root that keeps at most maxUsers users and maxBytes of their
+    //          data loaded, making every change as durable as durability asks
+    public UserStore(Path root, int maxUsers, long maxBytes, Durability durability) {
+        this.root = root;
+        this.maxUsers = maxUsers;
+        this.maxBytes = maxBytes;
+        this.durability = durability;
+    }
+
+    // EFFECTS: returns the path of user's data file
+    public Path pathFor(String user) {
+        int hash = user.hashCode();
+        int mixed = hash ^ (hash >>> 8) ^ (hash >>> 16) ^ (hash >>> 24);
+        String shard = String.format("%02x", mixed & (SHARDS - 1));
+        return root.resolve(shard).resolve(encode(user) + SUFFIX);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads user's manager if it is not cached, creating an empty one for a new user, and
+    //          runs action on it while user is pinned; returns what action returns. Changes action
+    //          makes are journaled to user's file. Throws IOException if loading or action fails.
+    public <T> T withUser(String user, UserAction<T> action) throws IOException {
+        Resident resident = pin(user);
+        T result;
+        try {
+            result = action.apply(resident.open());
+        } catch (Throwable e) {
+            IOException failure = closeAll(unpin(resident, resident.measure()));
+            if (failure != null) {
+                e.addSuppressed(failure);
+            }
+            throw e;
+        }
+        IOException failure = closeAll(unpin(resident, resident.measure()));
+        if (failure != null) {
+            keepEvictionFailure(failure);
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the number of users whose managers are cached
+    public synchronized int getResidentCount() {
+        return residents.size();
+    }
+
+    // EFFECTS: returns true if user's manager is cached
+    public synchronized boolean isResident(String user) {
+        return residents.containsKey(user);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes every cached user's journal; throws IOException if any flush fails, after trying
+    //          them all, or if flushing a user evicted since the last flush failed
+    public void flush() throws IOException {
+        List<Resident> all;
+        IOException failure;
+        synchronized (this) {
+            all = new ArrayList<>(residents.values());
+            failure = evictionFailure;
+            evictionFailure = null;
+        }
+        for (Resident resident : all) {
+            try {
+                resident.flush();
+            } catch (IOException e) {
+                failure = combine(failure, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes and closes every cached user's store and empties the cache; throws IOException
+    //          if any of them fails, after trying them all, or if flushing an evicted user failed since
+    //          the last flush
+    @Override
+    public void close() throws IOException {
+        List<Resident> all;
+        IOException failure;
+        synchronized (this) {
+            closed = true;
+            all = new ArrayList<>(residents.values());
+            for (Resident resident : all) {
+                resident.evicted = true;
+            }
+            residents.clear();
+            residentBytes = 0;
+            failure = evictionFailure;
+            evictionFailure = null;
+        }
+        failure = combine(failure, closeAll(all));
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns user's cache entry, marked as most recently used and pinned, adding it if needed
+    private synchronized Resident pin(String user) throws IOException {
+        if (closed) {
+            throw new IOException("User store is closed");
+        }
+        Resident resident = residents.get(user);
+        if (resident == null) {
+            resident = new Resident(pathFor(user), closing.get(user));
+            residents.put(user, resident);
+        }
+        resident.pins++;
+        return resident;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unpins resident, records its size as bytes, and removes and returns the least recently
+    //          used unpinned users while the cache is over either bound
+    private synchronized List<Resident> unpin(Resident resident, long bytes) {
+        resident.pins--;
+        if (!resident.evicted) {
+            residentBytes += bytes - resident.bytes;
+            resident.bytes = bytes;
+        }
+        List<Resident> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Resident>> oldestFirst = residents.entrySet().iterator();
+        while ((residents.size() > maxUsers || residentBytes > maxBytes) && oldestFirst.hasNext()) {
+            Map.Entry<String, Resident> entry = oldestFirst.next();
+            Resident candidate = entry.getValue();
+            if (candidate.pins == 0) {
+                oldestFirst.remove();
+                candidate.evicted = true;
+                residentBytes -= candidate.bytes;
+                closing.put(entry.getKey(), candidate);
+                evicted.add(candidate);
+            }
+        }
+        return evicted;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes each of evicted, even if closing an earlier one fails, and forgets it once closed;
+    //          returns the first failure with any later ones suppressed, or null if none failed
+    private IOException closeAll(List<Resident> evicted) {
+        IOException failure = null;
+        for (Resident resident : evicted) {
+            try {
+                resident.close();
+            } catch (IOException e) {
+                failure = combine(failure, e);
+            } finally {
+                finishClosing(resident);
+            }
+        }
+        return failure;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets evicted once it is closed, unless a later eviction of the same user replaced it
+    private synchronized void finishClosing(Resident evicted) {
+        closing.values().remove(evicted);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps failure to be reported by the next flush or close
+    private synchronized void keepEvictionFailure(IOException failure) {
+        evictionFailure = combine(evictionFailure, failure);
+    }
+
+    // MODIFIES: first
+    // EFFECTS: returns first with next suppressed by it, or next if first is null
+    private static IOException combine(IOException first, IOException next) {
+        if (first == null) {
+            return next;
+        }
+        if (next != null) {
+            first.addSuppressed(next);
+        }
+        return first;
+    }
+
+    // EFFECTS: returns user written with only file-name-safe characters, distinct for distinct users
+    //          even on case-insensitive file systems
+    static String encode(String user) {
+        StringBuilder sb = new StringBuilder(user.length());
+        for (byte b : user.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if (c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_') {
+                sb.append(c);
+            } else {
+                sb.append('%').append(String.format("%02X", b & 0xff));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Represents one cached user: their store and manager, loaded on first use
+    private final class Resident {
+        private final Path path;
+        private final Resident previous; // the same user's evicted entry still being flushed, or null
+        private final CountDownLatch closedLatch = new CountDownLatch(1);
+        private JournalStore store;
+        private CourseManager manager;
+        private int pins; // guarded by the UserStore
+        private long bytes; // size on disk when last unpinned; guarded by the UserStore
+        private boolean evicted; // removed from the cache; guarded by the UserStore
+
+        Resident(Path path, Resident previous) {
+            this.path = path;
+            this.previous = previous;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the manager, first waiting for any earlier entry of the user to be flushed,
+        //          then loading it from the user's file
+        synchronized CourseManager open() throws IOException {
+            if (manager == null) {
+                if (previous != null) {
+                    previous.awaitClosed();
+                }
+                Files.createDirectories(path.getParent());
+                JournalStore opened = new JournalStore(path.toString(), JournalStore.DEFAULT_COMPACTION_THRESHOLD,
+                        durability);
+                try {
+                    manager = opened.loadConcurrent();
+                } catch (IOException | RuntimeException e) {
+                    try {
+                        opened.close();
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                    throw e;
+                }
+                store = opened;
+            }
+            return manager;
+        }
+
+        // EFFECTS: returns the size of the user's snapshot and journal on disk, counting the journal
+        //          records still waiting for the store's writer
+        synchronized long measure() {
+            long unwritten = store == null ? 0 : store.getUnwrittenBytes();
+            return sizeOf(path) + sizeOf(Path.of(path + ".journal")) + unwritten;
+        }
+
+        // EFFECTS: flushes the journal, if loaded
+        synchronized void flush() throws IOException {
+            if (manager != null) {
+                store.save(manager);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: flushes the journal and closes the store, if loaded; then lets a reload proceed
+        synchronized void close() throws IOException {
+            try {
+                if (manager != null) {
+                    try {
+                        store.save(manager);
+                    } finally {
+                        store.close();
+                        manager = null;
+                    }
+                }
+            } finally {
+                closedLatch.countDown();
+            }
+        }
+
+        // EFFECTS: waits until this entry has been closed
+        void awaitClosed() throws IOException {
+            try {
+                closedLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a user to be flushed", e);
+            }
+        }
+
+        // EFFECTS: returns the size of the file at file, or 0 if there is none
+        private long sizeOf(Path file) {
+            try {
+                return Files.exists(file) ? Files.size(file) : 0;
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package persistence;
 
+import java.io.IOException;
+
 import org.json.JSONObject;
 
 // Referenced from the JsonSerialization Demo
@@ -8,4 +10,8 @@ import org.json.JSONObject;
 public interface Writable {
     // EFFECTS: returns this as JSON object
     JSONObject toJson();
+
+    // MODIFIES: writer
+    // EFFECTS: writes this as a JSON object directly to writer, without building a JSONObject
+    void writeJson(JsonStreamWriter writer) throws IOException;
 }
@@ -0,0 +1,59 @@
+package ui;
+
+import model.Course;
+import model.CourseManager;
+import model.ModelListener;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the course names of a CourseManager as a list model, in the order the courses were
+ * added, kept up to date as a listener. A change only tells the list about the one row it affects,
+ * so the list repaints that row instead of rebuilding itself. Meant for a manager used by the Swing
+ * event thread.
+ */
+public class CourseListModel extends AbstractListModel<String> implements ModelListener {
+    private final CourseManager manager;
+    private final List<String> names;
+
+    // MODIFIES: manager
+    // EFFECTS: Constructs a list model of manager's course names that follows its changes.
+    public CourseListModel(CourseManager manager) {
+        this.manager = manager;
+        this.names = new ArrayList<>(manager.getCourseNames());
+        manager.addListener(this);
+    }
+
+    // MODIFIES: manager
+    // EFFECTS: Stops following manager's changes.
+    public void detach() {
+        manager.removeListener(this);
+    }
+
+    @Override
+    public int getSize() {
+        return names.size();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return names.get(index);
+    }
+
+    @Override
+    public void courseAdded(Course course) {
+        names.add(course.getName());
+        fireIntervalAdded(this, names.size() - 1, names.size() - 1);
+    }
+
+    @Override
+    public void courseRemoved(Course course) {
+        int index = names.indexOf(course.getName());
+        if (index >= 0) {
+            names.remove(index);
+            fireIntervalRemoved(this, index, index);
+        }
+    }
+}
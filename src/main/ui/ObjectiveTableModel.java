@@ -0,0 +1,112 @@
+package ui;
+
+import model.Course;
+import model.CourseManager;
+import model.LessonObjective;
+import model.ModelListener;
+import model.Topic;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Represents the lesson objectives of one topic as a table model with a "Mastered" check box
+ * column and a description column, reading the objectives straight from the topic and kept up to
+ * date as a listener of its manager. Ticking a check box marks the objective as mastered, and each
+ * change tells the table about the one row it affects. Meant for a manager used by the Swing event
+ * thread.
+ */
+public class ObjectiveTableModel extends AbstractTableModel implements ModelListener {
+    public static final int MASTERED_COLUMN = 0;
+    public static final int DESCRIPTION_COLUMN = 1;
+
+    private final CourseManager manager;
+    private final Course course;
+    private final Topic topic;
+
+    // REQUIRES: topic belongs to course, which belongs to manager
+    // MODIFIES: manager
+    // EFFECTS: Constructs a table model of topic's objectives that follows manager's changes to them.
+    public ObjectiveTableModel(CourseManager manager, Course course, Topic topic) {
+        this.manager = manager;
+        this.course = course;
+        this.topic = topic;
+        manager.addListener(this);
+    }
+
+    // MODIFIES: manager
+    // EFFECTS: Stops following manager's changes.
+    public void detach() {
+        manager.removeListener(this);
+    }
+
+    @Override
+    public int getRowCount() {
+        return topic.getObjectiveCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == MASTERED_COLUMN ? "Mastered" : "Lesson Objective";
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == MASTERED_COLUMN ? Boolean.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == MASTERED_COLUMN;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        LessonObjective objective = topic.getLessonObjectivesView().get(row);
+        return column == MASTERED_COLUMN ? (Object) objective.isMastered() : objective.getDescription();
+    }
+
+    // MODIFIES: this, the topic
+    // EFFECTS: Marks the objective in row as mastered if value is true, otherwise unmarks it.
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (column != MASTERED_COLUMN) {
+            return;
+        }
+        if (Boolean.TRUE.equals(value)) {
+            topic.markObjectiveAsMastered(row);
+        } else {
+            topic.unmarkObjectiveAsMastered(row);
+        }
+    }
+
+    @Override
+    public void objectiveAdded(Course course, int topicIndex, LessonObjective objective) {
+        if (isThisTopic(course, topicIndex)) {
+            fireTableRowsInserted(getRowCount() - 1, getRowCount() - 1);
+        }
+    }
+
+    @Override
+    public void objectiveRemoved(Course course, int topicIndex, LessonObjective objective) {
+        if (isThisTopic(course, topicIndex)) {
+            fireTableRowsDeleted(getRowCount(), getRowCount());
+        }
+    }
+
+    @Override
+    public void masteryChanged(Course course, int topicIndex, int objectiveIndex, LessonObjective objective) {
+        if (isThisTopic(course, topicIndex)) {
+            fireTableCellUpdated(objectiveIndex, MASTERED_COLUMN);
+        }
+    }
+
+    // EFFECTS: Returns true if the topic at topicIndex of course is this model's topic.
+    private boolean isThisTopic(Course course, int topicIndex) {
+        return course == this.course && course.getTopicsView().get(topicIndex) == topic;
+    }
+}
@@ -0,0 +1,41 @@
+package ui;
+
+import model.EventLog;
+import persistence.UserStore;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * The entry point of the headless StudyTrack service: serves many users over HTTP on localhost,
+ * keeping each user's data in its own file under ./data/users.
+ * Usage: ServerMain [port]
+ */
+public class ServerMain {
+    private static final int EVENT_LOG_CAPACITY = 10_000;
+    private static final String USERS_DIR = "./data/users";
+    // Without TCP_NODELAY, a response's headers and body go out in separate packets and the second
+    // waits on the client's delayed ACK, adding about 40 ms to every request
+    static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : StudyTrackServer.DEFAULT_PORT;
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+        // a long-running service keeps only the most recent events in memory
+        EventLog.getInstance().setBounded(EVENT_LOG_CAPACITY);
+        UserStore users = new UserStore(Paths.get(USERS_DIR));
+        StudyTrackServer server = new StudyTrackServer(port, users);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                users.close();
+            } catch (IOException e) {
+                System.out.println("Unable to save user data: " + e.getMessage());
+            }
+        }));
+        server.start();
+        System.out.println("StudyTrack server listening on http://localhost:" + server.getPort() + "/users/");
+    }
+}
@@ -1,29 +1,47 @@
 package ui;
 
 import model.Course;
+import model.CourseManager;
+import model.CourseVersion;
 import model.LessonObjective;
+import model.ModelVersion;
+import model.NameResolver;
+import model.ObjectiveVersion;
+import model.SearchIndex;
+import model.SearchResult;
 import model.Topic;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.TopicVersion;
+import model.UndoHistory;
+import persistence.JournalStore;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Function;
 
 /**
  * Represents the StudyTrack application, handling the main program flow.
  */
 public class StudyTrackApp {
-    private List<Course> courses;
+    private static final String DATA_FILE = "./data/studyTrack.json";
+
+    private CourseManager courseManager;
+    private UndoHistory history;
+    private SearchIndex searchIndex; // built on the first search, or null
+    private NameResolver nameResolver;
+    private JournalStore store;
     private Scanner scanner;
 
     /**
-     * EFFECTS: Constructs a StudyTrackApp with an empty list of courses and initializes the scanner.
+     * EFFECTS: Constructs a StudyTrackApp with no courses, an empty undo history, a lookup of course
+     *          and topic names, a journaled store for the data file, and initializes the scanner.
      */
     public StudyTrackApp() {
-        courses = new ArrayList<>();
+        courseManager = new CourseManager();
+        history = new UndoHistory(courseManager);
+        nameResolver = new NameResolver(courseManager);
+        store = new JournalStore(DATA_FILE);
         scanner = new Scanner(System.in);
     }
 
@@ -62,7 +80,17 @@ public class StudyTrackApp {
                     viewProgress();   
                     break;
                 case 9:
+                    search();
+                    break;
+                case 10:
+                    undoLastChange();
+                    break;
+                case 11:
+                    redoLastChange();
+                    break;
+                case 12:
                     System.out.println("Goodbye!");
+                    closeStore();
                     exit = true;
                     break;
                 default:
@@ -87,7 +115,10 @@ public class StudyTrackApp {
         System.out.println("6. Save progress");
         System.out.println("7. Load progress");
         System.out.println("8. View Progress");  
-        System.out.println("9. Exit");
+        System.out.println("9. Search courses, topics and objectives");
+        System.out.println("10. Undo last change");
+        System.out.println("11. Redo last undone change");
+        System.out.println("12. Exit");
         System.out.print("Enter your choice: ");
     }
     
@@ -112,21 +143,24 @@ public class StudyTrackApp {
         for (int i = 1; i <= numCourses; i++) {
             System.out.print("What is the name of course " + i + "? ");
             String courseName = getNonEmptyString();
-            Course course = new Course(courseName);
-            courses.add(course);
+            if (!courseManager.addCourse(courseName)) {
+                System.out.println("Course \"" + courseName + "\" already exists.");
+                continue;
+            }
+            Course course = courseManager.getCourse(courseName);
 
             System.out.print("How many topics do you want to add in the course? ");
             int numTopics = getPositiveInt();
             for (int j = 1; j <= numTopics; j++) {
                 System.out.print("What is the name of topic " + j + "? ");
                 String topicName = getNonEmptyString();
-                course.addTopic(topicName);
+                Topic topic = course.addTopic(topicName);
 
-                addLessonObjectives(course.getTopics().get(j - 1));
-                markConfidentObjectives(course.getTopics().get(j - 1));
+                addLessonObjectives(topic);
+                markConfidentObjectives(topic);
 
                 System.out.printf("Your progress for topic %s is %.2f%%\n",
-                        topicName, course.getTopics().get(j - 1).getConfidenceLevel());
+                        topicName, topic.getConfidenceLevel());
             }
 
             System.out.printf("Your overall progress for %s is %.2f%%\n",
@@ -151,7 +185,7 @@ public class StudyTrackApp {
      * EFFECTS: Marks objectives as mastered based on user input.
      */
     private void markConfidentObjectives(Topic topic) {
-        int numObjectives = topic.getLessonObjectives().size();
+        int numObjectives = topic.getObjectiveCount();
         System.out.print("How many objectives are you confident in? ");
         int confidentObjectives = getConfidentObjectives(numObjectives);
         for (int k = 0; k < confidentObjectives; k++) {
@@ -177,7 +211,7 @@ public class StudyTrackApp {
             return;
         }
 
-        displayLessonObjectives(topic.getLessonObjectives());
+        displayLessonObjectives(topic.getLessonObjectivesView());
         updateSelectedObjective(topic);
 
         displayProgress(topic, course);
@@ -188,8 +222,8 @@ public class StudyTrackApp {
      */
     private void updateSelectedObjective(Topic topic) {
         System.out.print("Enter the number of the lesson objective to update: ");
-        int objChoice = getChoiceInRange(1, topic.getLessonObjectives().size());
-        LessonObjective selectedObjective = topic.getLessonObjectives().get(objChoice - 1);
+        int objChoice = getChoiceInRange(1, topic.getObjectiveCount());
+        LessonObjective selectedObjective = topic.getLessonObjectivesView().get(objChoice - 1);
 
         System.out.print("Mark as mastered? (yes/no): ");
         boolean master = getYesOrNo();
@@ -216,7 +250,7 @@ public class StudyTrackApp {
      * EFFECTS: Checks if no courses are available and prints a message if true.
      */
     private boolean checkNoCourses() {
-        if (courses.isEmpty()) {
+        if (courseManager.getCourseNames().isEmpty()) {
             System.out.println("No courses available to update.");
             return true;
         }
@@ -227,7 +261,7 @@ public class StudyTrackApp {
      * EFFECTS: Checks if the selected course has no topics and prints a message if true.
      */
     private boolean checkCourseTopicsEmpty(Course course) {
-        if (course == null || course.getTopics().isEmpty()) {
+        if (course == null || course.getTopicCount() == 0) {
             System.out.println("No topics available in this course to update.");
             return true;
         }
@@ -238,7 +272,7 @@ public class StudyTrackApp {
      * EFFECTS: Checks if the selected topic has no lesson objectives and prints a message if true.
      */
     private boolean checkTopicObjectivesEmpty(Topic topic) {
-        if (topic == null || topic.getLessonObjectives().isEmpty()) {
+        if (topic == null || topic.getObjectiveCount() == 0) {
             System.out.println("No lesson objectives available in this topic to update.");
             return true;
         }
@@ -260,7 +294,7 @@ public class StudyTrackApp {
      * EFFECTS: Adds more topics to an existing course based on user input.
      */
     private void addMoreTopicsToCourse() {
-        if (courses.isEmpty()) {
+        if (courseManager.getCourseNames().isEmpty()) {
             System.out.println("No courses available to add topics.");
             return;
         }
@@ -274,9 +308,7 @@ public class StudyTrackApp {
         for (int j = 1; j <= numTopics; j++) {
             System.out.print("What is the name of topic " + j + "? ");
             String topicName = getNonEmptyString();
-            course.addTopic(topicName);
-
-            Topic currentTopic = course.getTopics().get(course.getTopics().size() - 1);
+            Topic currentTopic = course.addTopic(topicName);
             addLessonObjectivesToTopic(currentTopic);
             markConfidentObjectivesInTopic(currentTopic);
 
@@ -305,7 +337,7 @@ public class StudyTrackApp {
      * EFFECTS: Marks the specified number of objectives as mastered in the given topic based on user input.
      */
     private void markConfidentObjectivesInTopic(Topic topic) {
-        int numObjectives = topic.getLessonObjectives().size();
+        int numObjectives = topic.getObjectiveCount();
         System.out.print("How many objectives are you confident in? ");
         int confidentObjectives = getConfidentObjectives(numObjectives);
         for (int k = 0; k < confidentObjectives; k++) {
@@ -317,13 +349,13 @@ public class StudyTrackApp {
      * EFFECTS: Deletes a topic from an existing course based on user input.
      */
     private void deleteTopic() {
-        if (courses.isEmpty()) {
+        if (courseManager.getCourseNames().isEmpty()) {
             System.out.println("No courses available to delete topics from.");
             return;
         }
 
         Course course = selectCourse();
-        if (course == null || course.getTopics().isEmpty()) {
+        if (course == null || course.getTopicCount() == 0) {
             System.out.println(course == null ? "Course selection canceled." : 
                             "No topics available in this course to delete.");
             return;
@@ -359,7 +391,7 @@ public class StudyTrackApp {
      * EFFECTS: Deletes an existing course based on user input.
      */
     private void deleteCourse() {
-        if (courses.isEmpty()) {
+        if (courseManager.getCourseNames().isEmpty()) {
             System.out.println("No courses available to delete.");
             return;
         }
@@ -371,7 +403,7 @@ public class StudyTrackApp {
         System.out.print("Are you sure you want to delete the course \"" + course.getName() + "\"? (yes/no): ");
         boolean confirm = getYesOrNo();
         if (confirm) {
-            courses.remove(course);
+            courseManager.removeCourse(course.getName());
             System.out.println("Course deleted successfully.");
         } else {
             System.out.println("Deletion canceled.");
@@ -379,71 +411,164 @@ public class StudyTrackApp {
     }
 
     /**
-     * EFFECTS: Prompts the user to select a course from the list.
-     * or null if selection is invalid.
+     * EFFECTS: Prompts the user to select a course by name, part of its name or a near miss of it.
      */
     private Course selectCourse() {
-        System.out.println("Available Courses:");
-        for (int i = 0; i < courses.size(); i++) {
-            System.out.println((i + 1) + ". " + courses.get(i));
-        }
-        System.out.print("Select a course by number: ");
-        int choice = getChoiceInRange(1, courses.size());
-        return courses.get(choice - 1);
+        String name = chooseByName("course", courseManager.getCourseNames(), nameResolver::resolveCourse,
+                q -> nameResolver.suggestCourses(q, NameResolver.DEFAULT_LIMIT));
+        return courseManager.getCourse(name);
     }
 
     /**
-     * EFFECTS: Prompts the user to select a topic from the selected course.
-     * or null if selection is invalid.   
+     * EFFECTS: Prompts the user to select a topic from the selected course by name, part of its name
+     *          or a near miss of it; of several topics with the chosen name, returns the first.
      */
     private Topic selectTopic(Course course) {
-        List<Topic> topics = course.getTopics();
-        System.out.println("Available Topics:");
-        for (int i = 0; i < topics.size(); i++) {
-            System.out.println((i + 1) + ". " + topics.get(i));
+        List<String> names = new ArrayList<>();
+        for (Topic topic : course.getTopicsView()) {
+            names.add(topic.getName());
+        }
+        String name = chooseByName("topic", names, q -> nameResolver.resolveTopic(course.getName(), q),
+                q -> nameResolver.suggestTopics(course.getName(), q, NameResolver.DEFAULT_LIMIT));
+        return course.getTopic(name);
+    }
+
+    /**
+     * REQUIRES: names is not empty
+     * EFFECTS: Asks for one of names. The name resolve gives for the answer is chosen right away;
+     *          if there is none, the user picks one of the close names suggest gives by number.
+     *          Answering ? lists every name to pick from. Returns the chosen name.
+     */
+    private String chooseByName(String kind, List<String> names, Function<String, String> resolve,
+                                Function<String, List<String>> suggest) {
+        System.out.print("Enter the " + kind + " name or part of it (? to list them all): ");
+        while (true) {
+            String answer = nextNonBlankLine();
+            if (answer.equals("?")) {
+                return names.size() == 1 ? names.get(0) : pickByNumber(kind, names);
+            }
+            String resolved = resolve.apply(answer);
+            if (resolved != null) {
+                return resolved;
+            }
+            List<String> options = suggest.apply(answer);
+            if (!options.isEmpty()) {
+                return pickByNumber(kind, options);
+            }
+            System.out.print("No " + kind + " matches '" + answer + "'. Please enter again: ");
+        }
+    }
+
+    /**
+     * REQUIRES: options is not empty
+     * EFFECTS: Lists options by number and returns the one the user picks.
+     */
+    private String pickByNumber(String kind, List<String> options) {
+        for (int i = 0; i < options.size(); i++) {
+            System.out.println((i + 1) + ". " + options.get(i));
         }
-        System.out.print("Select a topic by number: ");
-        int choice = getChoiceInRange(1, topics.size());
-        return topics.get(choice - 1);
+        System.out.print("Select a " + kind + " by number: ");
+        return options.get(getChoiceInRange(1, options.size()) - 1);
     }
 
+    /**
+     * EFFECTS: Saves progress to the data file. Once progress has been saved or loaded, every change
+     *          is already in the journal, so this only flushes it.
+     */
     private void saveProgress() {
-        JsonWriter writer = new JsonWriter("./data/studyTrack.json");
         try {
-            writer.open();
-            writer.write(courses);  
-            writer.close();
+            store.save(courseManager);
             System.out.println("Progress saved successfully.");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to save progress: " + e.getMessage());
         }
     }    
 
+    /**
+     * EFFECTS: Loads progress from the data file and its journal, replacing the current courses
+     *          and starting a new undo history and name lookup.
+     */
     private void loadProgress() {
-        JsonReader reader = new JsonReader("./data/studyTrack.json");
         try {
-            courses = reader.read();  
+            courseManager = store.load();
+            history.detach();
+            history = new UndoHistory(courseManager);
+            nameResolver.detach();
+            nameResolver = new NameResolver(courseManager);
+            if (searchIndex != null) {
+                searchIndex.detach();
+                searchIndex = null;
+            }
             System.out.println("Progress loaded successfully.");
         } catch (IOException e) {
             System.out.println("Unable to load progress: " + e.getMessage());
         }
     }    
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: Asks for words to search for and prints the best matching courses, topics and
+     *          objectives. Builds the search index on first use, and keeps it up to date after.
+     */
+    private void search() {
+        System.out.print("Enter words to search for (the start of a word is enough): ");
+        scanner.nextLine(); // consume the remaining newline
+        String query = getNonEmptyString();
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex(courseManager);
+        }
+        List<SearchResult> results = searchIndex.search(query);
+        if (results.isEmpty()) {
+            System.out.println("No matches found.");
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            System.out.println((i + 1) + ". " + results.get(i));
+        }
+    }
+
+    /**
+     * EFFECTS: Reverses the latest change to the courses, or says there is none.
+     */
+    private void undoLastChange() {
+        System.out.println(history.undo() ? "Last change undone." : "Nothing to undo.");
+    }
+
+    /**
+     * EFFECTS: Makes the latest undone change again, or says there is none.
+     */
+    private void redoLastChange() {
+        System.out.println(history.redo() ? "Change redone." : "Nothing to redo.");
+    }
+
+    /**
+     * EFFECTS: Closes the store, waiting for any journal compaction in progress.
+     */
+    private void closeStore() {
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println("Unable to close data file: " + e.getMessage());
+        }
+    }
     
     /**
-     * EFFECTS: Displays progress for all courses, topics, and lesson objectives.
-     *          If no courses are available, prints a message indicating so.
+     * EFFECTS: Displays progress for all courses, topics, and lesson objectives, as of one version
+     *          of the courses. If no courses are available, prints a message indicating so.
      */
     private void viewProgress() {
-        if (courses.isEmpty()) {
+        courseManager.getCourses(); // builds any course not loaded yet
+        ModelVersion version = courseManager.getVersion();
+        if (version.getCourseCount() == 0) {
             System.out.println("No courses available.");
             return;
         }
 
-        for (Course course : courses) {
+        for (CourseVersion course : version.getCourses()) {
             System.out.println("Course: " + course.getName());
             System.out.printf("Overall Progress: %.2f%%\n", course.getOverallProgress());
 
-            List<Topic> topics = course.getTopics();
+            List<TopicVersion> topics = course.getTopics();
             if (topics.isEmpty()) {
                 System.out.println("  No topics available.");
             } else {
@@ -457,12 +582,12 @@ public class StudyTrackApp {
      * EFFECTS: Displays progress for each topic in the provided list.
      *          If no lesson objectives are available in a topic, prints a message indicating so.
      */
-    private void displayTopicsProgress(List<Topic> topics) {
-        for (Topic topic : topics) {
+    private void displayTopicsProgress(List<TopicVersion> topics) {
+        for (TopicVersion topic : topics) {
             System.out.println("  Topic: " + topic.getName());
             System.out.printf("  Topic Progress: %.2f%%\n", topic.getConfidenceLevel());
 
-            List<LessonObjective> objectives = topic.getLessonObjectives();
+            List<ObjectiveVersion> objectives = topic.getObjectives();
             if (objectives.isEmpty()) {
                 System.out.println("    No lesson objectives.");
             } else {
@@ -474,8 +599,8 @@ public class StudyTrackApp {
     /**
      * EFFECTS: Displays the progress status (mastered or not mastered) of each lesson objective in the provided list.
      */
-    private void displayObjectivesProgress(List<LessonObjective> objectives) {
-        for (LessonObjective objective : objectives) {
+    private void displayObjectivesProgress(List<ObjectiveVersion> objectives) {
+        for (ObjectiveVersion objective : objectives) {
             String status = objective.isMastered() ? "Mastered" : "Not Mastered";
             System.out.println("    Objective: " + objective.getDescription() + " [" + status + "]");
         }
@@ -500,6 +625,18 @@ public class StudyTrackApp {
         return num;
     }
 
+    /**
+     * EFFECTS: Returns the next line the user enters that is not blank, trimmed; blank lines, such as
+     *          the rest of the line a menu choice was typed on, are skipped without a prompt.
+     */
+    private String nextNonBlankLine() {
+        String input;
+        do {
+            input = scanner.nextLine().trim();
+        } while (input.isEmpty());
+        return input;
+    }
+
     /**
      * EFFECTS: Retrieves a non-empty string input from the user.
      */
@@ -1,20 +1,27 @@
 package ui;
 
 import model.Topic;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.JournalStore;
+import persistence.OverflowPolicy;
+import persistence.RollingEventWriter;
 import model.Course;
 import model.CourseManager;
-import model.LessonObjective;
+import model.NameResolver;
+import model.SearchIndex;
+import model.SearchResult;
+import model.UndoHistory;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.io.FileNotFoundException;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import model.Event;
@@ -24,22 +31,32 @@ import model.EventLog;
 public class StudyTrackGUI extends JFrame {
     private JPanel coursesPanel;
     private JPanel mainDisplayPanel;
-    private JPanel courseListPanel;
+    private JList<String> courseList;
+    private CourseListModel courseListModel;
     private JPanel topicsPanel;
+    private TopicListModel topicListModel; // topics of the displayed course, or null
     private CircularProgressBar progressBar;
     private CourseManager courseManager;  
-
-    private List<String> courses;  
+    private UndoHistory history;
+    private SearchIndex searchIndex; // built on the first search, or null
+    private NameResolver nameResolver;
+    private String shownCourse; // course whose topics are displayed, or null
+    private JournalStore store;
+    private RollingEventWriter eventWriter;
 
     private static final String DATA_FILE = "./data/studyTrack.json";
+    private static final String EVENTS_DIR = "./data/events";
     
     // EFFECTS: Initializes the StudyTrack GUI window with default settings and layout,
     //          sets up the courses and main display panels, and makes the frame visible.
     public StudyTrackGUI() {
         super("StudyTrack - Course Progress Tracker");
 
-        courses = new ArrayList<>();
         courseManager = new CourseManager();
+        history = new UndoHistory(courseManager);
+        nameResolver = new NameResolver(courseManager);
+        store = new JournalStore(DATA_FILE);
+        openEventWriter();
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(800, 600);
@@ -50,12 +67,15 @@ public class StudyTrackGUI extends JFrame {
 
         add(coursesPanel, BorderLayout.WEST);
         add(mainDisplayPanel, BorderLayout.CENTER);
+        bindUndoKeys();
 
         setVisible(true);
 
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
+                closeStore();
+                closeEventWriter();
                 printEventLog();
             }
         });
@@ -99,14 +119,26 @@ public class StudyTrackGUI extends JFrame {
         addCourseButton.addActionListener(e -> addNewCourse());
         topPanel.add(Box.createRigidArea(new Dimension(0, 10)));
         topPanel.add(addCourseButton);
+
+        JButton findCourseButton = new JButton("Find Course");
+        styleButton(findCourseButton);
+        findCourseButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        findCourseButton.addActionListener(e -> findCourse());
+        topPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+        topPanel.add(findCourseButton);
+        addSearchBox(topPanel);
         
         coursesPanel.add(topPanel, BorderLayout.NORTH);
     
         // Middle section for the course list
-        courseListPanel = new JPanel();
-        courseListPanel.setLayout(new BoxLayout(courseListPanel, BoxLayout.Y_AXIS));
-        courseListPanel.setBackground(new Color(92, 64, 51));
-        coursesPanel.add(new JScrollPane(courseListPanel), BorderLayout.CENTER);
+        courseList = new JList<>();
+        courseList.setBackground(new Color(92, 64, 51));
+        courseList.setFixedCellHeight(40); // fixed cell sizes spare the list from measuring every course
+        courseList.setFixedCellWidth(180);
+        courseList.setCellRenderer(new CourseCellRenderer());
+        openOnClick(courseList, this::showCourseDetails);
+        refreshCourseListPanel();
+        coursesPanel.add(new JScrollPane(courseList), BorderLayout.CENTER);
     
         // Bottom section for Save and Load buttons
         JPanel bottomPanel = new JPanel();
@@ -126,9 +158,205 @@ public class StudyTrackGUI extends JFrame {
         loadButton.addActionListener(e -> loadData());
         bottomPanel.add(Box.createRigidArea(new Dimension(0, 10)));
         bottomPanel.add(loadButton);
+        addUndoButtons(bottomPanel);
         
         coursesPanel.add(bottomPanel, BorderLayout.SOUTH); 
     }
+
+    // EFFECTS: Adds a search box to the given panel that shows the matching courses, topics and
+    //          objectives when Enter is pressed in it.
+    private void addSearchBox(JPanel panel) {
+        JTextField searchField = new JTextField();
+        searchField.setToolTipText("Search courses, topics and objectives, then press Enter");
+        searchField.setMaximumSize(new Dimension(180, 30));
+        searchField.setAlignmentX(Component.CENTER_ALIGNMENT);
+        searchField.addActionListener(e -> showSearchResults(searchField.getText()));
+        panel.add(Box.createRigidArea(new Dimension(0, 10)));
+        panel.add(searchField);
+    }
+
+    // EFFECTS: Shows the best matches for query in a dialog; choosing one shows its course.
+    //          Builds the search index on first use, and keeps it up to date after.
+    private void showSearchResults(String query) {
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex(courseManager);
+        }
+        List<SearchResult> results = searchIndex.search(query);
+        if (results.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No matches for '" + query + "'.");
+            return;
+        }
+        JDialog dialog = new JDialog(this, "Search results - " + query, true);
+        JList<SearchResult> resultList = new JList<>(results.toArray(new SearchResult[0]));
+        resultList.setSelectedIndex(0);
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    openSearchResult(resultList.getSelectedValue(), dialog);
+                }
+            }
+        });
+        resultList.getInputMap().put(KeyStroke.getKeyStroke("ENTER"), "open");
+        resultList.getActionMap().put("open", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                openSearchResult(resultList.getSelectedValue(), dialog);
+            }
+        });
+        dialog.add(new JScrollPane(resultList));
+        dialog.setSize(500, 300);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    // EFFECTS: Closes dialog and shows the course of result, if one is chosen.
+    private void openSearchResult(SearchResult result, JDialog dialog) {
+        dialog.dispose();
+        if (result != null) {
+            showCourseDetails(result.getCourseName());
+        }
+    }
+
+    // EFFECTS: Asks for part of a course name, suggesting courses as the user types, and shows the
+    //          course it stands for; says so if it matches no course, or several equally well.
+    private void findCourse() {
+        String query = promptWithSuggestions("Find course:",
+                q -> nameResolver.suggestCourses(q, NameResolver.DEFAULT_LIMIT));
+        if (query == null) {
+            return;
+        }
+        String courseName = nameResolver.resolveCourse(query);
+        if (courseName != null) {
+            showCourseDetails(courseName);
+        } else {
+            JOptionPane.showMessageDialog(this, "No single course matches '" + query + "'.");
+        }
+    }
+
+    // EFFECTS: Asks for a name with the given message, listing the close names suggest gives for the
+    //          text as the user types it; double-clicking one fills it in. Returns the text entered, or
+    //          null if the dialog is cancelled or the text is blank.
+    private String promptWithSuggestions(String message, Function<String, List<String>> suggest) {
+        JTextField field = new JTextField(25);
+        JList<String> suggestionList = new JList<>();
+        suggestionList.setVisibleRowCount(6);
+        listSuggestionsAsTyped(field, suggestionList, suggest);
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && suggestionList.getSelectedValue() != null) {
+                    field.setText(suggestionList.getSelectedValue());
+                }
+            }
+        });
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.add(new JLabel(message), BorderLayout.NORTH);
+        panel.add(field, BorderLayout.CENTER);
+        panel.add(new JScrollPane(suggestionList), BorderLayout.SOUTH);
+        SwingUtilities.invokeLater(field::requestFocusInWindow);
+        int choice = JOptionPane.showConfirmDialog(this, panel, "StudyTrack",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        String text = field.getText();
+        return choice == JOptionPane.OK_OPTION && !text.trim().isEmpty() ? text : null;
+    }
+
+    // EFFECTS: Refills suggestionList with the names suggest gives for the text of field whenever
+    //          that text changes.
+    private void listSuggestionsAsTyped(JTextField field, JList<String> suggestionList,
+                                        Function<String, List<String>> suggest) {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                update();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                update();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                update();
+            }
+
+            private void update() {
+                suggestionList.setListData(suggest.apply(field.getText()).toArray(new String[0]));
+            }
+        });
+    }
+
+    // EFFECTS: Adds side-by-side Undo and Redo buttons to the given panel.
+    private void addUndoButtons(JPanel panel) {
+        JPanel undoPanel = new JPanel(new GridLayout(1, 2, 5, 0));
+        undoPanel.setBackground(new Color(92, 64, 51));
+        JButton undoButton = new JButton("Undo");
+        undoButton.addActionListener(e -> undoLastChange());
+        undoPanel.add(undoButton);
+        JButton redoButton = new JButton("Redo");
+        redoButton.addActionListener(e -> redoLastChange());
+        undoPanel.add(redoButton);
+        panel.add(Box.createRigidArea(new Dimension(0, 10)));
+        panel.add(undoPanel);
+    }
+
+    // EFFECTS: Binds Ctrl+Z to undo and Ctrl+Y to redo anywhere in the window.
+    private void bindUndoKeys() {
+        InputMap keys = getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        keys.put(KeyStroke.getKeyStroke("control Z"), "undo");
+        keys.put(KeyStroke.getKeyStroke("control Y"), "redo");
+        getRootPane().getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                undoLastChange();
+            }
+        });
+        getRootPane().getActionMap().put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                redoLastChange();
+            }
+        });
+    }
+
+    // EFFECTS: Reverses the latest change to the courses and refreshes the window, or says there is none.
+    private void undoLastChange() {
+        if (history.undo()) {
+            refreshAfterHistoryChange();
+        } else {
+            JOptionPane.showMessageDialog(this, "Nothing to undo.");
+        }
+    }
+
+    // EFFECTS: Makes the latest undone change again and refreshes the window, or says there is none.
+    private void redoLastChange() {
+        if (history.redo()) {
+            refreshAfterHistoryChange();
+        } else {
+            JOptionPane.showMessageDialog(this, "Nothing to redo.");
+        }
+    }
+
+    // EFFECTS: Shows the displayed course as it is after an undo or redo, which may have brought it back
+    //          as a new course; clears the display if the displayed course no longer exists. The course
+    //          list follows the manager by itself.
+    private void refreshAfterHistoryChange() {
+        if (shownCourse != null && courseManager.getCourse(shownCourse) != null) {
+            showCourseDetails(shownCourse);
+        } else if (shownCourse != null) {
+            shownCourse = null;
+            if (topicListModel != null) {
+                topicListModel.detach();
+                topicListModel = null;
+            }
+            mainDisplayPanel.removeAll();
+            mainDisplayPanel.add(progressBar, BorderLayout.EAST);
+            progressBar.setProgress(0);
+            mainDisplayPanel.revalidate();
+            mainDisplayPanel.repaint();
+        }
+    }
     
     // EFFECTS: Sets up the main display panel in the center of the frame with a welcome message
     //          and adds the circular progress bar component to the right side of the display panel.
@@ -157,20 +385,15 @@ public class StudyTrackGUI extends JFrame {
     }
  
 
-    // EFFECTS: Prompts the user to input a course name and adds the course via CourseManager.
+    // EFFECTS: Prompts the user to input a course name, listing similar existing courses as they type,
+    //          and adds the course via CourseManager.
     //          Updates the GUI and logs the event if the course is successfully added.
     private void addNewCourse() {
-        String courseName = JOptionPane.showInputDialog(this, "Enter course name:");
-        if (courseName != null && !courseName.trim().isEmpty()) {
-            boolean added = courseManager.addCourse(courseName);
-            if (added) {
-                JButton courseButton = new JButton(courseName);
-                courseButton.setAlignmentX(Component.CENTER_ALIGNMENT);
-                courseButton.addActionListener(new CourseButtonListener(courseName));
-                courseListPanel.add(courseButton);
-                courseListPanel.revalidate();
-                courseListPanel.repaint();
-            } else {
+        String courseName = promptWithSuggestions("Enter course name:",
+                q -> nameResolver.suggestCourses(q, NameResolver.DEFAULT_LIMIT));
+        if (courseName != null) {
+            boolean added = courseManager.addCourse(courseName); // the course list follows the manager
+            if (!added) {
                 JOptionPane.showMessageDialog(this, "Course '" + courseName + "' already exists.");
             }
         }
@@ -180,6 +403,7 @@ public class StudyTrackGUI extends JFrame {
     // EFFECTS: Clears the main display panel, sets up the course header and topics panel,
     //          adds the circular progress bar, and a button to add topics, then repaints the panel.
     private void showCourseDetails(String courseName) {
+        shownCourse = courseName;
         mainDisplayPanel.removeAll();
         mainDisplayPanel.add(progressBar, BorderLayout.EAST);
     
@@ -187,7 +411,7 @@ public class StudyTrackGUI extends JFrame {
         setupTopicsPanel(courseName);
         addAddTopicButton(courseName);
     
-        mainDisplayPanel.add(new JScrollPane(topicsPanel), BorderLayout.CENTER);
+        mainDisplayPanel.add(topicsPanel, BorderLayout.CENTER);
         updateCourseConfidence(courseName);
         mainDisplayPanel.revalidate();
         mainDisplayPanel.repaint();
@@ -217,15 +441,15 @@ public class StudyTrackGUI extends JFrame {
     }
     
 
-    // EFFECTS: Prompts the user to input a new topic name. 
+    // EFFECTS: Prompts the user to input a new topic name, listing similar topics of the course as they type.
     //If valid, adds the new topic to the course via CourseManager.
     private void promptForNewTopic(String courseName) {
-        String topicName = JOptionPane.showInputDialog(this, "Enter topic name:");
-        if (topicName != null && !topicName.trim().isEmpty()) {
+        String topicName = promptWithSuggestions("Enter topic name:",
+                q -> nameResolver.suggestTopics(courseName, q, NameResolver.DEFAULT_LIMIT));
+        if (topicName != null) {
             Course course = courseManager.getCourse(courseName);
             if (course != null) {
-                course.addTopic(topicName); // Add the topic to the course and log the event
-                updateTopicsPanel(courseName); // Refresh the topics panel
+                course.addTopic(topicName); // Add the topic and log the event; the topic list follows it
             } else {
                 JOptionPane.showMessageDialog(this, "Course '" + courseName + "' not found.");
             }
@@ -233,50 +457,11 @@ public class StudyTrackGUI extends JFrame {
     }
     
 
-    // EFFECTS: Updates the topics panel to reflect the current list of topics in the given course.
-    private void updateTopicsPanel(String courseName) {
-        setupTopicsPanel(courseName);
-        mainDisplayPanel.revalidate();
-        mainDisplayPanel.repaint();
-    }
-
-
-    
-    // EFFECTS: Adds a visual representation of the given topic to the topics panel, including
-    //          a button to view its lesson objectives.
-    private void addTopicToPanel(Topic topic, String courseName) {
-        // Create a panel for the topic "card"
-        JPanel topicPanel = new JPanel();
-        topicPanel.setBackground(new Color(245, 245, 220)); 
-        topicPanel.setLayout(new BoxLayout(topicPanel, BoxLayout.Y_AXIS));
-        topicPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        topicPanel.setPreferredSize(new Dimension(400, 80)); 
-        topicPanel.setMaximumSize(new Dimension(400, 80)); 
-        topicPanel.setAlignmentX(Component.CENTER_ALIGNMENT); 
-    
-        // Add a label for the topic name and confidence level
-        JLabel topicLabel = new JLabel(topic.getName() + " - Confidence: " + topic.getConfidenceLevel() + "%");
-        topicLabel.setFont(new Font("Chalkboard", Font.PLAIN, 14));
-        topicLabel.setForeground(new Color(60, 40, 30)); 
-        topicPanel.add(topicLabel);
-    
-        // Add a button to view lesson objectives
-        JButton viewObjectivesButton = new JButton("View Lesson Objectives");
-        viewObjectivesButton.setFont(new Font("Chalkboard", Font.PLAIN, 12)); 
-        viewObjectivesButton.addActionListener(e -> openLessonObjectivesDialog(topic, topicLabel, courseName));
-        topicPanel.add(viewObjectivesButton);
-    
-        // Add the topic panel to the topicsPanel
-        topicsPanel.add(Box.createRigidArea(new Dimension(0, 10))); 
-        topicsPanel.add(topicPanel);
-        topicsPanel.revalidate();
-        topicsPanel.repaint();
-    }
-
-    // EFFECTS: Initializes the topics panel, configures its layout, and adds any existing topics
-    //          associated with the given course to the panel.
+    // EFFECTS: Initializes the topics panel with a list of the given course's topics, drawn as cards
+    //          over the panel's background; clicking a topic opens its lesson objectives. The list reads
+    //          the topics from the course and follows its changes, painting only the visible cards.
     private void setupTopicsPanel(String courseName) {
-        topicsPanel = new JPanel() {
+        topicsPanel = new JPanel(new BorderLayout()) {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
@@ -285,67 +470,68 @@ public class StudyTrackGUI extends JFrame {
                 g.drawImage(img, 0, 0, getWidth(), getHeight(), this);
             }
         };
-        topicsPanel.setLayout(new BoxLayout(topicsPanel, BoxLayout.Y_AXIS));
-    
+        if (topicListModel != null) {
+            topicListModel.detach();
+            topicListModel = null;
+        }
+        JList<Topic> topicList = new JList<>();
         Course course = courseManager.getCourse(courseName);
         if (course != null) {
-            for (Topic topic : course.getTopics()) {
-                addTopicToPanel(topic, courseName);
-            }
+            topicListModel = new TopicListModel(courseManager, course);
+            topicList.setModel(topicListModel);
         }
-    
-        // Clear the center panel and add the topicsPanel, progress bar, and Add Topic button
-        mainDisplayPanel.removeAll(); // Clear any previous content
-        mainDisplayPanel.add(new JScrollPane(topicsPanel), BorderLayout.CENTER);
-        mainDisplayPanel.add(progressBar, BorderLayout.EAST); // Re-add the progress bar
-        addAddTopicButton(courseName); // Re-add the "Add Topic" button
-        mainDisplayPanel.revalidate();
-        mainDisplayPanel.repaint();
+        topicList.setOpaque(false);
+        topicList.setFixedCellHeight(TopicCardRenderer.ROW_HEIGHT);
+        topicList.setFixedCellWidth(TopicCardRenderer.ROW_WIDTH);
+        topicList.setCellRenderer(new TopicCardRenderer());
+        openOnClick(topicList, topic -> openLessonObjectivesDialog(topic, courseName));
+        JScrollPane scrollPane = new JScrollPane(topicList);
+        scrollPane.setOpaque(false);
+        scrollPane.getViewport().setOpaque(false);
+        topicsPanel.add(scrollPane, BorderLayout.CENTER);
     }
     
     
-    // EFFECTS: Opens a dialog window displaying the lesson objectives for the specified topic.
-    //          Allows users to dynamically add lesson objectives and mark them as mastered/unmastered.
-    // EFFECTS: Opens a dialog window displaying the lesson objectives for the specified topic.
-    //          Allows users to dynamically add lesson objectives and mark them as mastered/unmastered.
-    private void openLessonObjectivesDialog(Topic topic, JLabel topicLabel, String courseName) {
+    // EFFECTS: Opens a dialog window displaying the lesson objectives for the specified topic in a table.
+    //          Allows users to add lesson objectives and mark them as mastered/unmastered; the table
+    //          follows the topic's changes until the dialog is closed.
+    private void openLessonObjectivesDialog(Topic topic, String courseName) {
+        Course course = courseManager.getCourse(courseName);
+        if (course == null) {
+            return;
+        }
         JDialog objectivesDialog = new JDialog(this, "Lesson Objectives - " + topic.getName(), true);
         objectivesDialog.setSize(400, 300);
         objectivesDialog.setLayout(new BoxLayout(objectivesDialog.getContentPane(), BoxLayout.Y_AXIS));
 
-        JPanel objectivesPanel = createObjectivesPanel(topic, topicLabel, courseName, objectivesDialog);
-        objectivesDialog.add(new JScrollPane(objectivesPanel)); 
-
-        JButton addObjectiveButton = createAddObjectiveButton(
-                    topic, objectivesPanel, topicLabel, courseName, objectivesDialog);
-        objectivesDialog.add(addObjectiveButton);
-
-        JButton closeButton = createCloseButton(objectivesDialog);
-        objectivesDialog.add(closeButton);
+        ObjectiveTableModel objectives = new ObjectiveTableModel(courseManager, course, topic);
+        objectives.addTableModelListener(e -> updateCourseConfidence(courseName));
+        objectivesDialog.add(new JScrollPane(createObjectivesTable(objectives)));
+        objectivesDialog.add(createAddObjectiveButton(topic, objectivesDialog));
+        objectivesDialog.add(createCloseButton(objectivesDialog));
 
         objectivesDialog.setLocationRelativeTo(this);
         objectivesDialog.setVisible(true);
+        objectives.detach();
     }
 
-    // Helper method: Creates the objectives panel
-    private JPanel createObjectivesPanel(Topic topic, JLabel topicLabel, String courseName, JDialog dialog) {
-        JPanel objectivesPanel = new JPanel();
-        objectivesPanel.setLayout(new BoxLayout(objectivesPanel, BoxLayout.Y_AXIS));
-        updateObjectivesList(topic, objectivesPanel, topicLabel, courseName);
-        return objectivesPanel;
+    // Helper method: Creates the table of objectives, with a check box to master each one
+    private JTable createObjectivesTable(ObjectiveTableModel objectives) {
+        JTable table = new JTable(objectives);
+        table.setFillsViewportHeight(true);
+        table.setTableHeader(null);
+        table.getColumnModel().getColumn(ObjectiveTableModel.MASTERED_COLUMN).setMaxWidth(30);
+        return table;
     }
 
     // Helper method: Creates the "Add Objective" button
-    private JButton createAddObjectiveButton(
-            Topic topic, JPanel objectivesPanel, JLabel topicLabel, String courseName, JDialog dialog) {
+    private JButton createAddObjectiveButton(Topic topic, JDialog dialog) {
         JButton button = new JButton("+ Add Lesson Objective");
         button.setAlignmentX(Component.CENTER_ALIGNMENT);
         button.addActionListener(e -> {
             String newObjective = JOptionPane.showInputDialog(dialog, "Enter lesson objective:");
             if (newObjective != null && !newObjective.trim().isEmpty()) {
-                topic.addLessonObjective(newObjective);
-                topic.updateConfidenceLevel(); 
-                updateObjectivesList(topic, objectivesPanel, topicLabel, courseName);
+                topic.addLessonObjective(newObjective); // the table follows the topic
             }
         });
         return button;
@@ -359,36 +545,11 @@ public class StudyTrackGUI extends JFrame {
         return button;
     }
 
-
-    // Helper method to refresh the objectives list
-    private void updateObjectivesList(Topic topic, JPanel objectivesPanel, JLabel topicLabel, String courseName) {
-        objectivesPanel.removeAll(); // Clear existing list
-
-        for (LessonObjective objective : topic.getLessonObjectives()) {
-            JCheckBox objectiveCheckbox = new JCheckBox(objective.getDescription());
-            objectiveCheckbox.setSelected(objective.isMastered());
-            objectiveCheckbox.addActionListener(e -> {
-                if (objectiveCheckbox.isSelected()) {
-                    objective.markAsMastered();
-                } else {
-                    objective.unmarkAsMastered();
-                }
-                topic.updateConfidenceLevel();
-                topicLabel.setText(topic.getName() + " - Confidence: " + topic.getConfidenceLevel() + "%");
-                updateCourseConfidence(courseName);
-            });
-            objectivesPanel.add(objectiveCheckbox);
-        }
-
-        objectivesPanel.revalidate();
-        objectivesPanel.repaint();
-    }
-
     // EFFECTS: Calculates the average confidence level for all topics in the specified course
     //          and updates the circular progress bar with the new value.
     private void updateCourseConfidence(String courseName) {
         Course course = courseManager.getCourse(courseName);
-        if (course == null || course.getTopics().isEmpty()) {
+        if (course == null || course.getTopicCount() == 0) {
             progressBar.setProgress(0);
             return;
         }
@@ -398,48 +559,48 @@ public class StudyTrackGUI extends JFrame {
     }
     
 
-    private class CourseButtonListener implements ActionListener {
-        private String courseName;
-
-        public CourseButtonListener(String courseName) {
-            this.courseName = courseName;
-        }
-
+    // Renders each course name of the course list like the other buttons of the courses panel
+    private static class CourseCellRenderer extends DefaultListCellRenderer {
         @Override
-        public void actionPerformed(ActionEvent e) {
-            showCourseDetails(courseName);
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            setHorizontalAlignment(SwingConstants.CENTER);
+            setFont(new Font("Chalkboard", Font.PLAIN, 16));
+            setBackground(isSelected ? new Color(220, 220, 170) : new Color(241, 241, 200));
+            setForeground(new Color(92, 64, 51));
+            setBorder(BorderFactory.createMatteBorder(2, 10, 2, 10, list.getBackground()));
+            return this;
         }
     }
     
-    // EFFECTS: Writes the current course data to a JSON file, saving all courses and their associated
-    //          topics and objectives. Displays a success or error message.
+    // EFFECTS: Makes the current course data durable, saving all courses and their associated
+    //          topics and objectives. Once data has been saved or loaded, every change is already
+    //          in the journal, so this only flushes it. Displays a success or error message.
     private void saveData() {
-        JsonWriter writer = new JsonWriter(DATA_FILE);
         try {
-            writer.open();
-            writer.write(new ArrayList<>(courseManager.getCourseNames().stream()
-                    .map(courseName -> courseManager.getCourse(courseName))
-                    .collect(Collectors.toList())));
-            writer.close();
+            store.save(courseManager);
             JOptionPane.showMessageDialog(this, "Data saved successfully!");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             JOptionPane.showMessageDialog(this, "Unable to save data: " + e.getMessage());
         }
     }
     
     
-    // EFFECTS: Loads course data from a JSON file, repopulating the courses with course manager
-    //          with previously saved data. Refreshes the GUI with the loaded courses.
+    // EFFECTS: Loads course data from the data file and its journal, replacing the course manager
+    //          with previously saved data and starting a new undo history, name lookup and search index. A binary data
+    //          file is only indexed; each course is read when it is first shown or searched. Refreshes the
+    //          GUI with the loaded courses.
     private void loadData() {
-        JsonReader reader = new JsonReader(DATA_FILE);
         try {
-            List<Course> loadedCourses = reader.read();
-            courseManager = new CourseManager(); // Reset CourseManager
-            for (Course course : loadedCourses) {
-                courseManager.addCourse(course.getName());
-                for (Topic topic : course.getTopics()) {
-                    courseManager.getCourse(course.getName()).addTopicObject(topic);
-                }
+            courseManager = store.loadLazily();
+            history.detach();
+            history = new UndoHistory(courseManager);
+            nameResolver.detach();
+            nameResolver = new NameResolver(courseManager);
+            if (searchIndex != null) {
+                searchIndex.detach();
+                searchIndex = null;
             }
             refreshCourseListPanel();
             JOptionPane.showMessageDialog(this, "Data loaded successfully!");
@@ -447,20 +608,74 @@ public class StudyTrackGUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Unable to load data: " + e.getMessage());
         }
     }
+
+    // EFFECTS: Starts writing every logged event to rolling files in the events directory, in the
+    //          background; carries on without them if the directory cannot be created.
+    private void openEventWriter() {
+        // the GUI logs on the event dispatch thread, which must never wait for a full queue
+        RollingEventWriter writer = new RollingEventWriter(Paths.get(EVENTS_DIR), "events", OverflowPolicy.DROP);
+        try {
+            writer.open();
+            eventWriter = writer;
+            EventLog.getInstance().addSink(eventWriter);
+        } catch (IOException e) {
+            System.out.println("Unable to write event log files: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: Stops writing events to files, waiting for those already logged to be written.
+    private void closeEventWriter() {
+        if (eventWriter == null) {
+            return;
+        }
+        EventLog.getInstance().removeSink(eventWriter);
+        try {
+            eventWriter.close();
+        } catch (IOException e) {
+            System.out.println("Unable to write event log files: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: Closes the store, waiting for any journal compaction in progress.
+    private void closeStore() {
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println("Unable to close data file: " + e.getMessage());
+        }
+    }
     
 
-    // EFFECTS: Clears and repopulates the course list panel with buttons for each course in the
-    //          courses list. Refreshes the panel to show the updated list.
+    // EFFECTS: Points the course list at a new model of the course manager's course names, after the
+    //          manager has been replaced. The model follows the manager's changes from then on.
     private void refreshCourseListPanel() {
-        courseListPanel.removeAll();
-        for (String courseName : courses) {
-            JButton courseButton = new JButton(courseName);
-            courseButton.setAlignmentX(Component.CENTER_ALIGNMENT);
-            courseButton.addActionListener(new CourseButtonListener(courseName));
-            courseListPanel.add(courseButton);
+        if (courseListModel != null) {
+            courseListModel.detach();
         }
-        courseListPanel.revalidate();
-        courseListPanel.repaint();
+        courseListModel = new CourseListModel(courseManager);
+        courseList.setModel(courseListModel);
+    }
+
+    // EFFECTS: Calls open with the item of list that is clicked, or that is selected when Enter is pressed.
+    private <T> void openOnClick(JList<T> list, Consumer<T> open) {
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0 && list.getCellBounds(index, index).contains(e.getPoint())) {
+                    open.accept(list.getModel().getElementAt(index));
+                }
+            }
+        });
+        list.getInputMap().put(KeyStroke.getKeyStroke("ENTER"), "open");
+        list.getActionMap().put("open", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (list.getSelectedValue() != null) {
+                    open.accept(list.getSelectedValue());
+                }
+            }
+        });
     }
 
     // Helper method to style buttons
@@ -0,0 +1,372 @@
+package ui;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Course;
+import model.CourseManager;
+import model.CourseVersion;
+import model.ModelVersion;
+import model.Topic;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import persistence.UserStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Represents a headless StudyTrack service that hosts many users over HTTP on localhost. Each user
+// has their own data file and concurrent CourseManager, kept in a UserStore that caches the most
+// recently used ones, so requests for different users, or for different courses of one user, are
+// served in parallel. Requests and responses are JSON:
+//   GET    /users/{user}/progress                                   overall and per-course progress
+//   GET    /users/{user}/courses                                    course names
+//   POST   /users/{user}/courses                   {"name"}         add a course
+//   GET    /users/{user}/courses/{course}                           the course with its topics
+//   DELETE /users/{user}/courses/{course}                           remove a course
+//   POST   /users/{user}/courses/{course}/topics   {"name"}         add a topic
+//   DELETE /users/{user}/courses/{course}/topics/{topic}            remove a topic
+//   POST   .../topics/{topic}/objectives           {"description"}  add a lesson objective
+//   PUT    .../topics/{topic}/objectives/{index}   {"mastered"}     mark or unmark an objective
+// Path segments are URL-encoded names; topics are matched ignoring case, as Course.removeTopic does.
+public class StudyTrackServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int FALLBACK_WORKERS = 64;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final UserStore users;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // EFFECTS: constructs a server for localhost on port (0 for any free port) serving the users in
+    //          users; throws IOException if the port cannot be bound. Nothing is served until start is
+    //          called, and users is not closed by stop.
+    public StudyTrackServer(int port, UserStore users) throws IOException {
+        this.users = users;
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/users/", this::handle);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts serving requests in the background
+    public void start() {
+        server.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops accepting requests, waits briefly for those in progress and stops the workers
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: returns the port the server is bound to
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // EFFECTS: returns an executor that runs each request on a virtual thread of its own when the JDK
+    //          has them (Java 21 and later), or on a fixed pool of daemon platform threads otherwise
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(FALLBACK_WORKERS, task -> {
+                Thread worker = new Thread(task, "studytrack-request");
+                worker.setDaemon(true);
+                return worker;
+            });
+        }
+    }
+
+    // EFFECTS: answers one request, turning a RequestException into its status and any other
+    //          failure into 500
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = route(exchange.getRequestMethod(), segments(exchange), exchange);
+            } catch (RequestException e) {
+                response = new Response(e.status, new JSONObject().put("error", e.getMessage()));
+            } catch (RuntimeException | IOException e) {
+                response = new Response(500, new JSONObject().put("error", String.valueOf(e.getMessage())));
+            }
+            send(exchange, response);
+        }
+    }
+
+    // EFFECTS: returns the segments of the request path, each percent-decoded as a URI path is, so
+    //          that an encoded "/" stays inside its segment and "+" stays a plus sign
+    private static List<String> segments(HttpExchange exchange) {
+        List<String> segments = new ArrayList<>();
+        for (String raw : exchange.getRequestURI().getRawPath().split("/")) {
+            if (!raw.isEmpty()) {
+                segments.add(URI.create("/" + raw).getPath().substring(1));
+            }
+        }
+        return segments;
+    }
+
+    // EFFECTS: answers the request for method and path with the named user pinned; path starts with "users"
+    private Response route(String method, List<String> path, HttpExchange exchange) throws IOException {
+        if (path.size() < 3) {
+            throw new RequestException(404, "Not found");
+        }
+        return users.withUser(path.get(1), manager -> dispatch(method, path, manager, exchange));
+    }
+
+    // EFFECTS: picks the handler for method and path
+    private Response dispatch(String method, List<String> path, CourseManager manager, HttpExchange exchange)
+            throws IOException {
+        if (path.size() == 3 && path.get(2).equals("progress")) {
+            return progress(method, manager);
+        }
+        if (!path.get(2).equals("courses") || path.size() > 8 || path.size() > 4 && !path.get(4).equals("topics")
+                || path.size() > 6 && !path.get(6).equals("objectives")) {
+            throw new RequestException(404, "Not found");
+        }
+        switch (path.size()) {
+            case 3:
+                return courses(method, manager, exchange);
+            case 4:
+                return course(method, manager, path.get(3));
+            case 5:
+                return topics(method, manager, path.get(3), exchange);
+            case 6:
+                return topic(method, manager, path.get(3), path.get(5));
+            case 7:
+                return objectives(method, manager, path.get(3), path.get(5), exchange);
+            default:
+                return objective(method, manager, path.get(3), path.get(5), path.get(7), exchange);
+        }
+    }
+
+    // EFFECTS: GET answers the user's overall progress and each course's progress, read from one
+    //          version of the courses without locking or building any course
+    private Response progress(String method, CourseManager manager) {
+        requireMethod(method, "GET");
+        ModelVersion version = manager.getVersion();
+        JSONArray courses = new JSONArray();
+        for (CourseVersion course : version.getCourses()) {
+            courses.put(new JSONObject().put("name", course.getName()).put("progress", course.getOverallProgress()));
+        }
+        return new Response(200, new JSONObject().put("overallProgress", version.getOverallProgress())
+                .put("courses", courses));
+    }
+
+    // EFFECTS: GET lists the user's course names; POST adds the course named in the body
+    private Response courses(String method, CourseManager manager, HttpExchange exchange) throws IOException {
+        if (method.equals("GET")) {
+            return new Response(200, new JSONObject().put("courses", new JSONArray(manager.getCourseNames())));
+        }
+        requireMethod(method, "POST");
+        String name = requireString(body(exchange), "name");
+        if (!manager.addCourse(name)) {
+            throw new RequestException(409, "Course already exists: " + name);
+        }
+        return new Response(201, new JSONObject().put("name", name));
+    }
+
+    // EFFECTS: GET answers the course with its topics and progress; DELETE removes it
+    private Response course(String method, CourseManager manager, String name) {
+        if (method.equals("DELETE")) {
+            if (!manager.removeCourse(name)) {
+                throw notFound("course", name);
+            }
+            return new Response(204, null);
+        }
+        requireMethod(method, "GET");
+        if (manager.getCourse(name) == null) { // builds the course if it is not loaded yet
+            throw notFound("course", name);
+        }
+        CourseVersion course = manager.getVersion().getCourse(name);
+        if (course == null) {
+            throw notFound("course", name);
+        }
+        return new Response(200, course.toJson().put("progress", course.getOverallProgress()));
+    }
+
+    // EFFECTS: POST adds the topic named in the body to the course
+    private Response topics(String method, CourseManager manager, String courseName, HttpExchange exchange)
+            throws IOException {
+        requireMethod(method, "POST");
+        String name = requireString(body(exchange), "name");
+        if (!manager.update(courseName, course -> course.addTopic(name))) {
+            throw notFound("course", courseName);
+        }
+        return new Response(201, new JSONObject().put("name", name));
+    }
+
+    // EFFECTS: DELETE removes the topic from the course
+    private Response topic(String method, CourseManager manager, String courseName, String topicName) {
+        requireMethod(method, "DELETE");
+        boolean found = manager.update(courseName, course -> {
+            findTopic(course, topicName);
+            course.removeTopic(topicName);
+        });
+        if (!found) {
+            throw notFound("course", courseName);
+        }
+        return new Response(204, null);
+    }
+
+    // EFFECTS: POST adds the lesson objective described in the body to the topic
+    private Response objectives(String method, CourseManager manager, String courseName, String topicName,
+                                HttpExchange exchange) throws IOException {
+        requireMethod(method, "POST");
+        String description = requireString(body(exchange), "description");
+        if (!manager.update(courseName, course -> findTopic(course, topicName).addLessonObjective(description))) {
+            throw notFound("course", courseName);
+        }
+        return new Response(201, new JSONObject().put("description", description));
+    }
+
+    // EFFECTS: PUT marks the objective at index mastered or not, as the body's "mastered" says, and
+    //          answers the topic's new confidence level
+    private Response objective(String method, CourseManager manager, String courseName, String topicName,
+                               String index, HttpExchange exchange) throws IOException {
+        requireMethod(method, "PUT");
+        boolean mastered = requireBoolean(body(exchange), "mastered");
+        int position = parseIndex(index);
+        double[] confidence = new double[1];
+        boolean found = manager.update(courseName, course -> {
+            Topic topic = findTopic(course, topicName);
+            if (position >= topic.getObjectiveCount()) {
+                throw notFound("objective", index);
+            }
+            if (mastered) {
+                topic.markObjectiveAsMastered(position);
+            } else {
+                topic.unmarkObjectiveAsMastered(position);
+            }
+            confidence[0] = topic.getConfidenceLevel();
+        });
+        if (!found) {
+            throw notFound("course", courseName);
+        }
+        return new Response(200, new JSONObject().put("mastered", mastered).put("confidenceLevel", confidence[0]));
+    }
+
+    // EFFECTS: returns the topic of course named name, ignoring case; throws RequestException (404) if none
+    private static Topic findTopic(Course course, String name) {
+        Topic topic = course.getTopic(name);
+        if (topic == null) {
+            throw notFound("topic", name);
+        }
+        return topic;
+    }
+
+    // EFFECTS: returns index as a non-negative number; throws RequestException (400) if it is not one
+    private static int parseIndex(String index) {
+        try {
+            int position = Integer.parseInt(index);
+            if (position >= 0) {
+                return position;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new RequestException(400, "Not an objective index: " + index);
+    }
+
+    // EFFECTS: returns the request body as a JSON object, {} if it is empty; throws RequestException
+    //          (400 or 413) if it is not JSON or is too large
+    private static JSONObject body(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new RequestException(413, "Request body too large");
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8).trim();
+        try {
+            return text.isEmpty() ? new JSONObject() : new JSONObject(text);
+        } catch (JSONException e) {
+            throw new RequestException(400, "Malformed JSON: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns the non-empty string field key of json; throws RequestException (400) if missing
+    private static String requireString(JSONObject json, String key) {
+        String value = json.optString(key, "").trim();
+        if (value.isEmpty()) {
+            throw new RequestException(400, "Missing \"" + key + "\"");
+        }
+        return value;
+    }
+
+    // EFFECTS: returns the boolean field key of json; throws RequestException (400) if it is missing or
+    //          not a JSON boolean
+    private static boolean requireBoolean(JSONObject json, String key) {
+        Object value = json.opt(key);
+        if (!(value instanceof Boolean)) {
+            throw new RequestException(400, "Missing boolean \"" + key + "\"");
+        }
+        return (Boolean) value;
+    }
+
+    // EFFECTS: throws RequestException (405) unless method is expected
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new RequestException(405, "Method not allowed: " + method);
+        }
+    }
+
+    // EFFECTS: returns the exception reporting that the named thing does not exist
+    private static RequestException notFound(String what, String name) {
+        return new RequestException(404, "No such " + what + ": " + name);
+    }
+
+    // EFFECTS: writes response to the client
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body == null) {
+            exchange.sendResponseHeaders(response.status, -1);
+            return;
+        }
+        byte[] bytes = response.body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Represents the status and JSON body (null for none) of a response
+    private static final class Response {
+        private final int status;
+        private final JSONObject body;
+
+        Response(int status, JSONObject body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    // Represents a request that cannot be served, with the HTTP status to answer
+    private static final class RequestException extends RuntimeException {
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
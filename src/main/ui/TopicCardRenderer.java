@@ -0,0 +1,48 @@
+package ui;
+
+import model.Topic;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Renders each topic of a list as a card showing its name and confidence level. The same card is
+ * filled in and painted for every visible row, so a list of any length holds no component per topic.
+ */
+public class TopicCardRenderer extends JPanel implements ListCellRenderer<Topic> {
+    public static final int ROW_HEIGHT = 90; // the card and the gap above it
+    public static final int ROW_WIDTH = 420; // the card and a margin on each side
+
+    private static final Color CARD_COLOR = new Color(245, 245, 220);
+    private static final Color SELECTED_CARD_COLOR = new Color(230, 215, 180);
+
+    private final JPanel card = new JPanel();
+    private final JLabel topicLabel = new JLabel();
+
+    // EFFECTS: Constructs a card renderer with a label for the topic and a hint on how to open it.
+    public TopicCardRenderer() {
+        super(new FlowLayout(FlowLayout.CENTER, 0, 10));
+        setOpaque(false);
+        card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
+        card.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        card.setPreferredSize(new Dimension(400, 80));
+
+        topicLabel.setFont(new Font("Chalkboard", Font.PLAIN, 14));
+        topicLabel.setForeground(new Color(60, 40, 30));
+        card.add(topicLabel);
+
+        JLabel hintLabel = new JLabel("Click to view lesson objectives");
+        hintLabel.setFont(new Font("Chalkboard", Font.PLAIN, 12));
+        card.add(hintLabel);
+        add(card);
+    }
+
+    // EFFECTS: Fills in the card for topic, highlighted if it is selected, and returns it.
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Topic> list, Topic topic, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        topicLabel.setText(topic.getName() + " - Confidence: " + topic.getConfidenceLevel() + "%");
+        card.setBackground(isSelected ? SELECTED_CARD_COLOR : CARD_COLOR);
+        return this;
+    }
+}
@@ -0,0 +1,88 @@
+package ui;
+
+import model.Course;
+import model.CourseManager;
+import model.LessonObjective;
+import model.ModelListener;
+import model.Topic;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * Represents the topics of one course as a list model that reads them straight from the course,
+ * kept up to date as a listener of its manager. Adding, inserting or removing a topic tells the
+ * list about that row only, and a change to a topic's objectives repaints that topic, whose
+ * confidence level may have changed. Meant for a manager used by the Swing event thread.
+ */
+public class TopicListModel extends AbstractListModel<Topic> implements ModelListener {
+    private final CourseManager manager;
+    private final Course course;
+
+    // REQUIRES: course belongs to manager
+    // MODIFIES: manager
+    // EFFECTS: Constructs a list model of course's topics that follows manager's changes to it.
+    public TopicListModel(CourseManager manager, Course course) {
+        this.manager = manager;
+        this.course = course;
+        manager.addListener(this);
+    }
+
+    // MODIFIES: manager
+    // EFFECTS: Stops following manager's changes.
+    public void detach() {
+        manager.removeListener(this);
+    }
+
+    @Override
+    public int getSize() {
+        return course.getTopicCount();
+    }
+
+    @Override
+    public Topic getElementAt(int index) {
+        return course.getTopicsView().get(index);
+    }
+
+    @Override
+    public void topicAdded(Course course, Topic topic) {
+        if (course == this.course) {
+            fireIntervalAdded(this, getSize() - 1, getSize() - 1);
+        }
+    }
+
+    @Override
+    public void topicInserted(Course course, int index, Topic topic) {
+        if (course == this.course) {
+            fireIntervalAdded(this, index, index);
+        }
+    }
+
+    @Override
+    public void topicRemoved(Course course, int index, Topic topic) {
+        if (course == this.course) {
+            fireIntervalRemoved(this, index, index);
+        }
+    }
+
+    @Override
+    public void objectiveAdded(Course course, int topicIndex, LessonObjective objective) {
+        topicChanged(course, topicIndex);
+    }
+
+    @Override
+    public void objectiveRemoved(Course course, int topicIndex, LessonObjective objective) {
+        topicChanged(course, topicIndex);
+    }
+
+    @Override
+    public void masteryChanged(Course course, int topicIndex, int objectiveIndex, LessonObjective objective) {
+        topicChanged(course, topicIndex);
+    }
+
+    // EFFECTS: Tells the list the topic at topicIndex has changed, if it belongs to this model's course.
+    private void topicChanged(Course course, int topicIndex) {
+        if (course == this.course) {
+            fireContentsChanged(this, topicIndex, topicIndex);
+        }
+    }
+}
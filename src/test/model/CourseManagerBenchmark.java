@@ -0,0 +1,78 @@
+package model;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures how many course edits per second a concurrent CourseManager sustains with 1, 2, 4 and 8
+ * threads, each editing its own courses, next to a single thread on a plain CourseManager.
+ * Event logging is switched off so only the model is measured. Not a unit test: run its main
+ * method by hand.
+ */
+public class CourseManagerBenchmark {
+    private static final int COURSES_PER_THREAD = 64;
+    private static final int EDITS_PER_THREAD = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        EventLog log = EventLog.getInstance();
+        for (EventCategory category : EventCategory.values()) {
+            log.setLevel(category, EventLevel.OFF);
+        }
+        for (int round = 0; round < 2; round++) { // the first round warms up the JIT
+            report("plain", 1, run(new CourseManager(), 1));
+            for (int threads = 1; threads <= 8; threads *= 2) {
+                report("concurrent", threads, run(CourseManager.concurrent(), threads));
+            }
+        }
+    }
+
+    // EFFECTS: has threads workers each add COURSES_PER_THREAD courses and make EDITS_PER_THREAD edits
+    //          spread over them, returns the elapsed nanoseconds
+    private static long run(CourseManager manager, int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            String prefix = "Worker " + t + " course ";
+            workers[t] = new Thread(() -> {
+                awaitQuietly(start);
+                for (int c = 0; c < COURSES_PER_THREAD; c++) {
+                    manager.addCourse(prefix + c);
+                    manager.update(prefix + c, course -> course.addTopic("Topic"));
+                }
+                for (int i = 0; i < EDITS_PER_THREAD; i++) {
+                    manager.update(prefix + (i % COURSES_PER_THREAD), CourseManagerBenchmark::edit);
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    // MODIFIES: course
+    // EFFECTS: adds an objective to the course's first topic, or marks the first one mastered once there are many
+    private static void edit(Course course) {
+        Topic topic = course.getTopicsView().get(0);
+        if (topic.getObjectiveCount() < 8) {
+            topic.addLessonObjective("Objective");
+        } else {
+            topic.markObjectiveAsMastered(0);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(String mode, int threads, long nanos) {
+        double perSecond = (double) threads * EDITS_PER_THREAD / (nanos / 1e9);
+        System.out.printf("%-10s %d thread(s): %,.0f edits/s%n", mode, threads, perSecond);
+    }
+}
@@ -0,0 +1,151 @@
+package model;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseManagerTest {
+    private CourseManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new CourseManager();
+        manager.addCourse("Biology 111");
+        manager.addCourse("Math 101");
+    }
+
+    @Test
+    void testAddAndRemoveCourse() {
+        assertFalse(manager.addCourse("Math 101"));
+        assertEquals(2, manager.getCourseNames().size());
+        assertTrue(manager.removeCourse("Math 101"));
+        assertFalse(manager.removeCourse("Math 101"));
+        assertNull(manager.getCourse("Math 101"));
+    }
+
+    @Test
+    void testOverallProgressFollowsObjectiveChanges() {
+        assertEquals(0.0, manager.getOverallProgress());
+
+        Course biology = manager.getCourse("Biology 111");
+        biology.addTopic("Cells");
+        Topic cells = biology.getTopics().get(0);
+        cells.addLessonObjective("Define cell");
+        cells.getLessonObjectives().get(0).markAsMastered();
+        assertEquals(50.0, manager.getOverallProgress());
+
+        manager.removeCourse("Math 101");
+        assertEquals(100.0, manager.getOverallProgress());
+
+        cells.addLessonObjective("Describe organelles");
+        assertEquals(50.0, manager.getOverallProgress());
+    }
+
+    @Test
+    void testProgressDoesNotDriftOverManyChanges() {
+        Course biology = manager.getCourse("Biology 111");
+        for (int t = 0; t < 7; t++) {
+            Topic topic = biology.addTopic("Topic " + t);
+            for (int k = 0; k <= t + 2; k++) {
+                topic.addLessonObjective("Objective " + k); // thirds, sevenths and so on
+            }
+        }
+        manager.removeCourse("Math 101");
+        for (int round = 0; round < 2000; round++) {
+            Topic topic = biology.getTopicsView().get(round % 7);
+            int k = round % topic.getObjectiveCount();
+            if (round % 3 == 0) {
+                topic.unmarkObjectiveAsMastered(k);
+            } else {
+                topic.markObjectiveAsMastered(k);
+            }
+        }
+        for (Topic topic : biology.getTopicsView()) {
+            for (int k = 0; k < topic.getObjectiveCount(); k++) {
+                topic.markObjectiveAsMastered(k);
+            }
+        }
+        assertEquals(100.0, biology.getOverallProgress());
+        assertEquals(100.0, manager.getOverallProgress());
+        assertEquals(100.0, manager.getVersion().getOverallProgress());
+        for (Topic topic : biology.getTopicsView()) {
+            for (int k = 0; k < topic.getObjectiveCount(); k++) {
+                topic.unmarkObjectiveAsMastered(k);
+            }
+        }
+        assertEquals(0.0, biology.getOverallProgress());
+        assertEquals(0.0, manager.getOverallProgress());
+        assertEquals(0.0, manager.getVersion().getOverallProgress());
+    }
+
+    @Test
+    void testIndexedCoursesAreBuiltOnFirstAccess() {
+        List<String> built = new ArrayList<>();
+        List<LazyCourse> index = new ArrayList<>();
+        for (String name : List.of("Art 100", "Chem 120", "Art 100")) {
+            index.add(new LazyCourse(name, 40.0, () -> {
+                built.add(name);
+                Topic topic = new Topic("Basics", List.of(new LessonObjective("Learn", false)));
+                topic.setConfidenceLevel(40.0);
+                return new Course(name, List.of(topic));
+            }));
+        }
+        CourseManager lazy = CourseManager.fromIndex(index);
+
+        assertEquals(List.of("Art 100", "Chem 120"), lazy.getCourseNames());
+        assertEquals(40.0, lazy.getOverallProgress());
+        assertTrue(built.isEmpty());
+        assertFalse(lazy.isLoaded("Art 100"));
+
+        Course art = lazy.getCourse("Art 100");
+        assertSame(art, lazy.getCourse("Art 100"));
+        assertTrue(lazy.isLoaded("Art 100"));
+        assertEquals(List.of("Art 100"), built);
+        art.getTopics().get(0).markObjectiveAsMastered(0);
+        assertEquals(70.0, lazy.getOverallProgress());
+
+        assertTrue(lazy.removeCourse("Chem 120"));
+        assertEquals(100.0, lazy.getOverallProgress());
+        assertEquals(1, lazy.getCourses().size());
+    }
+
+    @Test
+    void testConcurrentAddsAndUpdates() throws InterruptedException {
+        CourseManager shared = CourseManager.concurrent();
+        assertTrue(shared.isConcurrent());
+        assertFalse(manager.isConcurrent());
+        int threads = 4;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    String name = "Course " + i;
+                    shared.addCourse(name);
+                    shared.update(name, course -> {
+                        course.addTopic("Topic");
+                        course.getTopics().get(course.getTopics().size() - 1).addLessonObjective("Learn");
+                    });
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(50, shared.getCourseNames().size());
+        assertEquals("Course 0", shared.getCourseNames().get(0));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(threads), shared.read("Course " + i, course -> course.getTopics().size()));
+        }
+        assertTrue(shared.update("Course 7", course -> course.getTopics().get(0).markObjectiveAsMastered(0)));
+        assertEquals(100.0 / threads / 50, shared.getOverallProgress(), 1e-9);
+        assertFalse(shared.update("Missing", course -> fail()));
+        assertNull(shared.read("Missing", Course::getName));
+        assertTrue(shared.removeCourse("Course 7"));
+        assertEquals(0.0, shared.getOverallProgress(), 1e-9);
+    }
+}
@@ -50,6 +50,71 @@ public class CourseTest {
         assertEquals(0.0, course.getOverallProgress());
     }
 
+    @Test
+    void testTopicsViewIsReadOnlyAndLive() {
+        List<Topic> view = course.getTopicsView();
+        assertSame(view, course.getTopicsView());
+        course.addTopic("Ecology");
+        assertEquals(3, view.size());
+        assertEquals("Ecology", view.get(2).getName());
+        course.removeTopic("Cells");
+        assertSame(genetics, view.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new Topic("Other")));
+    }
+
+    @Test
+    void testGetTopicIgnoresCase() {
+        assertSame(cells, course.getTopic("cELLS"));
+        assertTrue(course.hasTopic("GENETICS"));
+        assertNull(course.getTopic("Ecology"));
+        assertFalse(course.hasTopic("Ecology"));
+        assertEquals(2, course.getTopicCount());
+    }
+
+    @Test
+    void testDuplicateNamesAllowed() {
+        Topic second = course.addTopic("cells");
+        course.addTopic("Ecology");
+        assertEquals(4, course.getTopicCount());
+        assertSame(cells, course.getTopic("Cells"));
+
+        course.removeTopic("CELLS");
+        List<Topic> topics = course.getTopics();
+        assertEquals(2, topics.size());
+        assertEquals("Genetics", topics.get(0).getName());
+        assertEquals("Ecology", topics.get(1).getName());
+        assertFalse(course.hasTopic("Cells"));
+        assertNull(second.getCourse());
+        assertEquals(List.of("Genetics", "Ecology"),
+                course.getVersion().getTopics().stream().map(TopicVersion::getName).toList());
+        assertEquals(1, course.getTopic("Ecology").getIndex());
+    }
+
+    @Test
+    void testRemoveMissingTopicDoesNothing() {
+        course.removeTopic("Ecology");
+        assertEquals(2, course.getTopicCount());
+        assertSame(genetics, course.getTopic("Genetics"));
+    }
+
+    @Test
+    void testBulkConstructorIndexesTopics() {
+        Course rebuilt = new Course("Physics", List.of(new Topic("Waves"), new Topic("Optics")));
+        assertEquals("Optics", rebuilt.getTopic("optics").getName());
+        rebuilt.removeTopic("WAVES");
+        assertEquals(1, rebuilt.getTopicCount());
+        assertFalse(rebuilt.hasTopic("Waves"));
+    }
+
+    @Test
+    void testFoldMatchesEqualsIgnoreCase() {
+        assertTrue("\u01C4".equalsIgnoreCase("\u01C5"));
+        assertEquals(Course.fold("\u01C4"), Course.fold("\u01C5"));
+        assertEquals(Course.fold("Cells"), Course.fold("CELLS"));
+        assertSame("cells", Course.fold("cells"));
+    }
+
     @Test
     void testOverallProgressSingleTopic() {
 
@@ -77,6 +142,30 @@ public class CourseTest {
         assertEquals(expectedOverall, course.getOverallProgress());
     }
 
+    @Test
+    void testOverallProgressFollowsDirectObjectiveChanges() {
+        cells.addLessonObjective("Define cell");
+        LessonObjective objective = cells.getLessonObjectives().get(0);
+
+        objective.markAsMastered();
+        assertEquals(50.0, course.getOverallProgress());
+        objective.unmarkAsMastered();
+        assertEquals(0.0, course.getOverallProgress());
+    }
+
+    @Test
+    void testOverallProgressAfterRemovingMasteredTopic() {
+        cells.addLessonObjective("Define cell");
+        cells.markObjectiveAsMastered(0);
+        genetics.addLessonObjective("Understand DNA replication");
+
+        course.removeTopic("Cells");
+        assertEquals(0.0, course.getOverallProgress());
+        cells.unmarkObjectiveAsMastered(0);
+        genetics.markObjectiveAsMastered(0);
+        assertEquals(100.0, course.getOverallProgress());
+    }
+
     @Test
     void testToString() {
         String expectedInitial = "Biology 111 (0.0% overall progress)";
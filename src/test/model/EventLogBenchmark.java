@@ -0,0 +1,96 @@
+package model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures EventLog append throughput with 1, 2, 4 and 8 producer threads, for the unbounded
+ * log and for a bounded ring, then the time to query one course and one time range out of
+ * millions of events. Not a unit test: run its main method by hand.
+ */
+public class EventLogBenchmark {
+    private static final int EVENTS_PER_THREAD = 500_000;
+    private static final int RING_CAPACITY = 4096;
+    private static final int QUERY_EVENTS = 2_000_000;
+    private static final int QUERY_COURSES = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        EventLog log = EventLog.getInstance();
+        for (int round = 0; round < 2; round++) { // the first round warms up the JIT
+            for (int threads = 1; threads <= 8; threads *= 2) {
+                log.setUnbounded();
+                log.clear();
+                report("unbounded", threads, run(log, threads));
+                log.setBounded(RING_CAPACITY);
+                report("bounded " + RING_CAPACITY, threads, run(log, threads));
+            }
+        }
+        log.setUnbounded();
+        log.clear();
+        runQueries(log);
+        log.clear();
+    }
+
+    // EFFECTS: logs QUERY_EVENTS events spread over QUERY_COURSES courses, then times a course query
+    //          and a query for the last thousandth of the time range
+    private static void runQueries(EventLog log) {
+        for (int i = 0; i < QUERY_EVENTS; i++) {
+            log.logEvent(Event.topicAdded("Course " + (i % QUERY_COURSES), "Topic"));
+        }
+        List<Event> events = log.snapshot();
+        Instant recent = events.get(events.size() - events.size() / 1000).getInstant();
+        for (int round = 0; round < 3; round++) {
+            long begin = System.nanoTime();
+            int inCourse = count(log.forCourse("Course 7", null, null));
+            long middle = System.nanoTime();
+            int inRange = count(log.between(recent, null));
+            long end = System.nanoTime();
+            System.out.printf("course query: %d events in %,d us; range query: %d events in %,d us%n",
+                    inCourse, (middle - begin) / 1000, inRange, (end - middle) / 1000);
+        }
+    }
+
+    private static int count(Iterable<Event> events) {
+        int count = 0;
+        for (Event ignored : events) {
+            count++;
+        }
+        return count;
+    }
+
+    // EFFECTS: has threads producers log EVENTS_PER_THREAD events each, returns the elapsed nanoseconds
+    private static long run(EventLog log, int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            producers[t] = new Thread(() -> {
+                Event event = new Event("benchmark");
+                awaitQuietly(start);
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    log.logEvent(event);
+                }
+            });
+            producers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(String mode, int threads, long nanos) {
+        double perSecond = (double) threads * EVENTS_PER_THREAD / (nanos / 1e9);
+        System.out.printf("%-14s %d thread(s): %,.0f events/s%n", mode, threads, perSecond);
+    }
+}
@@ -1,14 +1,19 @@
 package model;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -53,4 +58,248 @@ public class EventLogTest {
         assertEquals("Event log cleared.", itr.next().getDescription());
         assertFalse(itr.hasNext());
     }
+
+    @AfterEach
+    public void restoreUnbounded() {
+        EventLog el = EventLog.getInstance();
+        el.setUnbounded();
+        for (EventCategory category : EventCategory.values()) {
+            el.setLevel(category, EventLevel.INFO);
+            el.setSampling(category, 1);
+        }
+    }
+
+    @Test
+    public void testBoundedDropsOldest() {
+        EventLog el = EventLog.getInstance();
+        el.setBounded(2);
+        assertEquals(2, el.getCapacity());
+        assertEquals(List.of(e2, e3), last(el, 2));
+
+        Event e4 = new Event("A4");
+        el.logEvent(e4);
+        assertEquals(List.of(e3, e4), el.snapshot());
+
+        el.setUnbounded();
+        assertEquals(0, el.getCapacity());
+        el.logEvent(e1);
+        assertEquals(List.of(e3, e4, e1), last(el, 3));
+    }
+
+    @Test
+    public void testQueriesByTimeAndEntity() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        Event added = Event.courseAdded("Math 101");
+        Event topic = Event.topicAdded("Math 101", "Limits");
+        Event mastered = Event.masteryChanged("Math 101", "Limits", "Define a limit", false, true);
+        Event other = Event.topicAdded("Physics", "Limits");
+        for (Event e : List.of(added, topic, mastered, other)) {
+            el.logEvent(e);
+        }
+
+        assertEquals(List.of(added, topic, mastered), toList(el.forCourse("Math 101", null, null)));
+        assertEquals(List.of(topic, mastered), toList(el.forTopic("Math 101", "Limits", null, null)));
+        assertEquals(List.of(other), toList(el.forTopic("Physics", "Limits", null, null)));
+        assertTrue(toList(el.forCourse("History", null, null)).isEmpty());
+
+        assertEquals(List.of(topic, mastered, other), toList(el.between(topic.getInstant(), null)));
+        assertEquals(List.of(topic), toList(el.forCourse("Math 101", topic.getInstant(), mastered.getInstant())));
+        assertTrue(toList(el.between(Instant.MAX, null)).isEmpty());
+        assertEquals(5, toList(el.between(Instant.MIN, Instant.MAX)).size());
+    }
+
+    @Test
+    public void testQueryResultIgnoresLaterEvents() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        Iterable<Event> before = el.forCourse("Math 101", null, null);
+        el.logEvent(Event.courseAdded("Math 101"));
+        assertTrue(toList(before).isEmpty());
+        for (int i = 0; i < 100; i++) {
+            el.logEvent(Event.topicAdded("Math 101", "Topic " + i));
+        }
+        Iterable<Event> all = el.forCourse("Math 101", null, null);
+        el.logEvent(Event.courseRemoved("Math 101"));
+        assertEquals(101, toList(all).size());
+        assertEquals(102, toList(el.forCourse("Math 101", null, null)).size());
+    }
+
+    @Test
+    public void testBoundedIndexKeepsRecentEvents() {
+        EventLog el = EventLog.getInstance();
+        el.setBounded(2);
+        el.logEvent(Event.topicAdded("Math 101", "Limits"));
+        el.logEvent(Event.topicAdded("Math 101", "Series"));
+        el.logEvent(Event.courseAdded("Physics"));
+        assertEquals(List.of("Series"),
+                toList(el.forCourse("Math 101", null, null)).stream().map(Event::getTopic).toList());
+        assertTrue(toList(el.forTopic("Math 101", "Limits", null, null)).isEmpty());
+        assertEquals(2, toList(el.between(null, null)).size());
+    }
+
+    @Test
+    public void testLevelsGateCategories() {
+        EventLog el = EventLog.getInstance();
+        assertEquals(EventLevel.INFO, el.getLevel(EventCategory.STRUCTURE));
+        assertTrue(el.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO));
+        assertFalse(el.shouldLog(EventCategory.STRUCTURE, EventLevel.DEBUG));
+        assertFalse(el.shouldLog(EventCategory.STRUCTURE, EventLevel.OFF));
+
+        el.setLevel(EventCategory.STRUCTURE, EventLevel.OFF);
+        assertFalse(el.shouldLog(EventCategory.STRUCTURE, EventLevel.WARNING));
+        assertTrue(el.shouldLog(EventCategory.MASTERY, EventLevel.INFO));
+
+        el.clear();
+        Course course = new Course("Math 101");
+        course.addTopic("Limits");
+        course.getTopics().get(0).addLessonObjective("Define a limit");
+        course.getTopics().get(0).markObjectiveAsMastered(0);
+        List<Event> logged = el.snapshot();
+        assertEquals(2, logged.size());
+        assertEquals(EventKind.MASTERY_CHANGED, logged.get(1).getKind());
+
+        el.setLevel(EventCategory.GENERAL, EventLevel.OFF);
+        el.clear();
+        assertTrue(el.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testSamplingKeepsOneInN() {
+        EventLog el = EventLog.getInstance();
+        el.setSampling(EventCategory.MASTERY, 3);
+        assertEquals(3, el.getSampling(EventCategory.MASTERY));
+        int logged = 0;
+        for (int i = 0; i < 9; i++) {
+            if (el.shouldLog(EventCategory.MASTERY, EventLevel.INFO)) {
+                logged++;
+            }
+        }
+        assertEquals(3, logged);
+        assertFalse(el.shouldLog(EventCategory.MASTERY, EventLevel.DEBUG));
+        assertTrue(el.shouldLog(EventCategory.STRUCTURE, EventLevel.INFO));
+    }
+
+    @Test
+    public void testSinksReceiveLoggedEvents() {
+        EventLog el = EventLog.getInstance();
+        List<Event> received = new ArrayList<>();
+        EventSink sink = received::add;
+        el.addSink(sink);
+        el.logEvent(e1);
+        el.removeSink(sink);
+        el.logEvent(e2);
+        assertEquals(List.of(e1), received);
+    }
+
+    @Test
+    public void testBoundedSpillsToSink() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        List<Event> spilled = new ArrayList<>();
+        el.setBounded(1, spilled::add);
+        el.logEvent(e1);
+        el.logEvent(e2);
+        assertEquals("Event log cleared.", spilled.get(0).getDescription());
+        assertEquals(List.of(e1), spilled.subList(1, 2));
+        assertEquals(List.of(e2), el.snapshot());
+
+        el.clear();
+        assertEquals(1, el.getCapacity());
+        assertEquals("Event log cleared.", el.snapshot().get(0).getDescription());
+    }
+
+    @Test
+    public void testConcurrentLoggingKeepsEveryEvent() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        ConcurrentLinkedQueue<Event> spilled = new ConcurrentLinkedQueue<>();
+        el.setBounded(64, spilled::add);
+        el.clear();
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    el.logEvent(new Event("concurrent"));
+                }
+            });
+            producers[t].start();
+        }
+        assertDoesNotThrow(() -> {
+            for (Event next : el) {
+                el.logEvent(new Event("while iterating"));
+            }
+        });
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        int iterated = el.snapshot().size();
+        assertEquals(64, iterated);
+        assertTrue(spilled.size() >= 4001 - 64);
+    }
+
+    @Test
+    public void testReconfiguringWhileLoggingLosesNothing() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    el.logEvent(new Event("concurrent"));
+                }
+            });
+            producers[t].start();
+        }
+        for (int i = 0; i < 20; i++) {
+            el.setBounded(100000);
+            el.setUnbounded();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(1 + 8000, el.snapshot().size());
+    }
+
+    @Test
+    public void testIndexingWhileLoggingLosesNothing() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        el.setUnbounded();
+        el.clear();
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    el.logEvent(Event.courseAdded("Math 101"));
+                }
+            });
+            producers[t].start();
+        }
+        toList(el.forCourse("Math 101", null, null)); // starts indexing while the producers log
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(8000, toList(el.forCourse("Math 101", null, null)).size());
+        assertEquals(1 + 8000, el.snapshot().size());
+        assertEquals("Event log cleared.", el.snapshot().get(0).getDescription());
+    }
+
+    @Test
+    public void testSingletonAcrossThreads() throws InterruptedException {
+        EventLog[] seen = new EventLog[1];
+        Thread other = new Thread(() -> seen[0] = EventLog.getInstance());
+        other.start();
+        other.join();
+        assertSame(EventLog.getInstance(), seen[0]);
+    }
+
+    private List<Event> last(EventLog el, int count) {
+        List<Event> events = el.snapshot();
+        return events.subList(events.size() - count, events.size());
+    }
+
+    private static List<Event> toList(Iterable<Event> events) {
+        List<Event> list = new ArrayList<>();
+        events.forEach(list::add);
+        return list;
+    }
 }
@@ -4,36 +4,81 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.Calendar;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for the Event class
  */
 public class EventTest {
     private Event event;
-    private Date date;
-    
-    //NOTE: these tests might fail if time at which line (2) below is executed
-    //is different from time that line (1) is executed.  Lines (1) and (2) must
-    //run in same millisecond for this test to make sense and pass.
+    private long before;
+    private long after;
+
+    // The event's time stamp comes from the wall clock, so it must fall between the readings around it.
     
     @BeforeEach
     public void runBefore() {
-        event = new Event("Sensor open at door");   // (1)
-        date = Calendar.getInstance().getTime();   // (2)
+        before = System.currentTimeMillis();
+        event = new Event("Sensor open at door");
+        after = System.currentTimeMillis();
     }
     
     @Test
     public void testEvent() {
         assertEquals("Sensor open at door", event.getDescription());
-        assertEquals(date, event.getDate());
+        long logged = event.getDate().getTime();
+        assertTrue(before <= logged && logged <= after);
+        assertEquals(logged, event.getInstant().toEpochMilli());
     }
 
     @Test
     public void testToString() {
-        assertEquals(date.toString() + "\n" + "Sensor open at door", event.toString());
+        assertEquals(event.getDate().toString() + "\n" + "Sensor open at door", event.toString());
+    }
+
+    @Test
+    public void testDeferredDescription() {
+        Event one = new Event("Added course '{}' to the system.", "Math 101");
+        assertEquals("Added course 'Math 101' to the system.", one.getDescription());
+        Event many = new Event("Loaded {} course(s) from {}.", 3, "data.json");
+        assertEquals("Loaded 3 course(s) from data.json.", many.getDescription());
+        Event extra = new Event("{} and {}", "only");
+        assertEquals("only and {}", extra.getDescription());
+        Event braces = new Event("Renamed '{}'", "{}");
+        assertEquals("Renamed '{}'", braces.getDescription());
+    }
+
+    @Test
+    public void testTypedEvents() {
+        Event added = Event.topicAdded("Math 101", "Algebra");
+        assertEquals(EventKind.TOPIC_ADDED, added.getKind());
+        assertEquals("Math 101", added.getCourse());
+        assertEquals("Algebra", added.getTopic());
+        assertNull(added.getObjective());
+        assertEquals("Added topic 'Algebra' to course 'Math 101'.", added.getDescription());
+
+        assertEquals("Added course 'Math 101' to the system.", Event.courseAdded("Math 101").getDescription());
+        assertEquals("Removed course 'Math 101' from the system.", Event.courseRemoved("Math 101").getDescription());
+        assertEquals("Removed topic 'Algebra' from course 'Math 101'.",
+                Event.topicRemoved("Math 101", "Algebra").getDescription());
+        assertEquals("Added lesson objective 'Solve' to topic 'Algebra'.",
+                Event.objectiveAdded(null, "Algebra", "Solve").getDescription());
+        assertEquals("Marked objective 'Solve' as mastered.",
+                Event.masteryChanged(null, null, "Solve", false, true).getDescription());
+        assertEquals("Unmarked objective 'Solve' as mastered in topic 'Algebra'.",
+                Event.masteryChanged("Math 101", "Algebra", "Solve", true, false).getDescription());
+        assertEquals(EventKind.MESSAGE, event.getKind());
+    }
+
+    @Test
+    public void testTimestampsFollowTheWallClock() {
+        Event next = new Event("Sensor open at door");
+        assertTrue(next.getTimestamp() >= event.getTimestamp());
+        assertNotEquals(new Date(0), next.getDate());
     }
 }
@@ -0,0 +1,151 @@
+package model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ModelVersionTest {
+    private CourseManager manager;
+    private Course biology;
+
+    @BeforeEach
+    void setUp() {
+        manager = new CourseManager();
+        manager.addCourse("Biology");
+        manager.addCourse("Math");
+        biology = manager.getCourse("Biology");
+        biology.addTopic("Cells").addLessonObjective("Define cell");
+        biology.addTopic("Genetics").addLessonObjective("DNA");
+    }
+
+    @Test
+    void testOldVersionIsUnchangedByLaterEdits() {
+        ModelVersion before = manager.getVersion();
+        biology.getTopic("Cells").markObjectiveAsMastered(0);
+        ModelVersion after = manager.getVersion();
+
+        assertFalse(objective(before, "Biology", 0, 0).isMastered());
+        assertEquals(0.0, before.getCourse("Biology").getOverallProgress());
+        assertTrue(objective(after, "Biology", 0, 0).isMastered());
+        assertEquals(50.0, after.getCourse("Biology").getOverallProgress());
+        assertEquals(manager.getOverallProgress(), after.getOverallProgress());
+        assertTrue(after.getSequence() > before.getSequence());
+    }
+
+    @Test
+    void testUnchangedPartsAreShared() {
+        ModelVersion before = manager.getVersion();
+        biology.getTopic("Cells").markObjectiveAsMastered(0);
+        ModelVersion after = manager.getVersion();
+
+        assertSame(before.getCourse("Math"), after.getCourse("Math"));
+        assertSame(before.getCourse("Biology").getTopics().get(1), after.getCourse("Biology").getTopics().get(1));
+        assertNotSame(before.getCourse("Biology").getTopics().get(0), after.getCourse("Biology").getTopics().get(0));
+    }
+
+    @Test
+    void testCoursesAddedAndRemoved() {
+        manager.addCourse("Physics");
+        manager.removeCourse("Math");
+        ModelVersion version = manager.getVersion();
+        assertEquals(2, version.getCourseCount());
+        assertNull(version.getCourse("Math"));
+        assertEquals(List.of("Biology", "Physics"), names(version));
+    }
+
+    @Test
+    void testRemovedSlotsAreReclaimed() {
+        for (int i = 0; i < 100; i++) {
+            manager.addCourse("Course " + i);
+        }
+        for (int i = 0; i < 90; i++) {
+            manager.removeCourse("Course " + i);
+        }
+        manager.update("Course 95", course -> course.addTopic("Late"));
+        ModelVersion version = manager.getVersion();
+        assertEquals(manager.getCourseNames(), names(version));
+        assertEquals(1, version.getCourse("Course 95").getTopics().size());
+    }
+
+    @Test
+    void testTopicRemovalKeepsLaterTopicsInPlace() {
+        biology.removeTopic("Cells");
+        biology.getTopic("Genetics").markObjectiveAsMastered(0);
+        CourseVersion course = manager.getVersion().getCourse("Biology");
+        assertEquals(1, course.getTopics().size());
+        assertEquals("Genetics", course.getTopics().get(0).getName());
+        assertTrue(course.getTopics().get(0).getObjectives().get(0).isMastered());
+    }
+
+    @Test
+    void testUnbuiltCoursesAreUnloadedUntilBuilt() {
+        Course built = new Course("History", List.of(new Topic("Rome")));
+        CourseManager lazy = CourseManager.fromIndex(List.of(new LazyCourse("History", 0.0, () -> built)));
+        assertFalse(lazy.getVersion().getCourse("History").isLoaded());
+        assertThrows(IllegalStateException.class, () -> lazy.getVersion().getCourse("History").getTopics());
+
+        lazy.getCourse("History");
+        CourseVersion loaded = lazy.getVersion().getCourse("History");
+        assertTrue(loaded.isLoaded());
+        assertEquals("Rome", loaded.getTopics().get(0).getName());
+    }
+
+    @Test
+    void testReadersSeeConsistentVersionsWhileWriting() throws InterruptedException {
+        CourseManager shared = CourseManager.concurrent();
+        shared.addCourse("Chemistry");
+        shared.update("Chemistry", course -> {
+            Topic topic = course.addTopic("Bonds");
+            for (int i = 0; i < 10; i++) {
+                topic.addLessonObjective("Objective " + i);
+            }
+        });
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 20_000 && failure.get() == null; i++) {
+                checkConsistent(shared.getVersion().getCourse("Chemistry").getTopics().get(0), failure);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20_000; i++) {
+            int index = i % 10;
+            shared.update("Chemistry", course -> toggle(course.getTopic("Bonds"), index));
+        }
+        reader.join();
+        assertNull(failure.get());
+    }
+
+    // EFFECTS: records a failure if topic's confidence does not match its objectives
+    private static void checkConsistent(TopicVersion topic, AtomicReference<String> failure) {
+        int mastered = 0;
+        for (ObjectiveVersion objective : topic.getObjectives()) {
+            mastered += objective.isMastered() ? 1 : 0;
+        }
+        if (topic.getConfidenceLevel() != mastered * 100.0 / topic.getObjectives().size()) {
+            failure.set(topic.getConfidenceLevel() + "% with " + mastered + " mastered");
+        }
+    }
+
+    private static void toggle(Topic topic, int index) {
+        if (topic.getLessonObjectivesView().get(index).isMastered()) {
+            topic.unmarkObjectiveAsMastered(index);
+        } else {
+            topic.markObjectiveAsMastered(index);
+        }
+    }
+
+    private static ObjectiveVersion objective(ModelVersion version, String course, int topic, int objective) {
+        return version.getCourse(course).getTopics().get(topic).getObjectives().get(objective);
+    }
+
+    private static List<String> names(ModelVersion version) {
+        List<String> names = new ArrayList<>();
+        for (CourseVersion course : version.getCourses()) {
+            names.add(course.getName());
+        }
+        return names;
+    }
+}
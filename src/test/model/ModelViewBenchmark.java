@@ -0,0 +1,95 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Measures the bytes allocated and time taken by one read-only pass over every topic and objective
+ * of a large course, the way a GUI refresh or a save reads the model, using the copying getters
+ * (getTopics, getLessonObjectives) and the read-only views (getTopicsView, getLessonObjectivesView).
+ * Event logging is switched off so only the model is measured. Not a unit test: run its main
+ * method by hand on a HotSpot JVM, which reports per-thread allocation.
+ */
+public class ModelViewBenchmark {
+    private static final int TOPICS = 2_000;
+    private static final int OBJECTIVES_PER_TOPIC = 20;
+    private static final int PASSES = 2_000;
+
+    public static void main(String[] args) {
+        EventLog log = EventLog.getInstance();
+        for (EventCategory category : EventCategory.values()) {
+            log.setLevel(category, EventLevel.OFF);
+        }
+        Course course = buildCourse();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT
+            measure("copies", threads, () -> copyingPass(course));
+            measure("views", threads, () -> viewPass(course));
+        }
+    }
+
+    // EFFECTS: returns a course of TOPICS topics of OBJECTIVES_PER_TOPIC objectives, every other one mastered
+    private static Course buildCourse() {
+        Course course = new Course("Benchmark");
+        for (int t = 0; t < TOPICS; t++) {
+            Topic topic = course.addTopic("Topic " + t);
+            for (int o = 0; o < OBJECTIVES_PER_TOPIC; o++) {
+                topic.addLessonObjective("Objective " + o);
+                if (o % 2 == 0) {
+                    topic.markObjectiveAsMastered(o);
+                }
+            }
+        }
+        return course;
+    }
+
+    // EFFECTS: counts the mastered objectives of course, reading it through the copying getters
+    private static int copyingPass(Course course) {
+        int mastered = 0;
+        for (Topic topic : course.getTopics()) {
+            if (!topic.getLessonObjectives().isEmpty()) {
+                for (LessonObjective objective : topic.getLessonObjectives()) {
+                    mastered += objective.isMastered() ? 1 : 0;
+                }
+            }
+        }
+        return mastered;
+    }
+
+    // EFFECTS: counts the mastered objectives of course, reading it through the views
+    private static int viewPass(Course course) {
+        int mastered = 0;
+        List<Topic> topics = course.getTopicsView();
+        for (int t = 0; t < topics.size(); t++) {
+            Topic topic = topics.get(t);
+            if (topic.getObjectiveCount() != 0) {
+                List<LessonObjective> objectives = topic.getLessonObjectivesView();
+                for (int o = 0; o < objectives.size(); o++) {
+                    mastered += objectives.get(o).isMastered() ? 1 : 0;
+                }
+            }
+        }
+        return mastered;
+    }
+
+    // EFFECTS: runs PASSES passes and prints the bytes allocated and microseconds taken per pass
+    private static void measure(String label, com.sun.management.ThreadMXBean threads, Pass pass) {
+        long id = Thread.currentThread().getId();
+        long checksum = 0;
+        long bytesBefore = threads.getThreadAllocatedBytes(id);
+        long begin = System.nanoTime();
+        for (int i = 0; i < PASSES; i++) {
+            checksum += pass.run();
+        }
+        long nanos = System.nanoTime() - begin;
+        long bytes = threads.getThreadAllocatedBytes(id) - bytesBefore;
+        System.out.printf("%-7s %,12d bytes/pass %,9.1f us/pass %,8.0f MB/s (checksum %d)%n", label,
+                bytes / PASSES, nanos / 1e3 / PASSES, bytes / 1e6 / (nanos / 1e9), checksum);
+    }
+
+    // Represents one pass over the model
+    private interface Pass {
+        int run();
+    }
+}
@@ -0,0 +1,52 @@
+package model;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how long a NameIndex of tens of thousands of names takes to suggest names for queries
+ * typed one character at a time, with and without typos. Not a unit test: run its main method by hand.
+ */
+public class NameIndexBenchmark {
+    private static final int NAMES = 50_000;
+    private static final int LOOKUPS = 500;
+    private static final String[] SYLLABLES = {"bio", "chem", "phys", "math", "hist", "geo", "lit", "art", "eco",
+        "logy", "istry", "ics", "ory", "graphy", "nomics", "ature", "al", "ic", "on", "er"};
+    private static final String[] QUERIES = {"b", "bi", "bio", "biol", "biolo", "biology 1", "biolgoy 12",
+        "chemistry 4", "chemsitry 42", "nomics"};
+
+    public static void main(String[] args) {
+        NameIndex index = new NameIndex();
+        Random random = new Random(42);
+        for (int i = 0; i < NAMES; i++) {
+            index.add(randomName(random) + " " + random.nextInt(1000));
+        }
+        for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT
+            for (String query : QUERIES) {
+                measure(index, query);
+            }
+        }
+    }
+
+    // EFFECTS: returns a capitalized name of two or three random syllables
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int s = 0; s < syllables; s++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    // EFFECTS: looks up query LOOKUPS times and prints the microseconds per lookup
+    private static void measure(NameIndex index, String query) {
+        long begin = System.nanoTime();
+        List<String> suggestions = List.of();
+        for (int i = 0; i < LOOKUPS; i++) {
+            suggestions = index.suggest(query, NameResolver.DEFAULT_LIMIT);
+        }
+        double micros = (System.nanoTime() - begin) / 1e3 / LOOKUPS;
+        System.out.printf("%-13s %8.1f us/lookup, best: %s%n", query, micros,
+                suggestions.isEmpty() ? "none" : suggestions.get(0));
+    }
+}
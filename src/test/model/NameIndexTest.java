@@ -0,0 +1,57 @@
+package model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class NameIndexTest {
+    private NameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameIndex();
+        for (String name : List.of("Biology", "Biochemistry", "Bio", "Microbiology", "Chemistry", "History")) {
+            index.add(name);
+        }
+    }
+
+    @Test
+    void testExactThenPrefixThenInside() {
+        assertEquals(List.of("Bio", "Biology", "Biochemistry", "Microbiology"), index.suggest("bio", 10));
+        assertEquals(List.of("Bio", "Biology"), index.suggest("BIO", 2));
+        assertEquals(List.of("Chemistry", "Biochemistry"), index.suggest("chem", 10));
+    }
+
+    @Test
+    void testTyposWithinAllowedEdits() {
+        assertEquals("Biology", index.suggest("biolgy", 10).get(0));
+        assertEquals("Chemistry", index.suggest("chemistyr", 10).get(0));
+        assertTrue(index.suggest("bxo", 10).isEmpty()); // short queries must match exactly
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testDistance() {
+        assertEquals(0, NameIndex.distance("bio", "biology", 2));
+        assertEquals(3, NameIndex.distance("log", "biology", 3));
+        assertEquals(1, NameIndex.distance("biolgy", "biology", 2));
+        assertEquals(1, NameIndex.distance("biologyy", "biology", 2)); // the name may be shorter
+        assertEquals(2, NameIndex.distance("xyz", "biology", 1)); // more than the limit
+    }
+
+    @Test
+    void testAddAndRemoveCopies() {
+        index.add("Bio");
+        index.remove("Bio");
+        assertTrue(index.contains("Bio"));
+        index.remove("Bio");
+        assertFalse(index.contains("Bio"));
+        assertEquals(List.of("Biology", "Biochemistry", "Microbiology"), index.suggest("bio", 10));
+        index.add("Biophysics"); // reuses the freed id
+        assertEquals(List.of("Biology", "Biophysics", "Biochemistry", "Microbiology"), index.suggest("bio", 10));
+        assertEquals(6, index.size());
+        index.remove("Unknown");
+        assertEquals(6, index.size());
+    }
+}
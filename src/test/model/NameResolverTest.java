@@ -0,0 +1,56 @@
+package model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class NameResolverTest {
+    private CourseManager manager;
+    private NameResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        manager = new CourseManager();
+        manager.addCourse("Biology 101");
+        manager.addCourse("Biology 201");
+        manager.addCourse("Chemistry");
+        manager.getCourse("Chemistry").addTopic("Bonds");
+        manager.getCourse("Chemistry").addTopic("Acids and bases");
+        resolver = new NameResolver(manager);
+    }
+
+    @Test
+    void testResolveCourse() {
+        assertEquals("Chemistry", resolver.resolveCourse("chem"));
+        assertEquals("Chemistry", resolver.resolveCourse("chemsitry"));
+        assertNull(resolver.resolveCourse("bio")); // two courses are equally likely
+        assertEquals("Biology 201", resolver.resolveCourse("biology 201"));
+        assertNull(resolver.resolveCourse("physics"));
+        assertEquals(List.of("Biology 101", "Biology 201"), resolver.suggestCourses("biol", 5));
+    }
+
+    @Test
+    void testResolveTopic() {
+        assertEquals("Acids and bases", resolver.resolveTopic("Chemistry", "base"));
+        assertEquals("Bonds", resolver.resolveTopic("Chemistry", "bond"));
+        assertTrue(resolver.suggestTopics("Physics", "bond", 5).isEmpty());
+    }
+
+    @Test
+    void testFollowsChanges() {
+        assertEquals("Bonds", resolver.resolveTopic("Chemistry", "bonds"));
+        manager.getCourse("Chemistry").removeTopic("Bonds");
+        manager.getCourse("Chemistry").addTopic("Redox");
+        assertNull(resolver.resolveTopic("Chemistry", "bonds"));
+        assertEquals("Redox", resolver.resolveTopic("Chemistry", "red"));
+
+        manager.addCourse("Physics");
+        manager.removeCourse("Biology 101");
+        assertEquals("Physics", resolver.resolveCourse("phys"));
+        assertEquals("Biology 201", resolver.resolveCourse("bio"));
+        resolver.detach();
+        manager.addCourse("Physiology");
+        assertEquals("Physics", resolver.resolveCourse("phys"));
+    }
+}
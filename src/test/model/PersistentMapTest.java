@@ -0,0 +1,81 @@
+package model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PersistentMapTest {
+
+    @Test
+    void testEmpty() {
+        PersistentMap<String, Integer> empty = PersistentMap.empty();
+        assertEquals(0, empty.size());
+        assertTrue(empty.isEmpty());
+        assertNull(empty.get("a"));
+        assertSame(empty, empty.minus("a"));
+    }
+
+    @Test
+    void testPlusAndMinusLeaveOriginalUnchanged() {
+        PersistentMap<String, Integer> one = PersistentMap.<String, Integer>empty().plus("a", 1);
+        PersistentMap<String, Integer> two = one.plus("b", 2);
+        PersistentMap<String, Integer> replaced = two.plus("a", 3);
+        assertEquals(1, one.size());
+        assertNull(one.get("b"));
+        assertEquals(2, two.size());
+        assertEquals(1, two.get("a"));
+        assertEquals(2, replaced.size());
+        assertEquals(3, replaced.get("a"));
+        assertSame(replaced, replaced.plus("a", 3));
+        PersistentMap<String, Integer> removed = replaced.minus("a");
+        assertEquals(1, removed.size());
+        assertNull(removed.get("a"));
+        assertEquals(3, replaced.get("a"));
+    }
+
+    @Test
+    void testKeysWithEqualHashCodes() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().plus("Aa", 1).plus("BB", 2)
+                .plus("AaAa", 3).plus("BBBB", 4).plus("AaBB", 5);
+        assertEquals(5, map.size());
+        assertEquals(1, map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+        assertEquals(5, map.get("AaBB"));
+        assertNull(map.get("BBAa"));
+        map = map.minus("Aa").minus("BBBB");
+        assertEquals(3, map.size());
+        assertNull(map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+        assertEquals(3, map.get("AaAa"));
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        Random random = new Random(210);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentMap<Integer, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(5000) * (random.nextBoolean() ? 1 : 1 << 20);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.get(key << 20), map.get(key << 20));
+        }
+        for (Integer key : expected.keySet()) {
+            map = map.minus(key);
+        }
+        assertTrue(map.isEmpty());
+    }
+}
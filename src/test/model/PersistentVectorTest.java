@@ -0,0 +1,122 @@
+package model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PersistentVectorTest {
+
+    @Test
+    void testEmpty() {
+        PersistentVector<String> empty = PersistentVector.empty();
+        assertEquals(0, empty.size());
+        assertTrue(empty.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+    }
+
+    @Test
+    void testPlusGrowsThroughLevels() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            vector = vector.plus(i);
+            expected.add(i);
+        }
+        assertEquals(expected, vector);
+        assertEquals(39_999, vector.get(39_999));
+        PersistentVector<Integer> full = vector;
+        assertThrows(IndexOutOfBoundsException.class, () -> full.get(40_000));
+    }
+
+    @Test
+    void testOfMatchesPlus() {
+        for (int size : new int[] {1, 31, 32, 33, 1024, 1025, 5000}) {
+            List<Integer> items = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                items.add(i * 7);
+            }
+            PersistentVector<Integer> built = PersistentVector.of(items);
+            assertEquals(items, built);
+            assertEquals(size * 7, built.plus(size * 7).get(size)); // appending after a bulk build
+        }
+    }
+
+    @Test
+    void testWithLeavesOriginalUnchanged() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            items.add(i);
+        }
+        PersistentVector<Integer> original = PersistentVector.of(items);
+        PersistentVector<Integer> changed = original.with(1234, -1);
+        assertEquals(1234, original.get(1234));
+        assertEquals(-1, changed.get(1234));
+        assertEquals(1233, changed.get(1233));
+        assertEquals(2000, changed.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> original.with(2000, 0));
+    }
+
+    @Test
+    void testWithout() {
+        PersistentVector<String> vector = PersistentVector.of(List.of("a", "b", "c"));
+        assertEquals(List.of("a", "c"), vector.without(1));
+        assertEquals(List.of("a", "b", "c"), vector);
+    }
+
+    @Test
+    void testWithTailKeepsPrefixAndReplacesRest() {
+        for (int size : new int[] {0, 1, 32, 33, 1024, 1025, 5000}) {
+            List<Integer> items = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                items.add(i);
+            }
+            PersistentVector<Integer> original = PersistentVector.of(items);
+            for (int from : new int[] {0, size / 3, size}) {
+                for (int tailSize : new int[] {0, 1, 40, 2000}) {
+                    List<Integer> tail = new ArrayList<>();
+                    for (int i = 0; i < tailSize; i++) {
+                        tail.add(-i);
+                    }
+                    List<Integer> expected = new ArrayList<>(items.subList(0, from));
+                    expected.addAll(tail);
+                    PersistentVector<Integer> replaced = original.withTail(from, tail);
+                    assertEquals(expected, replaced);
+                    assertEquals(expected.size() + 1, replaced.plus(7).size()); // the trie is well formed
+                    assertEquals(items, original);
+                }
+            }
+        }
+        assertEquals(List.of(1, 3), PersistentVector.of(List.of(1, 2, 3)).without(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> PersistentVector.empty().withTail(1, List.of()));
+    }
+
+    @Test
+    void testMinusLastShrinksThroughLevels() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 2000; i++) {
+            vector = vector.plus(i);
+        }
+        PersistentVector<Integer> full = vector;
+        for (int size = 2000; size > 0; size--) {
+            vector = vector.minusLast();
+            assertEquals(size - 1, vector.size());
+            if (size % 97 == 0 || size < 40) {
+                assertEquals(full.subList(0, size - 1), vector);
+                assertEquals(size - 1, vector.plus(size - 1).get(size - 1)); // appending after a trim
+            }
+        }
+        assertEquals(2000, full.size());
+        PersistentVector<Integer> empty = vector;
+        assertThrows(IndexOutOfBoundsException.class, empty::minusLast);
+    }
+
+    @Test
+    void testIsUnmodifiable() {
+        PersistentVector<String> vector = PersistentVector.of(List.of("a"));
+        assertThrows(UnsupportedOperationException.class, () -> vector.add("b"));
+        assertThrows(UnsupportedOperationException.class, () -> vector.set(0, "b"));
+        assertThrows(UnsupportedOperationException.class, () -> vector.remove(0));
+    }
+}
@@ -0,0 +1,77 @@
+package model;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how long a SearchIndex takes to index a million objectives and to answer full-word,
+ * prefix and multi-word queries over them. Objective descriptions are drawn from a vocabulary of
+ * common and rare words, so queries range from a few matches to hundreds of thousands. Event
+ * logging is switched off so only the model and index are measured. Not a unit test: run its main
+ * method by hand, giving the JVM a heap of 2 GB or more.
+ */
+public class SearchIndexBenchmark {
+    private static final int COURSES = 100;
+    private static final int TOPICS_PER_COURSE = 100;
+    private static final int OBJECTIVES_PER_TOPIC = 100;
+    private static final int VOCABULARY = 50_000;
+    private static final int WORDS_PER_OBJECTIVE = 6;
+    private static final int QUERIES = 200;
+    private static final String[] QUERY_SET = {"word17", "word4", "word12345", "word1 word2", "wo", "course 42"};
+
+    public static void main(String[] args) {
+        EventLog log = EventLog.getInstance();
+        for (EventCategory category : EventCategory.values()) {
+            log.setLevel(category, EventLevel.OFF);
+        }
+        CourseManager manager = buildManager();
+        long begin = System.nanoTime();
+        SearchIndex index = new SearchIndex(manager);
+        System.out.printf("indexed %,d entries in %,.0f ms%n", index.size(), (System.nanoTime() - begin) / 1e6);
+        for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT
+            for (String query : QUERY_SET) {
+                measure(index, query);
+            }
+        }
+    }
+
+    // EFFECTS: returns a manager of COURSES courses of TOPICS_PER_COURSE topics of OBJECTIVES_PER_TOPIC
+    //          objectives, each described by random words favouring the low-numbered ones
+    private static CourseManager buildManager() {
+        Random random = new Random(42);
+        CourseManager manager = new CourseManager();
+        for (int c = 0; c < COURSES; c++) {
+            manager.addCourse("Course " + c);
+            Course course = manager.getCourse("Course " + c);
+            for (int t = 0; t < TOPICS_PER_COURSE; t++) {
+                Topic topic = course.addTopic("Topic " + t);
+                for (int o = 0; o < OBJECTIVES_PER_TOPIC; o++) {
+                    topic.addLessonObjective(description(random));
+                }
+            }
+        }
+        return manager;
+    }
+
+    // EFFECTS: returns WORDS_PER_OBJECTIVE random words, word i drawn with probability about 1 / i
+    private static String description(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < WORDS_PER_OBJECTIVE; w++) {
+            int word = (int) Math.pow(VOCABULARY, random.nextDouble());
+            text.append(w == 0 ? "" : " ").append("word").append(word);
+        }
+        return text.toString();
+    }
+
+    // EFFECTS: runs query QUERIES times and prints its milliseconds per search
+    private static void measure(SearchIndex index, String query) {
+        long begin = System.nanoTime();
+        List<SearchResult> results = List.of();
+        for (int i = 0; i < QUERIES; i++) {
+            results = index.search(query);
+        }
+        double millis = (System.nanoTime() - begin) / 1e6 / QUERIES;
+        System.out.printf("%-12s %8.3f ms/search, best: %s%n", query, millis,
+                results.isEmpty() ? "none" : results.get(0));
+    }
+}
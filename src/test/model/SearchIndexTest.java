@@ -0,0 +1,129 @@
+package model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class SearchIndexTest {
+    private CourseManager manager;
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        manager = new CourseManager();
+        manager.addCourse("Biology");
+        Course biology = manager.getCourse("Biology");
+        Topic cells = biology.addTopic("Cells");
+        cells.addLessonObjective("Define the cell membrane");
+        cells.addLessonObjective("Describe cell division");
+        biology.addTopic("Genetics").addLessonObjective("Explain DNA replication");
+        index = new SearchIndex(manager);
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(Set.of("dna", "s", "role", "in", "cells2"), SearchIndex.tokenize("DNA's role, in cells2!"));
+        assertTrue(SearchIndex.tokenize(" -- ").isEmpty());
+    }
+
+    @Test
+    void testSearchFindsEveryKindOfEntry() {
+        assertEquals(List.of("Biology"), texts(index.search("biology")));
+        assertEquals(List.of("Genetics"), texts(index.search("GENETICS")));
+        List<SearchResult> results = index.search("replication");
+        assertEquals(1, results.size());
+        SearchResult result = results.get(0);
+        assertEquals(SearchResultKind.OBJECTIVE, result.getKind());
+        assertEquals("Biology", result.getCourseName());
+        assertEquals("Genetics", result.getTopicName());
+        assertEquals(1, result.getTopicIndex());
+        assertEquals(0, result.getObjectiveIndex());
+        assertEquals("Biology > Genetics > Explain DNA replication", result.toString());
+    }
+
+    @Test
+    void testEveryWordMustMatchInFullOrAsPrefix() {
+        assertEquals(List.of("Describe cell division"), texts(index.search("cell div")));
+        assertEquals(List.of("Describe cell division"), texts(index.search("division cell")));
+        assertTrue(index.search("cell replication").isEmpty());
+        assertTrue(index.search("").isEmpty());
+    }
+
+    @Test
+    void testShortEntriesRankFirst() {
+        List<String> ranked = texts(index.search("cell"));
+        assertEquals(3, ranked.size());
+        assertTrue(ranked.indexOf("Describe cell division") < ranked.indexOf("Define the cell membrane"));
+        assertEquals(List.of(ranked.get(0)), texts(index.search("cell", 1)));
+    }
+
+    @Test
+    void testFullWordRanksAbovePrefix() {
+        manager.addCourse("Chemistry");
+        manager.getCourse("Chemistry").addTopic("Cell");
+        List<String> ranked = texts(index.search("cell"));
+        assertTrue(ranked.indexOf("Cell") < ranked.indexOf("Cells"));
+    }
+
+    @Test
+    void testIndexFollowsChanges() {
+        Course biology = manager.getCourse("Biology");
+        biology.getTopic("Genetics").addLessonObjective("Draw a Punnett square");
+        assertEquals(1, index.search("punnett").size());
+        biology.removeTopic("Genetics");
+        assertTrue(index.search("punnett").isEmpty());
+        assertTrue(index.search("genetics").isEmpty());
+
+        manager.addCourse("Chemistry");
+        manager.getCourse("Chemistry").addTopic("Bonds").addLessonObjective("Draw covalent bonds");
+        assertEquals(List.of("Draw covalent bonds"), texts(index.search("draw")));
+        manager.removeCourse("Biology");
+        assertTrue(index.search("cell").isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testUndoneChangesAreUnindexed() {
+        UndoHistory history = new UndoHistory(manager);
+        manager.getCourse("Biology").removeTopic("Cells");
+        assertTrue(index.search("membrane").isEmpty());
+        history.undo();
+        SearchResult result = index.search("membrane").get(0);
+        assertEquals(0, result.getTopicIndex());
+        manager.getCourse("Biology").getTopic("Genetics").addLessonObjective("Mendel");
+        history.undo();
+        assertTrue(index.search("mendel").isEmpty());
+    }
+
+    @Test
+    void testRemovedEntriesAreDroppedOnRebuild() {
+        manager.addCourse("Bulk");
+        Topic bulk = manager.getCourse("Bulk").addTopic("Bulk");
+        for (int i = 0; i < 3000; i++) {
+            bulk.addLessonObjective("Objective " + i);
+        }
+        manager.removeCourse("Bulk");
+        assertEquals(6, index.size());
+        assertTrue(index.search("objective").isEmpty());
+        assertEquals(List.of("Explain DNA replication"), texts(index.search("dna")));
+        assertEquals(1, index.search("dna").get(0).getTopicIndex());
+    }
+
+    @Test
+    void testDetachStopsFollowing() {
+        index.detach();
+        manager.addCourse("Chemistry");
+        assertTrue(index.search("chemistry").isEmpty());
+    }
+
+    private static List<String> texts(List<SearchResult> results) {
+        List<String> texts = new ArrayList<>();
+        for (SearchResult result : results) {
+            texts.add(result.getText());
+        }
+        return texts;
+    }
+}
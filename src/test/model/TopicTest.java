@@ -35,6 +35,18 @@ public class TopicTest {
         assertEquals(0.0, topic.getConfidenceLevel());
     }
 
+    @Test
+    void testLessonObjectivesViewIsReadOnlyAndLive() {
+        List<LessonObjective> view = topic.getLessonObjectivesView();
+        assertSame(view, topic.getLessonObjectivesView());
+        topic.addLessonObjective("Define photosynthesis");
+        assertEquals(1, view.size());
+        assertEquals(1, topic.getObjectiveCount());
+        assertEquals("Define photosynthesis", view.get(0).getDescription());
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new LessonObjective("Other", false)));
+    }
+
     @Test
     void testMarkObjectiveAsMastered() {
         topic.addLessonObjective("Define photosynthesis");
@@ -65,6 +77,21 @@ public class TopicTest {
         assertEquals(expectedConfidence, topic.getConfidenceLevel());
     }
 
+    @Test
+    void testDirectObjectiveMutationUpdatesConfidence() {
+        topic.addLessonObjective("Define photosynthesis");
+        topic.addLessonObjective("Describe the Calvin cycle");
+        LessonObjective objective = topic.getLessonObjectives().get(1);
+
+        objective.markAsMastered();
+        assertEquals(50.0, topic.getConfidenceLevel());
+        objective.markAsMastered();
+        assertEquals(50.0, topic.getConfidenceLevel());
+        objective.unmarkAsMastered();
+        objective.unmarkAsMastered();
+        assertEquals(0.0, topic.getConfidenceLevel());
+    }
+
     @Test
     void testToString() {
         String expectedInitial = "Photosynthesis (0.0% confident)";
@@ -119,4 +146,25 @@ public class TopicTest {
         assertEquals(isMastered, jsonObjective.getBoolean("isMastered"));  // Validate mastery status
     }
     
+
+    @Test
+    void testMasteryLogsOneTypedEvent() {
+        Course course = new Course("Biology 111");
+        course.addTopicObject(topic);
+        topic.addLessonObjective("Define photosynthesis");
+        EventLog.getInstance().clear();
+
+        topic.markObjectiveAsMastered(0);
+        List<Event> events = EventLog.getInstance().snapshot();
+        assertEquals(2, events.size());
+        Event mastered = events.get(1);
+        assertEquals(EventKind.MASTERY_CHANGED, mastered.getKind());
+        assertEquals("Biology 111", mastered.getCourse());
+        assertEquals("Photosynthesis", mastered.getTopic());
+        assertEquals("Define photosynthesis", mastered.getObjective());
+        assertFalse(mastered.getOldValue());
+        assertTrue(mastered.getNewValue());
+        assertEquals("Marked objective 'Define photosynthesis' as mastered in topic 'Photosynthesis'.",
+                mastered.getDescription());
+    }
 }
@@ -0,0 +1,180 @@
+package model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UndoHistoryTest {
+    private CourseManager manager;
+    private UndoHistory history;
+
+    @BeforeEach
+    void setUp() {
+        manager = new CourseManager();
+        history = new UndoHistory(manager);
+    }
+
+    @Test
+    void testEmptyHistory() {
+        assertFalse(history.canUndo());
+        assertFalse(history.canRedo());
+        assertFalse(history.undo());
+        assertFalse(history.redo());
+    }
+
+    @Test
+    void testUndoAndRedoEveryKindOfChange() {
+        manager.addCourse("Biology");
+        Course biology = manager.getCourse("Biology");
+        Topic cells = biology.addTopic("Cells");
+        cells.addLessonObjective("Define cell");
+        cells.markObjectiveAsMastered(0);
+        biology.addTopic("Genetics");
+        biology.removeTopic("Cells");
+        List<String> steps = new ArrayList<>();
+        while (history.canUndo()) {
+            steps.add(describe(manager));
+            history.undo();
+        }
+        assertTrue(manager.getCourseNames().isEmpty());
+
+        List<String> redone = new ArrayList<>();
+        redone.add(describe(manager));
+        while (history.canRedo()) {
+            history.redo();
+            redone.add(0, describe(manager));
+        }
+        redone.remove(redone.size() - 1);
+        assertEquals(steps, redone);
+    }
+
+    @Test
+    void testUndoTopicRemovalRestoresPositionAndProgress() {
+        manager.addCourse("Biology");
+        Course biology = manager.getCourse("Biology");
+        biology.addTopic("Cells").addLessonObjective("Define cell");
+        biology.getTopic("Cells").markObjectiveAsMastered(0);
+        biology.addTopic("Genetics");
+        biology.removeTopic("Cells");
+        assertEquals(0.0, biology.getOverallProgress());
+
+        history.undo();
+        assertEquals("Cells", biology.getTopicsView().get(0).getName());
+        assertEquals(50.0, biology.getOverallProgress());
+        assertEquals(50.0, manager.getVersion().getCourse("Biology").getOverallProgress());
+        assertTrue(biology.hasTopic("cells"));
+    }
+
+    @Test
+    void testUndoDuplicateRemovalAsOneStep() {
+        manager.addCourse("Biology");
+        Course biology = manager.getCourse("Biology");
+        biology.addTopic("Cells");
+        biology.addTopic("Genetics");
+        biology.addTopic("cells");
+        biology.removeTopic("CELLS");
+        assertEquals(1, biology.getTopicCount());
+
+        history.undo();
+        assertEquals(List.of("Cells", "Genetics", "cells"), topicNames(biology));
+        history.redo();
+        assertEquals(List.of("Genetics"), topicNames(biology));
+        history.undo();
+        history.undo(); // the second "cells" was added on its own
+        assertEquals(List.of("Cells", "Genetics"), topicNames(biology));
+        history.redo();
+        biology.removeTopic("Cells");
+        assertFalse(biology.hasTopic("cells")); // the name index was restored in order
+    }
+
+    @Test
+    void testUndoCourseRemovalPublishesTopicsTogether() {
+        manager.addCourse("Biology");
+        Course biology = manager.getCourse("Biology");
+        biology.addTopic("Cells");
+        biology.addTopic("Genetics");
+        biology.addTopic("Ecology");
+        manager.removeCourse("Biology");
+
+        long before = manager.getVersion().getSequence();
+        history.undo();
+        assertEquals(before + 2, manager.getVersion().getSequence()); // the course, then all its topics
+        assertEquals(List.of("Cells", "Genetics", "Ecology"), topicNames(manager.getCourse("Biology")));
+        assertEquals(3, manager.getVersion().getCourse("Biology").getTopics().size());
+    }
+
+    @Test
+    void testUndoCourseRemovalRestoresTopics() {
+        manager.addCourse("Biology");
+        manager.addCourse("Math");
+        manager.getCourse("Biology").addTopic("Cells").addLessonObjective("Define cell");
+        manager.removeCourse("Biology");
+
+        history.undo();
+        assertEquals(List.of("Math", "Biology"), manager.getCourseNames());
+        Course restored = manager.getCourse("Biology");
+        assertEquals(1, restored.getTopic("Cells").getObjectiveCount());
+        restored.getTopic("Cells").markObjectiveAsMastered(0);
+        assertEquals(100.0, restored.getOverallProgress());
+        assertEquals(50.0, manager.getOverallProgress());
+
+        assertFalse(history.canRedo());
+
+        history.undo();
+        history.undo();
+        assertEquals(0, restored.getTopic("Cells").getObjectiveCount()); // earlier steps apply to the restored course
+        history.undo();
+        assertEquals(0, restored.getTopicCount());
+    }
+
+    @Test
+    void testNewChangeClearsRedo() {
+        manager.addCourse("Biology");
+        history.undo();
+        assertTrue(history.canRedo());
+        manager.addCourse("Math");
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void testDepthLimitsSteps() {
+        UndoHistory shallow = new UndoHistory(manager, 2);
+        manager.addCourse("A");
+        manager.addCourse("B");
+        manager.addCourse("C");
+        assertTrue(shallow.undo());
+        assertTrue(shallow.undo());
+        assertFalse(shallow.undo());
+        assertEquals(List.of("A"), manager.getCourseNames());
+    }
+
+    @Test
+    void testDetachStopsRecording() {
+        history.detach();
+        manager.addCourse("Biology");
+        assertFalse(history.canUndo());
+    }
+
+    private static List<String> topicNames(Course course) {
+        List<String> names = new ArrayList<>();
+        for (Topic topic : course.getTopicsView()) {
+            names.add(topic.getName());
+        }
+        return names;
+    }
+
+    // EFFECTS: returns the courses, topics, objectives and progress of manager as text
+    private static String describe(CourseManager manager) {
+        StringBuilder text = new StringBuilder();
+        for (Course course : manager.getCourses()) {
+            text.append(course.getName()).append(' ').append(course.getOverallProgress()).append(':');
+            for (Topic topic : course.getTopicsView()) {
+                text.append(' ').append(topic).append(topic.getLessonObjectivesView());
+            }
+            text.append('\n');
+        }
+        return text.append(manager.getOverallProgress()).toString();
+    }
+}
@@ -0,0 +1,248 @@
+package persistence;
+
+import model.Course;
+import model.CourseManager;
+import model.Topic;
+import model.UndoHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalStoreTest extends JsonTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLoadMissingSnapshot() throws IOException {
+        JournalStore store = new JournalStore(dir.resolve("none.json").toString());
+        CourseManager manager = store.load();
+        assertTrue(manager.getCourseNames().isEmpty());
+        store.close();
+    }
+
+    @Test
+    void testChangesAreJournaledAndReplayed() throws IOException {
+        String snapshot = dir.resolve("studyTrack.json").toString();
+        JournalStore store = new JournalStore(snapshot);
+        CourseManager manager = new CourseManager();
+        manager.addCourse("Math 101");
+        store.save(manager);
+        long snapshotSize = Files.size(Path.of(snapshot));
+
+        mutate(manager);
+        store.save(manager);
+        assertEquals(snapshotSize, Files.size(Path.of(snapshot)));
+        assertTrue(Files.size(store.getJournalPath()) > 0);
+        store.close();
+
+        JournalStore reopened = new JournalStore(snapshot);
+        checkMutated(reopened.load());
+        reopened.close();
+    }
+
+    @Test
+    void testFullSaveReplacesJournaledState() throws IOException {
+        String snapshot = dir.resolve("studyTrack.json").toString();
+        JournalStore store = new JournalStore(snapshot, JournalStore.DEFAULT_COMPACTION_THRESHOLD,
+                Durability.DATA_AND_DIRECTORY);
+        CourseManager manager = new CourseManager();
+        manager.addCourse("Math 101");
+        store.save(manager);
+        mutate(manager);
+
+        CourseManager replacement = new CourseManager();
+        replacement.addCourse("Science 101");
+        store.save(replacement);
+        assertEquals(0, Files.size(store.getJournalPath()));
+        assertEquals("Math 101", new JsonReader(snapshot + ".bak").read().get(0).getName());
+        store.close();
+
+        JournalStore reopened = new JournalStore(snapshot);
+        assertEquals(List.of("Science 101"), reopened.load().getCourseNames());
+        reopened.close();
+    }
+
+    @Test
+    void testLazyLoadBuildsOnlyTouchedCourses() throws IOException {
+        String snapshot = dir.resolve("studyTrack.bin").toString();
+        JournalStore store = new JournalStore(snapshot, JournalStore.DEFAULT_COMPACTION_THRESHOLD,
+                Durability.NONE, SnapshotFormat.BINARY);
+        CourseManager manager = new CourseManager();
+        manager.addCourse("Math 101");
+        manager.addCourse("Art 100");
+        manager.getCourse("Art 100").addTopic("Colour");
+        store.save(manager);
+        mutate(manager);
+        store.close();
+
+        JournalStore reopened = new JournalStore(snapshot);
+        CourseManager loaded = reopened.loadLazily();
+        assertFalse(loaded.isLoaded("Art 100"));
+        assertEquals("Colour", loaded.getCourse("Art 100").getTopics().get(0).getName());
+        loaded.removeCourse("Art 100");
+        checkMutated(loaded);
+        reopened.close();
+    }
+
+    @Test
+    void testLazyCoursesOutliveReplacedSnapshot() throws IOException {
+        String snapshot = dir.resolve("studyTrack.bin").toString();
+        JournalStore store = new JournalStore(snapshot, JournalStore.DEFAULT_COMPACTION_THRESHOLD,
+                Durability.NONE, SnapshotFormat.BINARY);
+        CourseManager manager = new CourseManager();
+        manager.addCourse("Math 101");
+        manager.addCourse("Art 100");
+        manager.getCourse("Art 100").addTopic("Colour");
+        store.save(manager);
+        store.close();
+
+        JournalStore reopened = new JournalStore(snapshot, JournalStore.DEFAULT_COMPACTION_THRESHOLD,
+                Durability.NONE, SnapshotFormat.BINARY);
+        CourseManager loaded = reopened.loadLazily();
+        CourseManager replacement = new CourseManager();
+        replacement.addCourse("Science 101");
+        reopened.save(replacement);
+        Files.delete(Path.of(snapshot + ".bak"));
+        assertEquals("Science 101", new BinaryReader(snapshot).read().get(0).getName());
+
+        assertFalse(loaded.isLoaded("Art 100"));
+        assertEquals("Colour", loaded.getCourse("Art 100").getTopics().get(0).getName());
+        assertTrue(loaded.getCourse("Math 101").getTopics().isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    void testTornRecordIsDiscarded() throws IOException {
+        String snapshot = dir.resolve("studyTrack.json").toString();
+        JournalStore store = new JournalStore(snapshot);
+        CourseManager manager = new CourseManager();
+        manager.addCourse("Math 101");
+        store.save(manager);
+        mutate(manager);
+        store.close();
+        long journalSize = Files.size(store.getJournalPath());
+        Files.write(store.getJournalPath(), new byte[] {20, 1, 2}, StandardOpenOption.APPEND);
+
+        JournalStore reopened = new JournalStore(snapshot);
+        CourseManager loaded = reopened.load();
+        checkMutated(loaded);
+        assertEquals(journalSize, Files.size(reopened.getJournalPath()));
+        loaded.addCourse("Science 101");
+        reopened.close();
+
+        JournalStore again = new JournalStore(snapshot);
+        assertEquals(List.of("Math 101", "Science 101"), again.load().getCourseNames());
+        again.close();
+    }
+
+    @Test
+    void testCompactionFoldsJournalIntoSnapshot() throws IOException {
+        String snapshot = dir.resolve("studyTrack.json").toString();
+        JournalStore store = new JournalStore(snapshot, 64);
+        CourseManager manager = store.load();
+        manager.addCourse("Math 101");
+        mutate(manager);
+        store.close();
+
+        List<Course> compacted = new JsonReader(snapshot).read();
+        assertEquals("Math 101", compacted.get(0).getName());
+        JournalStore reopened = new JournalStore(snapshot);
+        checkMutated(reopened.load());
+        reopened.close();
+    }
+
+    @Test
+    void testChangesFromSeveralThreadsAreAllJournaled() throws IOException, InterruptedException {
+        String snapshot = dir.resolve("studyTrack.json").toString();
+        JournalStore store = new JournalStore(snapshot);
+        CourseManager manager = CourseManager.concurrent();
+        for (int i = 0; i < 4; i++) {
+            manager.addCourse("Course " + i);
+        }
+        store.save(manager);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            String name = "Course " + i;
+            threads[i] = new Thread(() -> {
+                for (int t = 0; t < 200; t++) {
+                    String topic = "Topic " + t;
+                    manager.update(name, course -> course.addTopic(topic));
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        store.save(manager);
+
+        JournalStore reopened = new JournalStore(snapshot);
+        CourseManager loaded = reopened.load();
+        for (int i = 0; i < 4; i++) {
+            List<Topic> topics = loaded.getCourse("Course " + i).getTopics();
+            assertEquals(200, topics.size());
+            assertEquals("Topic 199", topics.get(199).getName());
+        }
+        reopened.close();
+        store.close();
+    }
+
+    @Test
+    void testUndoneChangesAreJournaled() throws IOException {
+        String snapshot = dir.resolve("studyTrack.json").toString();
+        JournalStore store = new JournalStore(snapshot);
+        CourseManager manager = new CourseManager();
+        manager.addCourse("Math 101");
+        store.save(manager);
+        UndoHistory history = new UndoHistory(manager);
+        mutate(manager);
+        Course math = manager.getCourse("Math 101");
+        math.addTopic("Statistics").addLessonObjective("Mean");
+        math.removeTopic("Algebra");
+        history.undo(); // Algebra is back in first place
+        history.undo(); // the objective is gone
+        history.undo(); // so is Statistics
+        history.undo();
+        history.redo(); // History 101 is removed again
+        store.close();
+
+        JournalStore reopened = new JournalStore(snapshot);
+        checkMutated(reopened.load());
+        reopened.close();
+    }
+
+    private void mutate(CourseManager manager) {
+        Course math = manager.getCourse("Math 101");
+        math.addTopic("Algebra");
+        math.addTopic("Calculus");
+        math.addTopic("Geometry");
+        Topic algebra = math.getTopics().get(0);
+        algebra.addLessonObjective("Understand variables");
+        algebra.addLessonObjective("Solve equations");
+        algebra.markObjectiveAsMastered(1);
+        algebra.getLessonObjectives().get(0).markAsMastered();
+        algebra.getLessonObjectives().get(0).unmarkAsMastered();
+        math.removeTopic("calculus");
+        math.getTopics().get(1).addLessonObjective("Angles");
+        manager.addCourse("History 101");
+        manager.removeCourse("History 101");
+    }
+
+    private void checkMutated(CourseManager manager) {
+        assertEquals(List.of("Math 101"), manager.getCourseNames());
+        List<Topic> topics = manager.getCourse("Math 101").getTopics();
+        assertEquals(2, topics.size());
+        checkTopic("Algebra", 50.0, topics.get(0));
+        checkTopic("Geometry", 0.0, topics.get(1));
+        assertFalse(topics.get(0).getLessonObjectives().get(0).isMastered());
+        assertTrue(topics.get(0).getLessonObjectives().get(1).isMastered());
+        assertEquals("Angles", topics.get(1).getLessonObjectives().get(0).getDescription());
+    }
+}
@@ -1,10 +1,13 @@
 package persistence;
 
 import model.Course;
+import model.Event;
+import model.EventLog;
 import model.Topic;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -85,5 +88,48 @@ class JsonReaderTest extends JsonTest {
             fail("Couldn't read from file");
         }
     }
+
+    @Test
+    void testReaderWithoutConfidenceLevel() {
+        JsonReader reader = new JsonReader("./data/testReaderWithoutConfidenceLevel.json");
+        try {
+            List<Course> courses = reader.read();
+            assertEquals(1, courses.size());
+
+            List<Topic> topics = courses.get(0).getTopics();
+            assertEquals(2, topics.size());
+            checkTopic("Algebra", 100.0, topics.get(0));
+            checkTopic("Calculus", 0.0, topics.get(1));
+            assertEquals(50.0, courses.get(0).getOverallProgress());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderBulkLoadLogsSingleEvent() {
+        JsonReader reader = new JsonReader("./data/testReaderGeneralCourses.json");
+        try {
+            EventLog.getInstance().clear();
+            List<Course> courses = reader.read();
+
+            List<Event> events = new ArrayList<>();
+            for (Event event : EventLog.getInstance()) {
+                events.add(event);
+            }
+            assertEquals(2, events.size());
+            assertEquals("Loaded 2 course(s) from ./data/testReaderGeneralCourses.json.",
+                    events.get(1).getDescription());
+
+            Topic calculus = courses.get(0).getTopics().get(1);
+            assertTrue(calculus.getLessonObjectives().get(0).isMastered());
+            assertFalse(calculus.getLessonObjectives().get(1).isMastered());
+            calculus.unmarkObjectiveAsMastered(0);
+            assertEquals(0.0, calculus.getConfidenceLevel());
+            assertEquals(50.0, courses.get(0).getOverallProgress());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
     
 }
@@ -0,0 +1,88 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTokenizerTest {
+
+    private JsonTokenizer tokenizerFor(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new JsonTokenizer(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void testReadObjectMembers() throws IOException {
+        JsonTokenizer tokenizer = tokenizerFor("{ \"a\": \"x\\\"y\\u0041\\n\", \"b\": -1.5e2, \"c\": true }");
+        tokenizer.beginObject();
+        assertTrue(tokenizer.hasNext());
+        assertEquals("a", tokenizer.nextName());
+        assertEquals("x\"yA\n", tokenizer.nextString());
+        assertTrue(tokenizer.hasNext());
+        assertEquals("b", tokenizer.nextName());
+        assertEquals(-150.0, tokenizer.nextDouble());
+        assertTrue(tokenizer.hasNext());
+        assertEquals("c", tokenizer.nextName());
+        assertTrue(tokenizer.nextBoolean());
+        assertFalse(tokenizer.hasNext());
+        tokenizer.endDocument();
+    }
+
+    @Test
+    void testSkipNestedValue() throws IOException {
+        JsonTokenizer tokenizer = tokenizerFor("[{\"x\": [1, {\"y\": null}, \"z\"], \"w\": false}, 7]");
+        tokenizer.beginArray();
+        assertTrue(tokenizer.hasNext());
+        tokenizer.skipValue();
+        assertTrue(tokenizer.hasNext());
+        assertEquals(7.0, tokenizer.nextDouble());
+        assertFalse(tokenizer.hasNext());
+        tokenizer.endDocument();
+    }
+
+    @Test
+    void testMalformedInput() {
+        assertThrows(IOException.class, () -> {
+            JsonTokenizer tokenizer = tokenizerFor("{\"a\" 1}");
+            tokenizer.beginObject();
+            tokenizer.hasNext();
+            tokenizer.nextName();
+        });
+        assertThrows(IOException.class, () -> {
+            JsonTokenizer tokenizer = tokenizerFor("{\"a\": 1}");
+            tokenizer.beginObject();
+            tokenizer.hasNext();
+            tokenizer.nextName();
+            tokenizer.nextString();
+        });
+        assertThrows(IOException.class, () -> {
+            JsonTokenizer tokenizer = tokenizerFor("[");
+            tokenizer.beginArray();
+            tokenizer.hasNext();
+        });
+        assertThrows(IOException.class, () -> {
+            JsonTokenizer tokenizer = tokenizerFor("[] x");
+            tokenizer.beginArray();
+            tokenizer.hasNext();
+            tokenizer.endDocument();
+        });
+    }
+
+    @Test
+    void testCommasBetweenMembersOnly() throws IOException {
+        for (String malformed : new String[] {"[{}{}]", "[,{}]", "{\"a\":1 \"b\":2}", "[1,,2]", "[[1] [2]]"}) {
+            assertThrows(IOException.class, () -> {
+                JsonTokenizer tokenizer = tokenizerFor(malformed);
+                tokenizer.skipValue();
+            }, malformed);
+        }
+        JsonTokenizer tokenizer = tokenizerFor("[[1, 2], {\"a\": [], \"b\": {}}, 3]");
+        tokenizer.skipValue();
+        tokenizer.endDocument();
+    }
+}
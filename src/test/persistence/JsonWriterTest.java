@@ -1,10 +1,14 @@
 package persistence;
 
 import model.Course;
+import model.CourseManager;
+import model.ModelVersion;
 import model.Topic;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,6 +61,81 @@ class JsonWriterTest extends JsonTest {
         }
     }
     
+    @Test
+    void testWriterVersionMatchesLiveCourses() {
+        try {
+            CourseManager manager = new CourseManager(createSampleCourses());
+            JsonWriter live = new JsonWriter("./data/testWriterLiveCourses.json");
+            live.open();
+            live.write(manager.getCourses());
+            live.close();
+
+            ModelVersion version = manager.getVersion();
+            manager.getCourse("Math 101").getTopic("Calculus").addLessonObjective("Not in the version");
+            JsonWriter snapshot = new JsonWriter("./data/testWriterVersionCourses.json");
+            snapshot.open();
+            snapshot.write(version);
+            snapshot.close();
+
+            assertEquals(Files.readString(Paths.get("./data/testWriterLiveCourses.json")),
+                    Files.readString(Paths.get("./data/testWriterVersionCourses.json")));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterCompactEscapedCourses() {
+        try {
+            Course course = new Course("Quotes \"and\" \\slashes\\");
+            Topic topic = new Topic("Line\nbreaks");
+            topic.addLessonObjective("Tab\there");
+            topic.addLessonObjective("Thirds");
+            topic.addLessonObjective("More thirds");
+            topic.markObjectiveAsMastered(0);
+            course.addTopicObject(topic);
+
+            JsonWriter writer = new JsonWriter("./data/testWriterCompactCourses.json", false);
+            writer.open();
+            writer.write(List.of(course));
+            writer.close();
+
+            List<Course> courses = new JsonReader("./data/testWriterCompactCourses.json").read();
+            assertEquals(1, courses.size());
+            assertEquals(course.getName(), courses.get(0).getName());
+            Topic readTopic = courses.get(0).getTopics().get(0);
+            checkTopic("Line\nbreaks", topic.getConfidenceLevel(), readTopic);
+            assertEquals("Tab\there", readTopic.getLessonObjectives().get(0).getDescription());
+            assertTrue(readTopic.getLessonObjectives().get(0).isMastered());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterKeepsBackupAndSkipsIncompleteSave() {
+        try {
+            String destination = "./data/testWriterBackupCourses.json";
+            JsonWriter writer = new JsonWriter(destination, true, Durability.DATA_AND_DIRECTORY);
+            writer.open();
+            writer.write(List.of(new Course("Math 101")));
+            writer.close();
+            writer.open();
+            writer.write(List.of(new Course("Science 101")));
+            writer.close();
+
+            assertEquals("Science 101", new JsonReader(destination).read().get(0).getName());
+            assertEquals("Math 101", new JsonReader(destination + ".bak").read().get(0).getName());
+
+            writer.open();
+            writer.close();
+            assertEquals("Science 101", new JsonReader(destination).read().get(0).getName());
+            assertFalse(Files.exists(Paths.get(destination + ".tmp")));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
     private List<Course> createSampleCourses() {
         Course math = createMathCourse();
         Course science = createScienceCourse();
@@ -0,0 +1,117 @@
+package persistence;
+
+import model.Event;
+import model.EventKind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingEventWriterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEventsReadBackInOrder() throws IOException {
+        RollingEventWriter writer = new RollingEventWriter(dir.resolve("events"), "events");
+        writer.open();
+        List<Event> written = List.of(Event.courseAdded("Math 101"), Event.topicAdded("Math 101", "Limits"),
+                Event.masteryChanged("Math 101", "Limits", "Define a limit", false, true),
+                new Event("Saved {} course(s).", 1));
+        written.forEach(writer::accept);
+        writer.close();
+
+        List<Event> read = new RollingEventReader(dir.resolve("events"), "events").read();
+        assertEquals(written, read);
+        Event mastery = read.get(2);
+        assertEquals(EventKind.MASTERY_CHANGED, mastery.getKind());
+        assertEquals("Limits", mastery.getTopic());
+        assertFalse(mastery.getOldValue());
+        assertTrue(mastery.getNewValue());
+        assertEquals(written.get(0).getTimestamp(), read.get(0).getTimestamp());
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    void testRollsFilesAndKeepsNewest() throws IOException {
+        RollingEventWriter writer = new RollingEventWriter(dir, "events", 64, 60_000, 3, 16, OverflowPolicy.BLOCK);
+        writer.open();
+        for (int i = 0; i < 50; i++) {
+            writer.accept(new Event("Event number {}", i));
+        }
+        writer.close();
+
+        List<Path> files = RollingEventReader.listFiles(dir, "events");
+        assertEquals(3, files.size());
+        List<Event> read = new RollingEventReader(dir, "events").read();
+        assertFalse(read.isEmpty());
+        assertEquals("Event number 49", read.get(read.size() - 1).getDescription());
+
+        writer = new RollingEventWriter(dir, "events", 64, 60_000, 3, 16, OverflowPolicy.BLOCK);
+        writer.open();
+        writer.accept(new Event("After restart"));
+        writer.close();
+        List<Path> after = RollingEventReader.listFiles(dir, "events");
+        assertTrue(RollingEventReader.sequenceOf(after.get(2), "events")
+                > RollingEventReader.sequenceOf(files.get(2), "events"));
+    }
+
+    @Test
+    void testDropPolicyNeverWaits() throws IOException {
+        RollingEventWriter writer = new RollingEventWriter(dir, "events", 64, 60_000, 3, 1, OverflowPolicy.DROP);
+        writer.accept(new Event("kept"));
+        writer.accept(new Event("dropped")); // the writer is not running, so the queue stays full
+        assertEquals(1, writer.getDroppedCount());
+        writer.open();
+        writer.close();
+
+        List<Event> read = new RollingEventReader(dir, "events").read();
+        assertEquals("kept", read.get(read.size() - 1).getDescription());
+    }
+
+    @Test
+    void testEventsAfterCloseAreDropped() throws IOException {
+        RollingEventWriter writer = new RollingEventWriter(dir, "events");
+        writer.open();
+        writer.accept(new Event("before close"));
+        writer.close();
+        for (int i = 0; i < 5; i++) {
+            writer.accept(new Event("after close"));
+        }
+        assertEquals(5, writer.getDroppedCount());
+        List<Event> read = new RollingEventReader(dir, "events").read();
+        assertEquals(1, read.size());
+        assertEquals("before close", read.get(0).getDescription());
+    }
+
+    @Test
+    void testTornTailIsSkipped() throws IOException {
+        RollingEventWriter writer = new RollingEventWriter(dir, "events");
+        writer.open();
+        writer.accept(new Event("first"));
+        writer.accept(new Event("second"));
+        writer.close();
+
+        Path file = RollingEventReader.listFiles(dir, "events").get(0);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        List<Event> read = new RollingEventReader(dir, "events").read();
+        assertEquals(1, read.size());
+        assertEquals("first", read.get(0).getDescription());
+    }
+
+    @Test
+    void testNotAnEventLog() throws IOException {
+        Files.writeString(dir.resolve("events-000001.log"), "hello");
+        assertThrows(IOException.class, () -> new RollingEventReader(dir, "events").read());
+        assertTrue(new RollingEventReader(dir.resolve("missing"), "events").read().isEmpty());
+    }
+}
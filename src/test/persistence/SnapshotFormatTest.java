@@ -0,0 +1,141 @@
+package persistence;
+
+import model.Course;
+import model.CourseManager;
+import model.LazyCourse;
+import model.LessonObjective;
+import model.Topic;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFormatTest extends JsonTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testBinaryRoundTrip() throws IOException {
+        String path = dir.resolve("courses.bin").toString();
+        SnapshotFormat.BINARY.write(createCourses(), path, Durability.NONE);
+
+        assertEquals(SnapshotFormat.BINARY, SnapshotFormat.detect(path));
+        List<Course> courses = SnapshotFormat.read(path);
+        assertEquals(2, courses.size());
+        assertEquals("Math \"101\"\n", courses.get(0).getName());
+        List<Topic> topics = courses.get(0).getTopics();
+        checkTopic("Algebra", 60.0, topics.get(0));
+        checkTopic("Geometry", 0.0, topics.get(1));
+        List<LessonObjective> objectives = topics.get(0).getLessonObjectives();
+        assertEquals(10, objectives.size());
+        for (int i = 0; i < objectives.size(); i++) {
+            assertEquals("Objective " + (i % 4), objectives.get(i).getDescription());
+            assertEquals(i % 3 != 0, objectives.get(i).isMastered());
+        }
+        assertEquals(42.5, courses.get(1).getTopics().get(0).getConfidenceLevel());
+    }
+
+    @Test
+    void testBinaryEmptyCourses() throws IOException {
+        String path = dir.resolve("empty.bin").toString();
+        BinaryWriter writer = new BinaryWriter(path);
+        writer.open();
+        writer.write(List.of());
+        writer.close();
+        assertTrue(new BinaryReader(path).read().isEmpty());
+    }
+
+    @Test
+    void testBinaryIsSmallerThanJson() throws IOException {
+        String json = dir.resolve("courses.json").toString();
+        String binary = dir.resolve("courses.bin").toString();
+        SnapshotFormat.JSON.write(createCourses(), json, Durability.NONE);
+        SnapshotFormat.BINARY.write(createCourses(), binary, Durability.NONE);
+        assertEquals(SnapshotFormat.JSON, SnapshotFormat.detect(json));
+        assertTrue(Files.size(Path.of(binary)) * 4 < Files.size(Path.of(json)));
+    }
+
+    @Test
+    void testConvertInPlace() throws IOException {
+        String path = dir.resolve("courses.json").toString();
+        SnapshotFormat.JSON.write(createCourses(), path, Durability.NONE);
+
+        SnapshotFormat.convert(path, SnapshotFormat.BINARY, Durability.NONE);
+        assertEquals(SnapshotFormat.BINARY, SnapshotFormat.detect(path));
+        assertEquals(SnapshotFormat.JSON, SnapshotFormat.detect(path + ".bak"));
+        assertEquals(2, SnapshotFormat.read(path).size());
+
+        SnapshotFormat.convert(path, SnapshotFormat.JSON, Durability.NONE);
+        assertEquals(SnapshotFormat.JSON, SnapshotFormat.detect(path));
+        checkTopic("Algebra", 60.0, new JsonReader(path).read().get(0).getTopics().get(0));
+    }
+
+    @Test
+    void testCorruptBinaryIsRejected() throws IOException {
+        String path = dir.resolve("courses.bin").toString();
+        SnapshotFormat.BINARY.write(createCourses(), path, Durability.NONE);
+        byte[] bytes = Files.readAllBytes(Path.of(path));
+
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(Path.of(path), bytes);
+        assertThrows(IOException.class, () -> SnapshotFormat.read(path));
+
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(Path.of(path), Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> SnapshotFormat.read(path));
+    }
+
+    @Test
+    void testIndexReadsOnlyRequestedCourses() throws IOException {
+        String path = dir.resolve("courses.bin").toString();
+        SnapshotFormat.BINARY.write(createCourses(), path, Durability.NONE);
+        byte[] bytes = Files.readAllBytes(Path.of(path));
+        bytes[BinaryWriter.HEADER_SIZE + Integer.BYTES] ^= 0x01; // damage the first course only
+        Files.write(Path.of(path), bytes);
+
+        List<LazyCourse> index = new BinaryReader(path).readIndex();
+        assertEquals(2, index.size());
+        assertEquals(60.0 / 2, index.get(0).getOverallProgress());
+        assertEquals(42.5, index.get(1).load().getTopics().get(0).getConfidenceLevel());
+        assertThrows(UncheckedIOException.class, () -> index.get(0).load());
+        assertThrows(IOException.class, () -> new BinaryReader(path).read());
+    }
+
+    @Test
+    void testJournalStoreWritesBinarySnapshots() throws IOException {
+        String path = dir.resolve("studyTrack.json").toString();
+        SnapshotFormat.JSON.write(createCourses(), path, Durability.NONE);
+
+        JournalStore store = new JournalStore(path, JournalStore.DEFAULT_COMPACTION_THRESHOLD,
+                Durability.NONE, SnapshotFormat.BINARY);
+        CourseManager manager = new CourseManager(store.load().getCourses());
+        store.save(manager);
+        store.close();
+
+        assertEquals(SnapshotFormat.BINARY, SnapshotFormat.detect(path));
+        JournalStore reopened = new JournalStore(path);
+        assertEquals(2, reopened.load().getCourses().size());
+        reopened.close();
+    }
+
+    private List<Course> createCourses() {
+        List<LessonObjective> objectives = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            objectives.add(new LessonObjective("Objective " + (i % 4), i % 3 != 0));
+        }
+        Topic override = new Topic("Reading", List.of());
+        override.setConfidenceLevel(42.5);
+        return List.of(
+                new Course("Math \"101\"\n", List.of(new Topic("Algebra", objectives),
+                        new Topic("Geometry", List.of()))),
+                new Course("History", List.of(override)));
+    }
+}
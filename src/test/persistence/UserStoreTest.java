@@ -0,0 +1,93 @@
+package persistence;
+
+import model.CourseManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testUsersHaveShardedFiles() {
+        UserStore store = new UserStore(dir);
+        Path ann = store.pathFor("ann");
+        assertEquals("ann.json", ann.getFileName().toString());
+        assertEquals(dir, ann.getParent().getParent());
+        assertTrue(ann.getParent().getFileName().toString().matches("[0-9a-f]{2}"));
+        assertEquals("%41nn.json", store.pathFor("Ann").getFileName().toString());
+        assertEquals("%2E%2E%2Fx.json", store.pathFor("../x").getFileName().toString());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedAndKeepsTheirChanges() throws IOException {
+        UserStore store = new UserStore(dir, 2, Long.MAX_VALUE, Durability.NONE);
+        store.withUser("ann", manager -> manager.addCourse("Math 101"));
+        store.withUser("bob", manager -> manager.addCourse("Art 100"));
+        store.withUser("ann", manager -> manager.update("Math 101", course -> course.addTopic("Limits")));
+        store.withUser("cat", manager -> manager.addCourse("Chem 120"));
+
+        assertEquals(2, store.getResidentCount());
+        assertFalse(store.isResident("bob"));
+        assertTrue(store.isResident("ann"));
+        assertTrue(Files.exists(Path.of(store.pathFor("bob") + ".journal")));
+
+        List<String> bobCourses = store.withUser("bob", CourseManager::getCourseNames);
+        assertEquals(List.of("Art 100"), bobCourses);
+        assertFalse(store.isResident("ann"));
+        store.close();
+
+        UserStore reopened = new UserStore(dir, 1, Long.MAX_VALUE, Durability.NONE);
+        assertEquals(1, (int) reopened.withUser("ann",
+                manager -> manager.read("Math 101", course -> course.getTopics().size())));
+        assertThrows(IOException.class, () -> {
+            reopened.close();
+            reopened.withUser("ann", CourseManager::getCourseNames);
+        });
+    }
+
+    @Test
+    void testFailedLoadAndFailedActionLeaveTheStoreUsable() throws IOException {
+        UserStore store = new UserStore(dir, 1, 1 << 20, Durability.NONE);
+        Path ann = store.pathFor("ann");
+        Files.createDirectories(ann.getParent());
+        Files.writeString(ann, "not json");
+        assertThrows(IOException.class, () -> store.withUser("ann", manager -> null));
+
+        IllegalStateException thrown = new IllegalStateException("action failed");
+        IllegalStateException caught = assertThrows(IllegalStateException.class,
+                () -> store.withUser("bob", manager -> {
+                    manager.addCourse("Art 100");
+                    throw thrown;
+                }));
+        assertSame(thrown, caught);
+        assertEquals(0, caught.getSuppressed().length);
+        assertFalse(store.isResident("ann"));
+        Boolean found = store.withUser("bob", manager -> manager.getCourse("Art 100") != null);
+        assertTrue(found);
+        store.close();
+    }
+
+    @Test
+    void testByteBoundAndPinnedUsers() throws IOException {
+        UserStore store = new UserStore(dir, 10, 1, Durability.NONE);
+        store.withUser("ann", manager -> {
+            manager.addCourse("Math 101");
+            store.withUser("bob", other -> other.addCourse("Art 100"));
+            assertTrue(store.isResident("ann"));
+            return null;
+        });
+        assertFalse(store.isResident("bob"));
+        assertEquals(0, store.getResidentCount());
+        Boolean found = store.withUser("ann", manager -> manager.getCourse("Math 101") != null);
+        assertTrue(found);
+        store.close();
+    }
+}
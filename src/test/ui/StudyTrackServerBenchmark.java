@@ -0,0 +1,177 @@
+package ui;
+
+import persistence.UserStore;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Load test for the StudyTrack HTTP service. Each client thread plays one student: it creates a
+ * course with a few topics and objectives, then for the given time mixes progress reads (60%),
+ * course reads (20%) and mastery toggles (20%). Reports throughput and median and p99 latency.
+ * Not a unit test: run its main method by hand.
+ * Usage: StudyTrackServerBenchmark [clients] [seconds] [base URL]; without a base URL, an
+ * embedded server is started on a free port, storing its users in a temporary directory.
+ */
+public class StudyTrackServerBenchmark {
+    private static final int TOPICS = 4;
+    private static final int OBJECTIVES = 5;
+    private static final int MAX_SAMPLES = 1 << 20; // latencies kept per client
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        StudyTrackServer embedded = null;
+        UserStore users = null;
+        String base = args.length > 2 ? args[2] : null;
+        if (base == null) {
+            System.setProperty(ServerMain.NO_DELAY_PROPERTY, "true");
+            users = new UserStore(Files.createTempDirectory("studytrack-users"));
+            embedded = new StudyTrackServer(0, users);
+            embedded.start();
+            base = "http://localhost:" + embedded.getPort();
+        }
+        ExecutorService executor = StudyTrackServer.newRequestExecutor();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+        try {
+            run(http, base, clients, seconds);
+        } finally {
+            executor.shutdownNow();
+            if (embedded != null) {
+                embedded.stop();
+                users.close();
+            }
+        }
+    }
+
+    // EFFECTS: runs clients students against base for seconds and prints the results
+    private static void run(HttpClient http, String base, int clients, int seconds) throws InterruptedException {
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[clients];
+        long[] window = new long[2];
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            threads[c] = new Thread(() -> {
+                Student student = new Student(http, base + "/users/student-" + client + "-" + System.nanoTime());
+                student.setUp();
+                awaitQuietly(start);
+                latencies[client] = student.play(window[1]);
+                counts[client] = student.count;
+            });
+            threads[c].start();
+        }
+        window[0] = System.nanoTime();
+        window[1] = window[0] + seconds * 1_000_000_000L;
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report(latencies, counts, System.nanoTime() - window[0], clients);
+    }
+
+    // EFFECTS: prints throughput and latency percentiles over every client's samples
+    private static void report(long[][] latencies, int[] counts, long elapsed, int clients) {
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int at = 0;
+        for (int c = 0; c < clients; c++) {
+            int kept = Math.min(counts[c], latencies[c].length);
+            System.arraycopy(latencies[c], 0, all, at, kept);
+            at += kept;
+        }
+        all = Arrays.copyOf(all, at);
+        Arrays.sort(all);
+        System.out.printf("%d clients: %,d requests in %.1f s = %,.0f requests/s%n",
+                clients, total, elapsed / 1e9, total / (elapsed / 1e9));
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Represents one simulated student with their own user on the server
+    private static final class Student {
+        private final HttpClient http;
+        private final String user;
+        private final long[] latencies = new long[MAX_SAMPLES];
+        private int count;
+        private boolean mastered;
+
+        Student(HttpClient http, String user) {
+            this.http = http;
+            this.user = user;
+        }
+
+        // EFFECTS: creates the student's course, topics and objectives
+        void setUp() {
+            send("POST", "/courses", "{\"name\":\"Math 101\"}");
+            for (int t = 0; t < TOPICS; t++) {
+                send("POST", "/courses/Math%20101/topics", "{\"name\":\"Topic " + t + "\"}");
+                for (int o = 0; o < OBJECTIVES; o++) {
+                    send("POST", "/courses/Math%20101/topics/Topic%20" + t + "/objectives",
+                            "{\"description\":\"Objective " + o + "\"}");
+                }
+            }
+        }
+
+        // EFFECTS: sends the request mix until deadline, returns the latency of each request
+        long[] play(long deadline) {
+            for (int i = 0; System.nanoTime() < deadline; i++) {
+                long begin = System.nanoTime();
+                int pick = i % 5;
+                if (pick < 3) {
+                    send("GET", "/progress", null);
+                } else if (pick == 3) {
+                    send("GET", "/courses/Math%20101", null);
+                } else {
+                    mastered = !mastered;
+                    String objective = "/topics/Topic%20" + (i % TOPICS) + "/objectives/" + (i % OBJECTIVES);
+                    send("PUT", "/courses/Math%20101" + objective, "{\"mastered\":" + mastered + "}");
+                }
+                if (count < latencies.length) {
+                    latencies[count] = System.nanoTime() - begin;
+                }
+                count++;
+            }
+            return latencies;
+        }
+
+        // EFFECTS: sends one request and checks that it succeeded
+        private void send(String method, String path, String body) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(user + path))
+                    .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() >= 300) {
+                    throw new IllegalStateException(method + " " + path + ": " + response.body());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ui;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import persistence.Durability;
+import persistence.UserStore;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudyTrackServerTest {
+    @TempDir
+    Path dir;
+
+    private UserStore users;
+    private StudyTrackServer server;
+    private HttpClient http;
+    private String base;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        users = new UserStore(dir, 16, 1 << 20, Durability.NONE);
+        server = new StudyTrackServer(0, users);
+        server.start();
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        base = "http://localhost:" + server.getPort() + "/users/ann";
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        server.stop();
+        users.close();
+    }
+
+    @Test
+    void testCoursesTopicsAndObjectives() throws Exception {
+        assertEquals(201, send("POST", "/courses", "{\"name\": \"Math 101\"}").statusCode());
+        assertEquals(List.of("Math 101"), json(send("GET", "/courses", null)).getJSONArray("courses").toList());
+        assertEquals(201, send("POST", "/courses/Math%20101/topics", "{\"name\": \"Limits\"}").statusCode());
+        assertEquals(201, send("POST", "/courses/Math%20101/topics", "{\"name\": \"Series\"}").statusCode());
+        assertEquals(201, send("POST", "/courses/Math%20101/topics/limits/objectives",
+                "{\"description\": \"Define a limit\"}").statusCode());
+        assertEquals(201, send("POST", "/courses/Math%20101/topics/Limits/objectives",
+                "{\"description\": \"Use the squeeze theorem\"}").statusCode());
+
+        HttpResponse<String> marked = send("PUT", "/courses/Math%20101/topics/Limits/objectives/0",
+                "{\"mastered\": true}");
+        assertEquals(200, marked.statusCode());
+        assertEquals(50.0, json(marked).getDouble("confidenceLevel"), 1e-9);
+
+        JSONObject course = json(send("GET", "/courses/Math%20101", null));
+        assertEquals("Math 101", course.getString("name"));
+        assertEquals(2, course.getJSONArray("topics").length());
+        assertEquals(25.0, course.getDouble("progress"), 1e-9);
+        JSONObject progress = json(send("GET", "/progress", null));
+        assertEquals(25.0, progress.getDouble("overallProgress"), 1e-9);
+        assertEquals("Math 101", progress.getJSONArray("courses").getJSONObject(0).getString("name"));
+
+        assertEquals(204, send("DELETE", "/courses/Math%20101/topics/Series", null).statusCode());
+        assertEquals(1, json(send("GET", "/courses/Math%20101", null)).getJSONArray("topics").length());
+        assertEquals(204, send("DELETE", "/courses/Math%20101", null).statusCode());
+        assertTrue(json(send("GET", "/courses", null)).getJSONArray("courses").isEmpty());
+    }
+
+    @Test
+    void testPathSegmentsAreDecodedAsPaths() throws Exception {
+        assertEquals(201, send("POST", "/courses", "{\"name\": \"C++ 1/2\"}").statusCode());
+        assertEquals(200, send("GET", "/courses/C++%201%2F2", null).statusCode());
+        assertEquals(404, send("GET", "/courses/C%20%201%2F2", null).statusCode());
+    }
+
+    @Test
+    void testErrorStatuses() throws Exception {
+        send("POST", "/courses", "{\"name\": \"Math 101\"}");
+        assertEquals(400, send("POST", "/courses", "{\"name\": ").statusCode());
+        assertEquals(400, send("POST", "/courses", "{}").statusCode());
+        assertEquals(400, send("PUT", "/courses/Math%20101/topics/Limits/objectives/-1",
+                "{\"mastered\": true}").statusCode());
+        assertEquals(404, send("GET", "/courses/Physics", null).statusCode());
+        assertEquals(404, send("DELETE", "/courses/Math%20101/topics/Limits", null).statusCode());
+        assertEquals(404, send("GET", "/shelves", null).statusCode());
+        assertEquals(405, send("PUT", "/progress", "{}").statusCode());
+        send("POST", "/courses/Math%20101/topics", "{\"name\": \"Limits\"}");
+        send("POST", "/courses/Math%20101/topics/Limits/objectives", "{\"description\": \"Define a limit\"}");
+        for (String body : new String[] {"{}", "{\"mastered\": 0}", "{\"mastered\": \"no\"}"}) {
+            assertEquals(400, send("PUT", "/courses/Math%20101/topics/Limits/objectives/0", body).statusCode());
+        }
+        assertEquals(0.0, json(send("GET", "/courses/Math%20101", null)).getDouble("progress"), 1e-9);
+        assertEquals(405, send("GET", "/courses/Math%20101/topics", null).statusCode());
+        assertEquals(409, send("POST", "/courses", "{\"name\": \"Math 101\"}").statusCode());
+        String large = "{\"name\": \"" + "x".repeat(64 * 1024) + "\"}";
+        HttpResponse<String> tooLarge = send("POST", "/courses", large);
+        assertEquals(413, tooLarge.statusCode());
+        assertEquals("Request body too large", json(tooLarge).getString("error"));
+    }
+
+    // EFFECTS: sends a request with method to base + path, with body as JSON if it is not null
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).method(method, publisher).build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // EFFECTS: returns the body of response as a JSON object
+    private static JSONObject json(HttpResponse<String> response) {
+        return new JSONObject(response.body());
+    }
+}